@@ -0,0 +1,52 @@
+package org.example.benchmarks;
+
+import org.example.controller.MovieManager;
+import org.example.tools.DatasetGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * BenchmarkData writes the datasets the benchmarks run against into a temporary folder, using the application's
+ * DatasetGenerator with a fixed seed, so runs with the same size compare like with like.
+ */
+final class BenchmarkData {
+    static final long SEED = DatasetGenerator.DEFAULT_SEED;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates a folder holding movies.csv, UserPass.csv, UserFavorites.csv and UserWatchHistory.csv.
+     */
+    static Path createDataset(int movieCount, int userCount) throws IOException {
+        Path folder = Files.createTempDirectory("movie-mania-bench");
+        new DatasetGenerator(SEED, movieCount, userCount).writeAll(folder.toFile());
+        return folder;
+    }
+
+    /**
+     * Deletes a folder created by createDataset, with everything in it.
+     */
+    static void deleteDataset(Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Returns a MovieManager that reads and writes the given file instead of the one in resources.
+     */
+    static MovieManager catalogue(File movieFile) {
+        return new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return movieFile;
+            }
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.benchmarks;
+
+import org.example.controller.MovieManager;
+import org.example.model.Movie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for loading, saving, looking up and deleting movies in catalogues of 1k, 100k and 1M movies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class MovieManagerBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int movieCount;
+
+    private Path folder;
+    private File movieFile;
+    private MovieManager manager; // Loaded once per trial
+    private final SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        folder = BenchmarkData.createDataset(movieCount, 0);
+        movieFile = folder.resolve("movies.csv").toFile();
+        manager = BenchmarkData.catalogue(movieFile);
+        manager.readMovies();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteDataset(folder);
+    }
+
+    /**
+     * A full load of movies.csv into a new manager.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public MovieManager readMovies() {
+        MovieManager fresh = BenchmarkData.catalogue(movieFile);
+        fresh.readMovies();
+        return fresh;
+    }
+
+    /**
+     * A full load of movies.csv into a new manager, parsed on the common fork-join pool.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public MovieManager readMoviesParallel() {
+        MovieManager fresh = BenchmarkData.catalogue(movieFile);
+        fresh.readMoviesParallel(ForkJoinPool.commonPool());
+        return fresh;
+    }
+
+    /**
+     * A full rewrite of movies.csv.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void saveMovies() {
+        manager.saveMovies();
+    }
+
+    /**
+     * A lookup of a random existing movie.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Movie getMovieById() {
+        return manager.getMovieById(1 + random.nextInt(movieCount));
+    }
+
+    /**
+     * Deletes a random movie and adds it back, so the catalogue keeps its size from one call to the next.
+     * Both edits are appended to the change log, and the background compaction runs as it would in the application.
+     */
+    @Benchmark
+    public boolean deleteMovieById() {
+        int movieId = 1 + random.nextInt(movieCount);
+        Movie movie = manager.getMovieById(movieId);
+        boolean deleted = manager.deleteMovieById(movieId);
+        manager.addMovie(movie);
+        return deleted;
+    }
+}
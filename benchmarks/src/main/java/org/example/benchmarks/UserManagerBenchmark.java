@@ -0,0 +1,109 @@
+package org.example.benchmarks;
+
+import org.example.controller.MovieManager;
+import org.example.controller.UserManager;
+import org.example.tools.DatasetGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for logging in, adding favorites and reading watch histories with 1k, 100k and 1M users,
+ * against a catalogue with as many movies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class UserManagerBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int userCount;
+
+    private Path folder;
+    private UserManager userManager;
+    private final SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        folder = BenchmarkData.createDataset(userCount, userCount);
+        MovieManager movieManager = BenchmarkData.catalogue(folder.resolve("movies.csv").toFile());
+        movieManager.readMovies();
+
+        File userFile = folder.resolve("UserPass.csv").toFile();
+        File favoritesFile = folder.resolve("UserFavorites.csv").toFile();
+        File watchHistoryFile = folder.resolve("UserWatchHistory.csv").toFile();
+        userManager = new UserManager(movieManager) {
+            @Override
+            protected File getUserFilePath() {
+                return userFile;
+            }
+
+            @Override
+            public File getFavoritesFilePath() {
+                return favoritesFile;
+            }
+
+            @Override
+            public File getWatchHistoryFilePath() {
+                return watchHistoryFile;
+            }
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteDataset(folder);
+    }
+
+    /**
+     * A login of a random existing user.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean authenticateUser() {
+        int user = 1 + random.nextInt(userCount);
+        return userManager.authenticateUser(DatasetGenerator.username(user), DatasetGenerator.password(user));
+    }
+
+    /**
+     * Adds a movie to a random user's favorites and takes it off again, so the lists keep their size.
+     * addToFavorites itself only adds a dialog around addFavorite, which cannot be shown here.
+     */
+    @Benchmark
+    public boolean addToFavorites() {
+        String username = DatasetGenerator.username(1 + random.nextInt(userCount));
+        int movieId = 1 + random.nextInt(userCount);
+        boolean added = userManager.addFavorite(username, movieId);
+        if (added) {
+            userManager.removeFavorite(username, movieId);
+        }
+        return added;
+    }
+
+    /**
+     * Reads a random user's watch history as titles.
+     */
+    @Benchmark
+    public List<String> getWatchHistory() {
+        return userManager.getWatchHistory(DatasetGenerator.username(1 + random.nextInt(userCount)));
+    }
+}
@@ -6,10 +6,14 @@ module Movie.Mania {
 
     requires com.opencsv;
     requires java.desktop; // JUnit 5 parameterized tests
+    requires java.management; // Operation metrics are published as MBeans
+    requires jdk.jfr; // Flight Recorder events for the hot paths
 
     exports org.example.controller; // Export your controller packages (or any other packages you want to expose)
     exports org.example.view; // Export view packages
     exports org.example.model; // Export the model package to allow access in tests
+    exports org.example.metrics; // Export the metrics so JMX can read their MBean interface
+    exports org.example.tools; // Export the dataset generator used by the benchmarks
 
     opens org.example.view to javafx.fxml; // Open specific packages to JavaFX (FXML usage)
 
@@ -7,6 +7,8 @@ import org.example.view.LoginGUI;
 import javafx.application.Application;
 import org.example.view.MovieViewer;
 
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * The Main class is the entry point of the Movie Mania application.
  */
@@ -14,10 +16,10 @@ public class Main {
     public static void main(String[] args) {
         // Initialize MovieManager and UserManager
         MovieManager movieManager = new MovieManager();
-        UserManager userManager = new UserManager();
+        UserManager userManager = new UserManager(movieManager);
 
-        // Load movies from CSV
-        movieManager.readMovies();
+        // Load movies from CSV, parsing large files on all cores
+        movieManager.readMoviesParallel(ForkJoinPool.commonPool());
 
         // Start the JavaFX application
         LoginGUI.setManagers(movieManager, userManager);
@@ -0,0 +1,194 @@
+package org.example.controller;
+
+import org.example.model.ActorRegistry;
+import org.example.model.Movie;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CastIndex maps every actor in the catalogue to the IDs of the movies they appear in, so finding an actor's
+ * movies is a hash lookup and an array copy instead of splitting the cast of every movie.
+ *
+ * Actors are the ActorRegistry IDs from Movie.getCastIds. Each actor has a posting list of movie IDs in ascending
+ * order, and names are looked up ignoring case. The index listens to the catalogue and updates the postings of
+ * just the movie that changed; it remembers the cast it indexed for each movie, so an edit made in place can
+ * still be taken out of the old actors' lists.
+ *
+ * The index is registered with the catalogue when MovieManager is created, so it sees every movie from the first
+ * add and never needs a build. Its listener methods run on the editing thread under the catalogue lock, while
+ * getMovieIds is called from the search thread; each method holds the index's lock, and getMovieIds hands out a
+ * copy, so a caller never sees a posting list change under it. The index never calls back into the catalogue,
+ * so the catalogue lock is always taken before the index lock.
+ */
+public class CastIndex implements CatalogueListener {
+    private static final int[] NO_IDS = new int[0];
+
+    private int[][] postings = new int[64][]; // Actor ID to movie IDs, ascending, null if the actor has none yet
+    private int[] postingSizes = new int[64];
+    private final Map<String, int[]> actorsByName = new HashMap<>(); // Lower-cased name to actor IDs with that name
+    private boolean[] named = new boolean[64]; // Actor IDs already in actorsByName
+
+    private final IntIntHashMap castSlotByMovie = new IntIntHashMap(); // Movie ID to its entry in indexedCasts
+    private int[][] indexedCasts = new int[64][]; // Cast each movie was indexed with
+    private int[] freeCastSlots = new int[8];
+    private int freeCastSlotCount;
+    private int castSlotCount;
+
+    @Override
+    public synchronized void movieAdded(Movie movie) {
+        movieChanged(movie);
+    }
+
+    @Override
+    public synchronized void movieChanged(Movie movie) {
+        int movieId = movie.getMovieId();
+        int[] cast = movie.getCastIds();
+        int slot = castSlotByMovie.get(movieId);
+        if (slot >= 0) {
+            int[] previous = indexedCasts[slot];
+            if (previous == cast || Arrays.equals(previous, cast)) {
+                return;
+            }
+            unpost(movieId, previous);
+        } else {
+            slot = takeCastSlot();
+            castSlotByMovie.put(movieId, slot);
+        }
+        indexedCasts[slot] = cast;
+        for (int actorId : cast) {
+            post(actorId, movieId);
+        }
+    }
+
+    @Override
+    public synchronized void movieRemoved(Movie movie) {
+        int slot = castSlotByMovie.remove(movie.getMovieId());
+        if (slot < 0) {
+            return;
+        }
+        unpost(movie.getMovieId(), indexedCasts[slot]);
+        indexedCasts[slot] = null;
+        if (freeCastSlotCount == freeCastSlots.length) {
+            freeCastSlots = Arrays.copyOf(freeCastSlots, freeCastSlotCount * 2);
+        }
+        freeCastSlots[freeCastSlotCount++] = slot;
+    }
+
+    /**
+     * Returns the IDs of the movies an actor appears in.
+     *
+     * @param actorName the actor's full name, in any case
+     * @return the movie IDs in ascending order, empty if no movie lists the actor
+     */
+    public synchronized int[] getMovieIds(String actorName) {
+        if (actorName == null) {
+            return NO_IDS;
+        }
+        int[] actorIds = actorsByName.get(actorName.trim().toLowerCase(Locale.ROOT));
+        if (actorIds == null) {
+            return NO_IDS;
+        }
+        if (actorIds.length == 1) {
+            int actorId = actorIds[0];
+            return postings[actorId] == null ? NO_IDS : Arrays.copyOf(postings[actorId], postingSizes[actorId]);
+        }
+        // The same name written in different cases: merge the lists and drop repeats
+        int total = 0;
+        for (int actorId : actorIds) {
+            total += postingSizes[actorId];
+        }
+        int[] merged = new int[total];
+        int offset = 0;
+        for (int actorId : actorIds) {
+            if (postings[actorId] != null) {
+                System.arraycopy(postings[actorId], 0, merged, offset, postingSizes[actorId]);
+                offset += postingSizes[actorId];
+            }
+        }
+        Arrays.sort(merged);
+        int unique = 0;
+        for (int i = 0; i < merged.length; i++) {
+            if (i == 0 || merged[i] != merged[i - 1]) {
+                merged[unique++] = merged[i];
+            }
+        }
+        return Arrays.copyOf(merged, unique);
+    }
+
+    /**
+     * Adds a movie ID to an actor's list, keeping it sorted. Loads add movies in ID order, so this is
+     * almost always an append.
+     */
+    private void post(int actorId, int movieId) {
+        if (actorId >= postings.length) {
+            int capacity = Math.max(actorId + 1, postings.length * 2);
+            postings = Arrays.copyOf(postings, capacity);
+            postingSizes = Arrays.copyOf(postingSizes, capacity);
+        }
+        nameActor(actorId);
+        int[] list = postings[actorId];
+        int size = postingSizes[actorId];
+        if (list == null) {
+            list = postings[actorId] = new int[2];
+        }
+        int at = size == 0 || list[size - 1] < movieId ? size : Arrays.binarySearch(list, 0, size, movieId);
+        if (at < 0) {
+            at = -at - 1;
+        } else if (at < size) {
+            return; // Already listed, as when an actor appears twice in one cast
+        }
+        if (size == list.length) {
+            list = postings[actorId] = Arrays.copyOf(list, size * 2);
+        }
+        System.arraycopy(list, at, list, at + 1, size - at);
+        list[at] = movieId;
+        postingSizes[actorId] = size + 1;
+    }
+
+    private void unpost(int movieId, int[] cast) {
+        for (int actorId : cast) {
+            int[] list = postings[actorId];
+            int size = postingSizes[actorId];
+            int at = list == null ? -1 : Arrays.binarySearch(list, 0, size, movieId);
+            if (at >= 0) {
+                System.arraycopy(list, at + 1, list, at, size - at - 1);
+                postingSizes[actorId] = size - 1;
+            }
+        }
+    }
+
+    /**
+     * Makes an actor findable by name the first time one of their movies is indexed.
+     */
+    private void nameActor(int actorId) {
+        if (actorId >= named.length) {
+            named = Arrays.copyOf(named, Math.max(actorId + 1, named.length * 2));
+        }
+        if (named[actorId]) {
+            return;
+        }
+        named[actorId] = true;
+        String key = ActorRegistry.getInstance().getName(actorId).toLowerCase(Locale.ROOT);
+        int[] existing = actorsByName.get(key);
+        if (existing == null) {
+            actorsByName.put(key, new int[]{actorId});
+        } else {
+            int[] grown = Arrays.copyOf(existing, existing.length + 1);
+            grown[existing.length] = actorId;
+            actorsByName.put(key, grown);
+        }
+    }
+
+    private int takeCastSlot() {
+        if (freeCastSlotCount > 0) {
+            return freeCastSlots[--freeCastSlotCount];
+        }
+        if (castSlotCount == indexedCasts.length) {
+            indexedCasts = Arrays.copyOf(indexedCasts, castSlotCount * 2);
+        }
+        return castSlotCount++;
+    }
+}
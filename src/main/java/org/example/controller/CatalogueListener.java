@@ -0,0 +1,36 @@
+package org.example.controller;
+
+import org.example.model.Movie;
+
+/**
+ * CatalogueListener is told about every change to MovieManager's catalogue, so that indexes over it can
+ * update themselves one movie at a time instead of being rebuilt.
+ *
+ * Listeners are called on the thread that changed the catalogue, right after the change, while the catalogue's lock
+ * is held. A listener therefore sees changes one at a time and in order, but must not wait for another thread that
+ * might need the catalogue.
+ * Edits made through a movie's setters are only reported once MovieManager.updateMovie is called for it.
+ */
+public interface CatalogueListener {
+
+    /**
+     * Called after a movie was added to the catalogue.
+     *
+     * @param movie the new movie
+     */
+    void movieAdded(Movie movie);
+
+    /**
+     * Called after a movie in the catalogue was edited.
+     *
+     * @param movie the movie, in its new state
+     */
+    void movieChanged(Movie movie);
+
+    /**
+     * Called after a movie was removed from the catalogue.
+     *
+     * @param movie the removed movie
+     */
+    void movieRemoved(Movie movie);
+}
@@ -0,0 +1,166 @@
+package org.example.controller;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * CoverThumbnailer makes the scaled-down copies of an uploaded cover that the views actually display:
+ * a 150x200 grid rendition and a 300x400 detail rendition, stored as JPEG next to the original.
+ *
+ * A cover at images/Heat.png gets images/thumbs/150x200/Heat.png.jpg and images/thumbs/300x400/Heat.png.jpg.
+ * Views load the smallest rendition that is at least as large as what they show, and fall back to the
+ * original for covers that have no renditions.
+ */
+public class CoverThumbnailer {
+    public static final int[][] RENDITION_SIZES = {{150, 200}, {300, 400}}; // Width and height, smallest first
+    private static final float JPEG_QUALITY = 0.85f;
+
+    // One daemon thread scales uploads so the FX thread never does
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cover-thumbnailer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private CoverThumbnailer() {
+    }
+
+    /**
+     * Returns where the rendition of a cover at the given size is stored.
+     *
+     * @param imagePath the cover path, relative to the resources root
+     * @param width     the rendition width
+     * @param height    the rendition height
+     * @return the rendition path, relative to the resources root
+     */
+    public static String renditionPath(String imagePath, int width, int height) {
+        int slash = imagePath.lastIndexOf('/');
+        String directory = imagePath.substring(0, slash + 1);
+        String name = imagePath.substring(slash + 1);
+        if (!name.toLowerCase().endsWith(".jpg")) {
+            name += ".jpg"; // Keeps Heat.png and Heat.jpeg from sharing a rendition
+        }
+        return directory + "thumbs/" + width + "x" + height + "/" + name;
+    }
+
+    /**
+     * Lists the renditions that are large enough to show a cover at the given size, smallest first.
+     *
+     * @param imagePath the cover path, relative to the resources root
+     * @param width     the width it will be shown at
+     * @param height    the height it will be shown at
+     * @return rendition paths, relative to the resources root; they may not exist
+     */
+    public static List<String> renditionsFor(String imagePath, int width, int height) {
+        List<String> paths = new ArrayList<>();
+        for (int[] size : RENDITION_SIZES) {
+            if (size[0] >= width && size[1] >= height) {
+                paths.add(renditionPath(imagePath, size[0], size[1]));
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Writes every rendition of a cover on the thumbnailer thread.
+     *
+     * @param resourcesRoot the directory the cover path is relative to
+     * @param imagePath     the cover path
+     * @return a future that completes once all renditions are written
+     */
+    public static CompletableFuture<Void> generateInBackground(File resourcesRoot, String imagePath) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                generate(resourcesRoot, imagePath);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }, WORKER);
+    }
+
+    /**
+     * Writes every rendition of a cover.
+     *
+     * @param resourcesRoot the directory the cover path is relative to
+     * @param imagePath     the cover path
+     * @throws IOException if the cover cannot be read or a rendition cannot be written
+     */
+    public static void generate(File resourcesRoot, String imagePath) throws IOException {
+        BufferedImage original = ImageIO.read(new File(resourcesRoot, imagePath));
+        if (original == null) {
+            throw new IOException("Unsupported image format: " + imagePath);
+        }
+        for (int[] size : RENDITION_SIZES) {
+            File target = new File(resourcesRoot, renditionPath(imagePath, size[0], size[1]));
+            writeJpeg(scale(original, size[0], size[1]), target);
+        }
+    }
+
+    /**
+     * Scales an image to exactly the given size, halving it step by step first when it is much larger,
+     * which keeps the result sharp without the cost of an area-averaging filter.
+     */
+    static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(currentWidth / 2, width);
+            currentHeight = Math.max(currentHeight / 2, height);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE); // JPEG has no alpha, so transparent areas become white
+                graphics.fillRect(0, 0, currentWidth, currentHeight);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    /**
+     * Writes a JPEG next to the target and moves it into place, so a view never reads a half-written file.
+     */
+    private static void writeJpeg(BufferedImage image, File target) throws IOException {
+        Files.createDirectories(target.getParentFile().toPath());
+        File tempFile = new File(target.getPath() + ".tmp");
+        Files.deleteIfExists(tempFile.toPath()); // The image stream would otherwise write over an old file without truncating it
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(tempFile)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        try {
+            Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
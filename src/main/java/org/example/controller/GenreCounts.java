@@ -0,0 +1,75 @@
+package org.example.controller;
+
+import org.example.model.GenreRegistry;
+import org.example.model.Movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * GenreCounts counts the catalogue's movies per genre column value ("Sci-Fi, Thriller"), so the genres in use can be
+ * listed without scanning the catalogue. GenreRegistry remembers every genre ever registered, including those whose
+ * movies have since been deleted or edited; this lists only the genres some movie still has.
+ *
+ * Movies are counted under their GenreRegistry column ID. The column each movie was counted under is remembered,
+ * so an edit made in place can still be taken off the old column. The counts follow the catalogue listeners, which
+ * run under the catalogue lock, and getGenres may be called from any thread; both are synchronized on the counts.
+ */
+class GenreCounts implements CatalogueListener {
+    private final IntIntHashMap columnByMovie = new IntIntHashMap(); // Movie ID to the column it is counted under
+    private int[] moviesByColumn = new int[16]; // Column ID to the number of movies counted under it
+
+    @Override
+    public synchronized void movieAdded(Movie movie) {
+        movieChanged(movie);
+    }
+
+    @Override
+    public synchronized void movieChanged(Movie movie) {
+        int movieId = movie.getMovieId();
+        int previous = columnByMovie.get(movieId);
+        int column = movie.getGenre() == null ? -1 : GenreRegistry.getInstance().register(movie.getGenre());
+        if (column == previous) {
+            return;
+        }
+        if (previous >= 0) {
+            moviesByColumn[previous]--;
+        }
+        if (column < 0) {
+            columnByMovie.remove(movieId);
+            return;
+        }
+        columnByMovie.put(movieId, column);
+        if (column >= moviesByColumn.length) {
+            moviesByColumn = Arrays.copyOf(moviesByColumn, Math.max(column + 1, moviesByColumn.length * 2));
+        }
+        moviesByColumn[column]++;
+    }
+
+    @Override
+    public synchronized void movieRemoved(Movie movie) {
+        int previous = columnByMovie.remove(movie.getMovieId());
+        if (previous >= 0) {
+            moviesByColumn[previous]--;
+        }
+    }
+
+    /**
+     * Returns every genre that at least one movie in the catalogue has, in alphabetical order.
+     * This costs one pass over the distinct genre column values, not over the movies.
+     *
+     * @return the genre names, spelled as in the first column value that has them
+     */
+    synchronized List<String> getGenres() {
+        TreeSet<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        GenreRegistry registry = GenreRegistry.getInstance();
+        for (int column = 0; column < moviesByColumn.length; column++) {
+            if (moviesByColumn[column] > 0) {
+                names.addAll(GenreRegistry.split(registry.getColumn(column)));
+            }
+        }
+        return new ArrayList<>(names);
+    }
+}
@@ -0,0 +1,224 @@
+package org.example.controller;
+
+import java.util.Arrays;
+
+/**
+ * IntIntHashMap is a small open-addressing hash map from int keys to int values.
+ * It avoids boxing every key and value into Integer objects, which matters when
+ * the catalogue holds hundreds of thousands of movies.
+ */
+class IntIntHashMap {
+    private static final int FREE_KEY = Integer.MIN_VALUE; // Marks an empty slot
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final int missingValue; // Returned by get/remove when a key is absent
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    // FREE_KEY itself cannot be stored in the table, so it gets its own slot
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    /**
+     * Creates an empty map that returns -1 for missing keys.
+     */
+    IntIntHashMap() {
+        this(16, -1);
+    }
+
+    /**
+     * Creates an empty map.
+     *
+     * @param expectedSize the number of entries the map should hold without resizing
+     * @param missingValue the value returned for keys that are not in the map
+     */
+    IntIntHashMap(int expectedSize, int missingValue) {
+        this.missingValue = missingValue;
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR));
+        allocate(capacity);
+    }
+
+    /**
+     * Returns the value for a key, or the missing value if the key is not present.
+     *
+     * @param key the key to look up
+     * @return the mapped value or the missing value
+     */
+    int get(int key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey ? freeKeyValue : missingValue;
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    /**
+     * Checks whether a key is present.
+     *
+     * @param key the key to check
+     * @return true if the key is mapped
+     */
+    boolean containsKey(int key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey;
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Maps a key to a value, replacing any previous value.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the previous value, or the missing value if there was none
+     */
+    int put(int key, int value) {
+        if (key == FREE_KEY) {
+            int previous = hasFreeKey ? freeKeyValue : missingValue;
+            if (!hasFreeKey) {
+                size++;
+            }
+            hasFreeKey = true;
+            freeKeyValue = value;
+            return previous;
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length * 2);
+        }
+        return missingValue;
+    }
+
+    /**
+     * Removes a key from the map.
+     *
+     * @param key the key to remove
+     * @return the value that was mapped, or the missing value if there was none
+     */
+    int remove(int key) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) {
+                return missingValue;
+            }
+            hasFreeKey = false;
+            size--;
+            return freeKeyValue;
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                shiftKeys(slot);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes every entry from the map, keeping the current table size.
+     */
+    void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        hasFreeKey = false;
+        size = 0;
+    }
+
+    /**
+     * Closes the gap left by a removed entry so that later lookups in the same
+     * probe chain still find their keys (backward-shift deletion).
+     */
+    private void shiftKeys(int slot) {
+        int last;
+        while (true) {
+            last = slot;
+            slot = (slot + 1) & mask;
+            while (true) {
+                int key = keys[slot];
+                if (key == FREE_KEY) {
+                    keys[last] = FREE_KEY;
+                    return;
+                }
+                int home = mix(key) & mask;
+                // Move the entry back only if its home slot is not between last and slot
+                if (last <= slot ? (last >= home || home > slot) : (last >= home && home > slot)) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[last] = keys[slot];
+            values[last] = values[slot];
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != FREE_KEY) {
+                int slot = mix(key) & mask;
+                while (keys[slot] != FREE_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE_KEY);
+        mask = capacity - 1;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9; // Fibonacci hashing spreads sequential IDs across the table
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        return Math.max(n, 4);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.controller;
+
+import java.util.Arrays;
+
+/**
+ * IntOrderedSet is a set of primitive ints that remembers insertion order.
+ * Membership checks go through a hash index, so checking for a duplicate costs the same
+ * however long the list is; the values themselves sit in one int array.
+ */
+class IntOrderedSet {
+    private int[] items;
+    private int size;
+    private final IntIntHashMap positions; // Value to its index in items
+
+    /**
+     * Creates an empty set.
+     */
+    IntOrderedSet() {
+        this.items = new int[4];
+        this.positions = new IntIntHashMap(4, -1);
+    }
+
+    /**
+     * Checks whether a value is in the set.
+     *
+     * @param value the value
+     * @return true if present
+     */
+    boolean contains(int value) {
+        return positions.containsKey(value);
+    }
+
+    /**
+     * Adds a value at the end if it is not already present.
+     *
+     * @param value the value
+     * @return true if the value was added
+     */
+    boolean add(int value) {
+        if (positions.containsKey(value)) {
+            return false;
+        }
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size] = value;
+        positions.put(value, size);
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a value, keeping the order of the rest.
+     *
+     * @param value the value
+     * @return true if the value was present
+     */
+    boolean remove(int value) {
+        int index = positions.remove(value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(items, index + 1, items, index, size - index - 1);
+        size--;
+        for (int i = index; i < size; i++) {
+            positions.put(items[i], i);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return the size
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value at a position in insertion order.
+     *
+     * @param index the position
+     * @return the value
+     */
+    int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return items[index];
+    }
+
+    /**
+     * Copies the values into a new array, in insertion order.
+     *
+     * @return the values
+     */
+    int[] toArray() {
+        return Arrays.copyOf(items, size);
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.controller;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.CSVWriter;
+import com.opencsv.RFC4180ParserBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+import org.example.model.Movie;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * MovieChangeLog is an append-only log of catalogue edits kept next to movies.csv (as movies.csv.log).
+ *
+ * Every add, update or delete appends one record instead of rewriting the whole catalogue.
+ * An upsert record is "U" followed by the movie's eight columns, a delete record is "D" followed by the movie ID.
+ * Both are idempotent, so replaying a record that is already reflected in movies.csv does no harm.
+ *
+ * Compaction folds the log back into movies.csv. It first rotates the log to movies.csv.log.old so that new
+ * edits go to a fresh log while the base file is rewritten, and deletes the rotated log once the new base is in place.
+ */
+class MovieChangeLog {
+    static final String UPSERT = "U";
+    static final String DELETE = "D";
+
+    private final File logFile;
+    private final File rotatedFile;
+    private int recordCount; // Records in the live log and the rotated log
+
+    /**
+     * Creates the change log that belongs to a movies file.
+     *
+     * @param movieFile the movies.csv file
+     */
+    MovieChangeLog(File movieFile) {
+        this.logFile = new File(movieFile.getPath() + ".log");
+        this.rotatedFile = new File(movieFile.getPath() + ".log.old");
+    }
+
+    /**
+     * Appends an upsert record for a movie that was added or updated.
+     *
+     * @param movie the movie in its new state
+     * @return the number of bytes written
+     * @throws IOException if the record cannot be written
+     */
+    synchronized long appendUpsert(Movie movie) throws IOException {
+        String[] columns = MovieCsvFormat.toRow(movie);
+        String[] record = new String[columns.length + 1];
+        record[0] = UPSERT;
+        System.arraycopy(columns, 0, record, 1, columns.length);
+        return append(record);
+    }
+
+    /**
+     * Appends a delete record.
+     *
+     * @param movieId the ID of the deleted movie
+     * @return the number of bytes written
+     * @throws IOException if the record cannot be written
+     */
+    synchronized long appendDelete(int movieId) throws IOException {
+        return append(new String[]{DELETE, String.valueOf(movieId)});
+    }
+
+    /**
+     * Returns the number of records waiting to be compacted.
+     *
+     * @return the record count
+     */
+    synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Replays the rotated log (left behind by an unfinished compaction) and then the live log, in write order.
+     * Unreadable records are skipped and reported once per file; only a record that was cut short by a crash ends
+     * the replay of its file.
+     *
+     * @param upsert receives every upserted movie
+     * @param delete receives every deleted movie ID
+     */
+    synchronized void replay(Consumer<Movie> upsert, IntConsumer delete) {
+        recordCount = replayFile(rotatedFile, upsert, delete) + replayFile(logFile, upsert, delete);
+    }
+
+    /**
+     * Moves the live log aside so that edits made from now on are not lost when the compacted
+     * base file replaces movies.csv. If an earlier compaction never finished, the live log is
+     * added to the end of its rotated log instead.
+     *
+     * @return the number of records that are now in the rotated log
+     * @throws IOException if the log cannot be moved
+     */
+    synchronized int rotate() throws IOException {
+        if (logFile.exists()) {
+            if (rotatedFile.exists()) {
+                Files.write(rotatedFile.toPath(), Files.readAllBytes(logFile.toPath()), StandardOpenOption.APPEND);
+                Files.delete(logFile.toPath());
+            } else {
+                Files.move(logFile.toPath(), rotatedFile.toPath());
+            }
+        }
+        return recordCount;
+    }
+
+    /**
+     * Deletes the rotated log once its records are part of movies.csv.
+     *
+     * @param rotatedRecords the record count returned by rotate
+     * @throws IOException if the file cannot be deleted
+     */
+    synchronized void discardRotated(int rotatedRecords) throws IOException {
+        Files.deleteIfExists(rotatedFile.toPath());
+        recordCount = Math.max(0, recordCount - rotatedRecords);
+    }
+
+    private long append(String[] record) throws IOException {
+        long lengthBefore = logFile.length();
+        try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(
+                new FileOutputStream(logFile, true), StandardCharsets.UTF_8))) {
+            writer.writeNext(record);
+        }
+        recordCount++;
+        return logFile.length() - lengthBefore;
+    }
+
+    private static int replayFile(File file, Consumer<Movie> upsert, IntConsumer delete) {
+        if (!file.exists()) {
+            return 0;
+        }
+        int records = 0;
+        int skipped = 0;
+        // CSVWriter escapes quotes by doubling them, so read with the RFC 4180 parser rather than the backslash-escaping default
+        try (CSVReader reader = new CSVReaderBuilder(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))
+                .withCSVParser(new RFC4180ParserBuilder().build())
+                .build()) {
+            String[] record;
+            while ((record = reader.readNext()) != null) {
+                try {
+                    if (UPSERT.equals(record[0]) && record.length > MovieCsvLoader.COLUMN_COUNT) {
+                        upsert.accept(MovieCsvFormat.fromRow(record, 1));
+                    } else if (DELETE.equals(record[0]) && record.length > 1) {
+                        delete.accept(Integer.parseInt(record[1].trim()));
+                    } else {
+                        skipped++;
+                        continue;
+                    }
+                } catch (NumberFormatException e) {
+                    skipped++; // A damaged record does not stop the ones after it
+                    continue;
+                }
+                records++;
+            }
+        } catch (IOException | CsvValidationException e) {
+            System.err.println("Change log " + file.getName() + " ends with an incomplete record: " + e.getMessage());
+        }
+        if (skipped > 0) {
+            System.err.println("Ignored " + skipped + " unreadable change log records in " + file.getName());
+        }
+        return records;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.controller;
+
+import org.example.model.Movie;
+
+/**
+ * MovieCsvFormat holds the column layout of movies.csv, shared by the full save and the change log.
+ */
+final class MovieCsvFormat {
+    static final String[] HEADER = {"Movie ID", "Title", "Year", "Main Cast", "Rating", "Genre", "Description", "Cover Image Path"};
+
+    private MovieCsvFormat() {
+    }
+
+    /**
+     * Converts a movie to its CSV columns.
+     *
+     * @param movie the movie to convert
+     * @return the eight column values
+     */
+    static String[] toRow(Movie movie) {
+        return new String[]{
+                String.valueOf(movie.getMovieId()), // Convert movie ID to string
+                movie.getTitle(),
+                String.valueOf(movie.getYear()), // Convert year to string
+                movie.getMainCast(),
+                String.valueOf(movie.getRating()), // Convert rating to string
+                movie.getGenre(),
+                movie.getDescription(),
+                movie.getCoverImagePath()
+        };
+    }
+
+    /**
+     * Builds a movie from eight CSV columns starting at the given offset.
+     *
+     * @param row    the row to read
+     * @param offset the index of the movie ID column
+     * @return the movie
+     * @throws NumberFormatException if the ID, year or rating is not a number
+     */
+    static Movie fromRow(String[] row, int offset) {
+        return new Movie(
+                Integer.parseInt(row[offset].trim()),
+                row[offset + 1],
+                Integer.parseInt(row[offset + 2].trim()),
+                row[offset + 3],
+                Double.parseDouble(row[offset + 4].trim()),
+                row[offset + 5],
+                row[offset + 6],
+                row[offset + 7]);
+    }
+}
@@ -0,0 +1,253 @@
+package org.example.controller;
+
+import org.example.model.Movie;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * MovieCsvLoader streams movie rows out of a movies.csv reader and turns each row into a Movie as soon as it is read.
+ * It never holds more than one row in memory, and it parses the numeric columns straight from its field buffer
+ * so that no temporary String is created for the ID, year or rating.
+ *
+ * Quoting follows RFC 4180, which is what CSVWriter produces: fields may be wrapped in double quotes,
+ * a doubled quote inside a quoted field stands for one quote, and quoted fields may span lines.
+ */
+class MovieCsvLoader {
+    static final int COLUMN_COUNT = 8; // ID, Title, Year, Main Cast, Rating, Genre, Description, Cover Image Path
+
+    private static final char QUOTE = '"';
+    private static final char SEPARATOR = ',';
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+
+    // Field buffers are reused for every row; only text columns are turned into Strings
+    private final StringBuilder[] fields;
+    private int fieldCount;
+
+    private long rowCount;
+    private long skippedRowCount;
+
+    /**
+     * Creates a loader over a reader positioned at the start of a movies.csv file (or a chunk of one).
+     *
+     * @param reader the reader to pull characters from
+     */
+    MovieCsvLoader(Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[64 * 1024];
+        this.fields = new StringBuilder[COLUMN_COUNT + 1];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = new StringBuilder(64);
+        }
+    }
+
+    /**
+     * Skips the header row.
+     *
+     * @throws IOException if the reader fails
+     */
+    void skipHeader() throws IOException {
+        readRecord();
+    }
+
+    /**
+     * Reads every remaining row and hands each parsed movie to the consumer.
+     * Rows that do not have all eight columns, or whose numbers do not parse, are skipped and counted.
+     *
+     * @param consumer receives each movie in file order
+     * @throws IOException if the reader fails
+     */
+    void forEachMovie(Consumer<Movie> consumer) throws IOException {
+        while (readRecord()) {
+            if (fieldCount == 1 && fields[0].length() == 0) {
+                continue; // Blank line
+            }
+            Movie movie = toMovie();
+            if (movie == null) {
+                skippedRowCount++;
+                continue;
+            }
+            rowCount++;
+            consumer.accept(movie);
+        }
+    }
+
+    /**
+     * Returns the number of movies read so far.
+     *
+     * @return the row count
+     */
+    long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of malformed rows skipped so far.
+     *
+     * @return the skipped row count
+     */
+    long getSkippedRowCount() {
+        return skippedRowCount;
+    }
+
+    private Movie toMovie() {
+        if (fieldCount < COLUMN_COUNT) {
+            return null;
+        }
+        try {
+            int movieId = parseInt(fields[0]);
+            int year = parseInt(fields[2]);
+            double rating = parseDouble(fields[4]);
+            return new Movie(movieId, fields[1].toString(), year, fields[3].toString(), rating,
+                    fields[5].toString(), fields[6].toString(), fields[7].toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads one record into the field buffers.
+     *
+     * @return false if the end of input was reached before any character of a new record
+     */
+    private boolean readRecord() throws IOException {
+        int c = read();
+        if (c < 0) {
+            return false;
+        }
+        fieldCount = 0;
+        StringBuilder field = startField();
+        boolean quoted = false;
+
+        while (c >= 0) {
+            if (quoted) {
+                if (c == QUOTE) {
+                    int next = read();
+                    if (next == QUOTE) {
+                        field.append(QUOTE); // Doubled quote inside a quoted field
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == QUOTE && field.length() == 0) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                field = startField();
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                int next = read();
+                if (next != '\n' && next >= 0) {
+                    position--; // Lone carriage return ends the line; keep the next character
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        return true;
+    }
+
+    private StringBuilder startField() {
+        // Extra columns beyond the eighth are folded into a spare buffer and ignored
+        StringBuilder field = fields[Math.min(fieldCount, COLUMN_COUNT)];
+        field.setLength(0);
+        fieldCount++;
+        return field;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * Parses a base-10 integer without creating a String.
+     */
+    static int parseInt(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) == ' ') start++;
+        while (end > start && text.charAt(end - 1) == ' ') end--;
+        if (start == end) {
+            throw new NumberFormatException("Empty number");
+        }
+        boolean negative = text.charAt(start) == '-';
+        if (negative || text.charAt(start) == '+') {
+            start++;
+        }
+        if (start == end || end - start > 10) {
+            return Integer.parseInt(text.toString().trim()); // Let the JDK report or handle the odd case
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Not a number: " + text);
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Out of range: " + text);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a plain decimal such as "8.8" without creating a String.
+     * Anything fancier (exponents, very long mantissas) is passed on to Double.parseDouble,
+     * so the result is always the same as Double.parseDouble would give.
+     */
+    static double parseDouble(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) == ' ') start++;
+        while (end > start && text.charAt(end - 1) == ' ') end--;
+        boolean negative = start < end && text.charAt(start) == '-';
+        int i = negative || start < end && text.charAt(start) == '+' ? start + 1 : start;
+
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (; i < end; i++) {
+            char ch = text.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                mantissa = mantissa * 10 + (ch - '0');
+                digits++;
+                if (decimals >= 0) decimals++;
+            } else if (ch == '.' && decimals < 0) {
+                decimals = 0;
+            } else {
+                break;
+            }
+        }
+        // Exact only while the mantissa and the power of ten are both exactly representable
+        if (i != end || digits == 0 || digits > 15 || decimals >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(text.toString());
+        }
+        double value = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+        return negative ? -value : value;
+    }
+}
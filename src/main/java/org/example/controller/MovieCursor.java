@@ -0,0 +1,97 @@
+package org.example.controller;
+
+import org.example.model.Movie;
+
+/**
+ * MovieCursor marks where the next page of a catalogue query starts. It is handed out with each MoviePage
+ * and passed back, with the same query, to fetch the page after it.
+ *
+ * The cursor is a key for the last movie returned, so the next page starts right after that movie wherever it now
+ * is: movies added or removed in between do not make a page repeat or skip a movie. In a precomputed sort order
+ * the key is the movie's sort key, and in catalogue order its catalogue sequence number, which stays valid after
+ * the movie itself is removed. In the rare case that the catalogue has been numbered again since, the next page
+ * goes on after the movie with the cursor's ID, or starts over if that movie is gone too. In keyword rank order the cursor holds the movie's ID and the number of results
+ * already returned; the ranking is kept for the next page, and if the catalogue has changed the next page goes on
+ * after the movie in the new ranking.
+ */
+public final class MovieCursor {
+    private final MovieSortOrder sortOrder; // Null for keyword rank order
+    private final int position; // Results returned, in rank order
+    private final long sequence; // Catalogue sequence number of the last movie returned, in catalogue order
+    private final int numbering; // The catalogue numbering the sequence number belongs to
+    private final double rating; // Sort key of the last movie returned, for the precomputed orders
+    private final int year;
+    private final String title; // Case-folded
+    private final int movieId; // ID of the last movie returned
+
+    private MovieCursor(MovieSortOrder sortOrder, int position, long sequence, int numbering,
+                        double rating, int year, String title, int movieId) {
+        this.sortOrder = sortOrder;
+        this.position = position;
+        this.sequence = sequence;
+        this.numbering = numbering;
+        this.rating = rating;
+        this.year = year;
+        this.title = title;
+        this.movieId = movieId;
+    }
+
+    /**
+     * Creates a cursor that goes on after a movie in catalogue order.
+     */
+    static MovieCursor afterInCatalogue(long sequence, int numbering, Movie movie) {
+        return new MovieCursor(MovieSortOrder.CATALOGUE, 0, sequence, numbering, 0, 0, null, movie.getMovieId());
+    }
+
+    /**
+     * Creates a cursor that goes on after a movie in keyword rank order, once count results have been returned.
+     */
+    static MovieCursor afterRank(int count, Movie movie) {
+        return new MovieCursor(null, count, 0, 0, 0, 0, null, movie.getMovieId());
+    }
+
+    /**
+     * Creates a cursor that goes on after a movie in a precomputed sort order.
+     */
+    static MovieCursor after(MovieSortOrder sortOrder, Movie movie) {
+        String title = movie.getTitle() == null ? "" : MovieSearchIndex.fold(movie.getTitle());
+        return new MovieCursor(sortOrder, 0, 0, 0, movie.getRating(), movie.getYear(), title, movie.getMovieId());
+    }
+
+    /**
+     * Returns the order the cursor was made for.
+     *
+     * @return the sort order, or null for keyword rank order
+     */
+    public MovieSortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    int getNumbering() {
+        return numbering;
+    }
+
+    double getRating() {
+        return rating;
+    }
+
+    int getYear() {
+        return year;
+    }
+
+    String getTitle() {
+        return title;
+    }
+
+    int getMovieId() {
+        return movieId;
+    }
+}
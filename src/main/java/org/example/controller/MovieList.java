@@ -0,0 +1,530 @@
+package org.example.controller;
+
+import org.example.model.Movie;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * MovieList is the list behind MovieManager's catalogue.
+ * It keeps a primary-key index (movie ID to list slot) in sync with every add, set and remove,
+ * so looking up or deleting a movie by ID does not scan the catalogue.
+ *
+ * Deletes by ID only clear the movie's slot. While there are cleared slots, a count of live movies per slot range
+ * (a Fenwick tree) finds a position's slot in logarithmic time, so reads never move movies. The gaps are squeezed out
+ * by the next positional insert or remove, or once they outnumber the movies.
+ * Movie IDs are treated as fixed once a movie is in the list.
+ *
+ * Every movie also gets a sequence number when it is added, so sequence numbers rise along the list and a page cursor
+ * can resume after a movie even once it has been removed. Appended movies are numbered SEQUENCE_STEP apart, and a
+ * movie inserted in the middle takes the number halfway between its neighbours. Only when two neighbours have no
+ * number left between them is the whole list numbered again, which bumps the numbering so that cursors holding an
+ * old number can tell.
+ *
+ * Every change is also passed on to the registered CatalogueListeners.
+ *
+ * The list is thread-safe: every method holds the list's lock, and listeners are called while it is held, so an index
+ * that follows the list never misses or reorders a change. Iterating, or any other sequence of calls that must see
+ * one catalogue, needs the caller to synchronize on the list. Threads that need the whole catalogue for longer, such as
+ * background searches, take a snapshot instead.
+ */
+class MovieList extends AbstractList<Movie> implements RandomAccess {
+    static final long SEQUENCE_STEP = 1L << 32; // Gap between the sequence numbers of appended movies
+
+    private Movie[] elements;
+    private long[] sequences; // Sequence number of the movie in each slot, ascending along the list
+    private long nextSequence;
+    private int numbering; // Bumped whenever the movies are numbered again
+    private int end; // Number of used slots, including cleared ones
+    private int removed; // Slots cleared by removeById that have not been compacted yet
+    private int[] liveCounts; // Fenwick tree of live movies per slot, kept only while removed > 0
+    private volatile int version; // Bumped on every change, including edits reported through markChanged
+    private final IntIntHashMap slotsById;
+    private final List<CatalogueListener> listeners = new ArrayList<>();
+    private int maxMovieId; // Highest movie ID in the list, while maxMovieIdKnown
+    private boolean maxMovieIdKnown; // Cleared when the movie with the highest ID leaves the list
+
+    /**
+     * Creates an empty list.
+     */
+    MovieList() {
+        this.elements = new Movie[16];
+        this.sequences = new long[16];
+        this.slotsById = new IntIntHashMap();
+    }
+
+    /**
+     * Returns a number that changes whenever the list or one of its movies changes.
+     * Indexes built over the list compare it to know when they are out of date.
+     *
+     * @return the current version
+     */
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * Records that a movie in the list was edited in place.
+     *
+     * @param movie the edited movie
+     */
+    synchronized void markChanged(Movie movie) {
+        version++;
+        for (CatalogueListener listener : listeners) {
+            listener.movieChanged(movie);
+        }
+    }
+
+    /**
+     * Registers a listener for changes to the list.
+     *
+     * @param listener the listener
+     */
+    synchronized void addListener(CatalogueListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener
+     */
+    synchronized void removeListener(CatalogueListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the movie with the given ID.
+     *
+     * @param movieId the ID of the movie
+     * @return the movie, or null if no movie has that ID
+     */
+    synchronized Movie getById(int movieId) {
+        int slot = slotsById.get(movieId);
+        return slot < 0 ? null : elements[slot];
+    }
+
+    /**
+     * Returns an ID that no movie in the list has: one more than the highest. The highest ID is kept up to
+     * date as movies are added, and looked for again only after the movie that had it was removed.
+     *
+     * @return the next free movie ID, 1 for an empty list
+     */
+    synchronized int nextMovieId() {
+        if (!maxMovieIdKnown) {
+            maxMovieId = 0;
+            boolean first = true;
+            for (int slot = 0; slot < end; slot++) {
+                Movie movie = elements[slot];
+                if (movie != null && (first || movie.getMovieId() > maxMovieId)) {
+                    maxMovieId = movie.getMovieId();
+                    first = false;
+                }
+            }
+            maxMovieIdKnown = true;
+        }
+        return maxMovieId + 1;
+    }
+
+    /**
+     * Returns the first movie with the given title.
+     *
+     * @param title the title to look for
+     * @return the movie, or null if no movie has that title
+     */
+    synchronized Movie findByTitle(String title) {
+        for (int slot = 0; slot < end; slot++) {
+            Movie movie = elements[slot];
+            if (movie != null && title.equals(movie.getTitle())) {
+                return movie;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copies the movies between two positions.
+     *
+     * @param from the first position, inclusive
+     * @param to the last position, exclusive
+     * @return a new list of the movies in that range
+     */
+    synchronized List<Movie> copyRange(int from, int to) {
+        Objects.checkFromToIndex(from, to, size());
+        List<Movie> range = new ArrayList<>(to - from);
+        for (int index = from; index < to; index++) {
+            range.add(elements[slotAt(index)]);
+        }
+        return range;
+    }
+
+    /**
+     * Takes an immutable copy of the catalogue together with its version and sequence numbers.
+     *
+     * @return the snapshot
+     */
+    synchronized Snapshot snapshot() {
+        Movie[] live = new Movie[size()];
+        long[] liveSequences = new long[live.length];
+        int count = 0;
+        for (int slot = 0; slot < end; slot++) {
+            if (elements[slot] != null) {
+                live[count] = elements[slot];
+                liveSequences[count++] = sequences[slot];
+            }
+        }
+        return new Snapshot(live, liveSequences, numbering, version);
+    }
+
+    /**
+     * Removes the movie with the given ID in constant time.
+     *
+     * @param movieId the ID of the movie to remove
+     * @return the removed movie, or null if no movie has that ID
+     */
+    synchronized Movie removeById(int movieId) {
+        int slot = slotsById.remove(movieId);
+        if (slot < 0) {
+            return null;
+        }
+        Movie movie = elements[slot];
+        if (removed == 0) {
+            buildLiveCounts();
+        }
+        elements[slot] = null;
+        removed++;
+        updateLiveCount(slot, -1);
+        modCount++;
+        version++;
+        if (removed > end - removed) {
+            compact(); // Once the gaps outnumber the movies, squeezing them out costs no more than the deletes did
+        }
+        fireRemoved(movie);
+        return movie;
+    }
+
+    @Override
+    public synchronized Movie get(int index) {
+        Objects.checkIndex(index, size());
+        return elements[slotAt(index)];
+    }
+
+    @Override
+    public synchronized int size() {
+        return end - removed;
+    }
+
+    @Override
+    public synchronized Object[] toArray() {
+        return toArray(new Object[0]);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T[] toArray(T[] a) {
+        int size = size();
+        T[] copy = a.length >= size ? a : (T[]) Arrays.copyOf(a, size, a.getClass());
+        int write = 0;
+        for (int slot = 0; slot < end; slot++) {
+            if (elements[slot] != null) {
+                copy[write++] = (T) elements[slot];
+            }
+        }
+        if (copy.length > size) {
+            copy[size] = null;
+        }
+        return copy;
+    }
+
+    @Override
+    public synchronized boolean add(Movie movie) {
+        if (nextSequence > Long.MAX_VALUE - SEQUENCE_STEP) {
+            compact();
+            renumber();
+        }
+        ensureCapacity(end + 1);
+        elements[end] = movie;
+        sequences[end] = nextSequence;
+        nextSequence += SEQUENCE_STEP;
+        slotsById.put(movie.getMovieId(), end);
+        if (removed > 0) {
+            updateLiveCount(end, 1);
+        }
+        end++;
+        modCount++;
+        version++;
+        fireAdded(movie);
+        return true;
+    }
+
+    @Override
+    public synchronized void add(int index, Movie movie) {
+        compact();
+        Objects.checkIndex(index, end + 1);
+        ensureCapacity(end + 1);
+        System.arraycopy(elements, index, elements, index + 1, end - index);
+        System.arraycopy(sequences, index, sequences, index + 1, end - index);
+        elements[index] = movie;
+        end++;
+        reindexFrom(index);
+        long before = index > 0 ? sequences[index - 1] : Long.MIN_VALUE;
+        long after = index + 1 < end ? sequences[index + 1] : nextSequence;
+        long gap = after - before; // Unsigned, as the distance from Long.MIN_VALUE can exceed Long.MAX_VALUE
+        if (Long.compareUnsigned(gap, 2) < 0) {
+            renumber();
+        } else {
+            sequences[index] = before + (gap >>> 1);
+        }
+        modCount++;
+        version++;
+        fireAdded(movie);
+    }
+
+    @Override
+    public synchronized Movie set(int index, Movie movie) {
+        Objects.checkIndex(index, size());
+        int slot = slotAt(index);
+        Movie previous = elements[slot];
+        elements[slot] = movie;
+        unindex(previous, slot);
+        slotsById.put(movie.getMovieId(), slot);
+        version++;
+        fireRemoved(previous);
+        fireAdded(movie);
+        return previous;
+    }
+
+    @Override
+    public synchronized Movie remove(int index) {
+        compact();
+        Objects.checkIndex(index, end);
+        Movie previous = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, end - index - 1);
+        System.arraycopy(sequences, index + 1, sequences, index, end - index - 1);
+        elements[--end] = null;
+        unindex(previous, index);
+        reindexFrom(index);
+        modCount++;
+        version++;
+        fireRemoved(previous);
+        return previous;
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+        if (!(o instanceof Movie movie)) {
+            return false;
+        }
+        int slot = slotsById.get(movie.getMovieId());
+        if (slot >= 0 && elements[slot] == movie) {
+            return removeById(movie.getMovieId()) != null;
+        }
+        return super.remove(o); // Not the indexed instance, fall back to an equality scan
+    }
+
+    @Override
+    public synchronized boolean contains(Object o) {
+        if (o instanceof Movie movie) {
+            int slot = slotsById.get(movie.getMovieId());
+            if (slot >= 0 && elements[slot] == movie) {
+                return true;
+            }
+        }
+        return super.contains(o);
+    }
+
+    @Override
+    public synchronized void clear() {
+        Movie[] cleared = Arrays.copyOf(elements, end);
+        Arrays.fill(elements, 0, end, null);
+        end = 0;
+        removed = 0;
+        liveCounts = null;
+        slotsById.clear();
+        modCount++;
+        version++;
+        for (Movie movie : cleared) {
+            if (movie != null) {
+                fireRemoved(movie);
+            }
+        }
+    }
+
+    private void fireAdded(Movie movie) {
+        if (maxMovieIdKnown && movie.getMovieId() > maxMovieId) {
+            maxMovieId = movie.getMovieId();
+        }
+        for (CatalogueListener listener : listeners) {
+            listener.movieAdded(movie);
+        }
+    }
+
+    private void fireRemoved(Movie movie) {
+        if (movie.getMovieId() == maxMovieId) {
+            maxMovieIdKnown = false;
+        }
+        for (CatalogueListener listener : listeners) {
+            listener.movieRemoved(movie);
+        }
+    }
+
+    /**
+     * Squeezes out slots cleared by removeById and moves the index entries of shifted movies.
+     */
+    private void compact() {
+        if (removed == 0) {
+            return;
+        }
+        int write = 0;
+        for (int read = 0; read < end; read++) {
+            Movie movie = elements[read];
+            if (movie == null) {
+                continue;
+            }
+            if (write != read) {
+                elements[write] = movie;
+                sequences[write] = sequences[read];
+                if (slotsById.get(movie.getMovieId()) == read) {
+                    slotsById.put(movie.getMovieId(), write);
+                }
+            }
+            write++;
+        }
+        Arrays.fill(elements, write, end, null);
+        end = write;
+        removed = 0;
+        liveCounts = null;
+    }
+
+    /**
+     * Returns the slot of the movie at a position, skipping cleared slots.
+     */
+    private int slotAt(int index) {
+        if (removed == 0) {
+            return index;
+        }
+        int slot = 0; // Walks down the tree, ending on the last slot that has at most index movies before it
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(elements.length); step > 0; step >>= 1) {
+            int next = slot + step;
+            if (next <= elements.length && liveCounts[next] < remaining) {
+                slot = next;
+                remaining -= liveCounts[next];
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Counts the live movies per slot range, in linear time, when the first slot is cleared.
+     */
+    private void buildLiveCounts() {
+        int[] counts = new int[elements.length + 1];
+        for (int i = 1; i <= elements.length; i++) {
+            if (elements[i - 1] != null) {
+                counts[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent <= elements.length) {
+                counts[parent] += counts[i];
+            }
+        }
+        liveCounts = counts;
+    }
+
+    private void updateLiveCount(int slot, int delta) {
+        for (int i = slot + 1; i <= elements.length; i += i & -i) {
+            liveCounts[i] += delta;
+        }
+    }
+
+    /**
+     * Numbers the movies again from zero, in list order, once inserts have used up the numbers between two neighbours
+     * or appends have used up the numbers at the end. The list must be compact.
+     */
+    private void renumber() {
+        for (int slot = 0; slot < end; slot++) {
+            sequences[slot] = slot * SEQUENCE_STEP;
+        }
+        nextSequence = end * SEQUENCE_STEP;
+        numbering++;
+    }
+
+    /**
+     * Points the index at the current slot of every movie from the given position onwards.
+     */
+    private void reindexFrom(int index) {
+        for (int i = index; i < end; i++) {
+            slotsById.put(elements[i].getMovieId(), i);
+        }
+    }
+
+    /**
+     * Drops the index entry of a movie that left a slot, unless another movie with the same ID owns it.
+     */
+    private void unindex(Movie movie, int slot) {
+        if (movie != null && slotsById.get(movie.getMovieId()) == slot) {
+            slotsById.remove(movie.getMovieId());
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(capacity, elements.length + (elements.length >> 1)));
+            sequences = Arrays.copyOf(sequences, elements.length);
+            if (removed > 0) {
+                buildLiveCounts();
+            }
+        }
+    }
+
+    /**
+     * An immutable copy of the catalogue, in list order, taken at one version.
+     */
+    static final class Snapshot {
+        private final List<Movie> movies;
+        private final long[] sequences;
+        private final int numbering;
+        private final int version;
+
+        private Snapshot(Movie[] movies, long[] sequences, int numbering, int version) {
+            this.movies = Collections.unmodifiableList(Arrays.asList(movies));
+            this.sequences = sequences;
+            this.numbering = numbering;
+            this.version = version;
+        }
+
+        /**
+         * @return the movies, in list order
+         */
+        List<Movie> getMovies() {
+            return movies;
+        }
+
+        /**
+         * @return the sequence number of each movie, ascending; not to be modified
+         */
+        long[] getSequences() {
+            return sequences;
+        }
+
+        /**
+         * @return the numbering the sequence numbers belong to; it changes whenever the list is numbered again
+         */
+        int getNumbering() {
+            return numbering;
+        }
+
+        /**
+         * @return the version of the list the snapshot was taken at
+         */
+        int getVersion() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.controller;
+
+/**
+ * MovieLoadStats describes one load of the movie catalogue: how many rows were read,
+ * how many bytes came off disk and how long it took.
+ */
+public class MovieLoadStats {
+    private final long rowCount;
+    private final long skippedRowCount;
+    private final long bytesRead;
+    private final long elapsedNanos;
+
+    /**
+     * Constructor to initialize the load statistics.
+     *
+     * @param rowCount        The number of movies loaded.
+     * @param skippedRowCount The number of malformed rows that were skipped.
+     * @param bytesRead       The number of bytes read from the file.
+     * @param elapsedNanos    The wall-clock time the load took, in nanoseconds.
+     */
+    public MovieLoadStats(long rowCount, long skippedRowCount, long bytesRead, long elapsedNanos) {
+        this.rowCount = rowCount;
+        this.skippedRowCount = skippedRowCount;
+        this.bytesRead = bytesRead;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getSkippedRowCount() {
+        return skippedRowCount;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the load throughput in rows per second.
+     *
+     * @return rows per second, or 0 if no time was measured
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowCount * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Loaded %d movies (%d bytes, %d skipped) in %.1f ms, %.0f rows/s",
+                rowCount, bytesRead, skippedRowCount, elapsedNanos / 1_000_000.0, getRowsPerSecond());
+    }
+}
@@ -1,31 +1,93 @@
 package org.example.controller;
 
-import com.opencsv.CSVReader;
-import com.opencsv.CSVReaderBuilder;
 import com.opencsv.CSVWriter;
-import com.opencsv.exceptions.CsvException;
+import org.example.metrics.CatalogueLoadEvent;
+import org.example.metrics.CatalogueSaveEvent;
+import org.example.metrics.Metrics;
+import org.example.metrics.OperationMetrics;
 import org.example.model.Movie;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * MovieManager is responsible for managing movie data.
  */
 public class MovieManager {
-    public List<Movie> movies; // List to store movie objects
+    private static final int MIN_COMPACTION_RECORDS = 256; // Change log records before a compaction is considered
+
+    // One daemon thread folds change logs into movies.csv in the background
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "movie-log-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // One daemon thread rebuilds title completions after edits, while completions keep coming from the previous ones
+    private static final ExecutorService COMPLETION_BUILDER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "title-completion-builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final OperationMetrics READ_METRICS = Metrics.operation("MovieManager.readMovies");
+    private static final OperationMetrics SAVE_METRICS = Metrics.operation("MovieManager.saveMovies");
+    private static final OperationMetrics DELETE_METRICS = Metrics.operation("MovieManager.deleteMovieById");
+    private static final OperationMetrics COMPACT_METRICS = Metrics.operation("MovieManager.compactChangeLog");
+    private static final OperationMetrics PAGE_METRICS = Metrics.operation("MovieManager.getMoviePage");
+    private static final int MAX_SORTED_CANDIDATES = 1 << 16; // Sorted pages with fewer candidates find all matches and sort them
+
+    private final MovieList movies; // List of movie objects, indexed by movie ID
+    private final Semaphore compaction = new Semaphore(1); // Held while movies.csv is being rewritten
+    private MovieChangeLog changeLog; // Created on first use, next to the movies file
+    private MovieLoadStats lastLoadStats; // Statistics from the last readMovies call
+    private MovieSearchIndex searchIndex; // Built on the first search after the catalogue changes
+    private int searchIndexVersion; // Catalogue version the search index was built from
+    private volatile KeywordMatches keywordMatches; // Matches of the last keyword query paged through
+    private volatile TitleCompletions titleCompletions; // Rebuilt in the background after the catalogue changes
+    private volatile int titleCompletionsVersion; // Catalogue version the title completions were built from
+    private final Object titleCompletionsLock = new Object(); // Held while title completions are built
+    private final AtomicBoolean titleCompletionsQueued = new AtomicBoolean(); // A rebuild is waiting to run
+    private final CastIndex castIndex = new CastIndex(); // Kept up to date through the catalogue listeners
+    private final GenreCounts genreCounts = new GenreCounts(); // Kept up to date through the catalogue listeners
+    private final TextIndex textIndex = new TextIndex(); // Built on the first keyword search, then kept up to date
+    private final TitleGramIndex titleGramIndex = new TitleGramIndex(); // Built on the first fuzzy title search, then kept up to date
+    private final SortOrderIndex sortOrderIndex = new SortOrderIndex(); // Built on the first sorted listing, then kept up to date
 
     /**
      * Constructor to initialize the MovieManager with an empty list of movies.
      */
     public MovieManager() {
-        this.movies = new ArrayList<>();
+        this.movies = new MovieList();
+        this.movies.addListener(castIndex);
+        this.movies.addListener(genreCounts);
+        this.movies.addListener(textIndex);
+        this.movies.addListener(titleGramIndex);
+        this.movies.addListener(sortOrderIndex);
     }
 
     /**
@@ -54,67 +116,142 @@ public class MovieManager {
 
     /**
      * Reads movie data from the movies.csv file and populates the list of movies.
+     * Rows are streamed straight into Movie objects, so the file is never held in memory as a whole.
+     * Movies keep the order of the file. Edits recorded in the change log since the last save are applied on top.
+     * Large catalogues load faster with readMoviesParallel, which gives the same order.
      */
     public void readMovies() {
         File movieFile = getMovieFilePath();
         if (movieFile == null) return;
 
-        try (CSVReader reader = new CSVReaderBuilder(new FileReader(movieFile)).withSkipLines(1).build()) {
-            List<String[]> myEntries = reader.readAll();
+        long start = READ_METRICS.start();
+        CatalogueLoadEvent event = new CatalogueLoadEvent();
+        event.begin();
+        try (CountingInputStream in = new CountingInputStream(new FileInputStream(movieFile));
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            MovieCsvLoader loader = new MovieCsvLoader(reader);
+            loader.skipHeader();
+            loader.forEachMovie(movies::add);
 
-            for (String[] nextLine : myEntries) {
-                int movieId = Integer.parseInt(nextLine[0]);
-                String title = nextLine[1];
-                int year = Integer.parseInt(nextLine[2]);
-                String mainCast = nextLine[3];
-                double rating = Double.parseDouble(nextLine[4]);
-                String genre = nextLine[5];
-                String description = nextLine[6];
-                String coverImagePath = nextLine[7];
+            lastLoadStats = new MovieLoadStats(loader.getRowCount(), loader.getSkippedRowCount(),
+                    in.getCount(), System.nanoTime() - start);
+            READ_METRICS.addBytesRead(in.getCount());
+        } catch (IOException e) {
+            READ_METRICS.error();
+            e.printStackTrace();
+        }
+        replayChangeLog();
+        READ_METRICS.stop(start);
+        commitLoadEvent(event, movieFile, false);
+    }
 
-                Movie movie = new Movie(movieId, title, year, mainCast, rating, genre, description, coverImagePath);
-                movies.add(movie);
-            }
-        } catch (IOException | CsvException e) {
+    /**
+     * Reads movie data from the movies.csv file by splitting it into byte ranges and parsing them on a fork-join pool.
+     * Movies are added to the list in the order of the file, as with readMovies.
+     *
+     * @param pool The pool to parse on.
+     */
+    public void readMoviesParallel(ForkJoinPool pool) {
+        File movieFile = getMovieFilePath();
+        if (movieFile == null) return;
+
+        long start = READ_METRICS.start();
+        CatalogueLoadEvent event = new CatalogueLoadEvent();
+        event.begin();
+        try {
+            lastLoadStats = new ParallelMovieLoader(pool).load(movieFile, movies::add);
+            READ_METRICS.addBytesRead(lastLoadStats.getBytesRead());
+        } catch (IOException e) {
+            READ_METRICS.error();
             e.printStackTrace();
         }
+        replayChangeLog();
+        READ_METRICS.stop(start);
+        commitLoadEvent(event, movieFile, true);
+    }
+
+    /**
+     * Fills in and records a Flight Recorder event for a load that just finished.
+     */
+    private void commitLoadEvent(CatalogueLoadEvent event, File movieFile, boolean parallel) {
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.file = movieFile.getPath();
+        event.rowCount = movies.size();
+        event.skippedRowCount = lastLoadStats == null ? 0 : lastLoadStats.getSkippedRowCount();
+        event.bytes = movieFile.length();
+        event.parallel = parallel;
+        event.commit();
+    }
+
+    /**
+     * Returns statistics about the most recent call to readMovies.
+     *
+     * @return the load statistics, or null if no movies have been read yet
+     */
+    public MovieLoadStats getLastLoadStats() {
+        return lastLoadStats;
     }
 
     /**
      * Saves the list of movies back to the movies.csv file.
+     * This rewrites the whole file and empties the change log, so it is only needed after changing
+     * the list directly; addMovie, updateMovie and deleteMovieById only append to the log.
      */
     public void saveMovies() {
         File movieFile = getMovieFilePath();
         if (movieFile == null) return; // Return if the file is not found
 
-        try (CSVWriter writer = new CSVWriter(new FileWriter(movieFile))) {
-            // Write the header row to the CSV file
-            String[] header = {"Movie ID", "Title", "Year", "Main Cast", "Rating", "Genre", "Description", "Cover Image Path"};
-            writer.writeNext(header);
-
-            // Write each movie's data to the CSV file
-            for (Movie movie : movies) {
-                String[] movieData = {
-                        String.valueOf(movie.getMovieId()), // Convert movie ID to string
-                        movie.getTitle(),
-                        String.valueOf(movie.getYear()), // Convert year to string
-                        movie.getMainCast(),
-                        String.valueOf(movie.getRating()), // Convert rating to string
-                        movie.getGenre(),
-                        movie.getDescription(),
-                        movie.getCoverImagePath()
-                };
-
-                // Write the movie data to the file
-                writer.writeNext(movieData);
-            }
+        long start = SAVE_METRICS.start();
+        compaction.acquireUninterruptibly(); // Wait for a background compaction to finish first
+        try {
+            MovieChangeLog changeLog = getChangeLog();
+            int rotatedRecords = changeLog.rotate();
+            SAVE_METRICS.addBytesWritten(writeMovieFile(movieFile, movies.snapshot().getMovies(), false));
+            changeLog.discardRotated(rotatedRecords);
         } catch (IOException e) {
+            SAVE_METRICS.error();
             e.printStackTrace(); // Print any exceptions encountered
+        } finally {
+            compaction.release();
+            SAVE_METRICS.stop(start);
+        }
+    }
+
+    /**
+     * Adds a new movie to the catalogue and records it in the change log.
+     *
+     * @param movie The movie to add.
+     */
+    public void addMovie(Movie movie) {
+        movies.add(movie);
+        logUpsert(movie);
+    }
+
+    /**
+     * Records the new state of a movie.
+     * Pass a copy with the new values: it is copied onto the catalogue's movie with the same ID under the catalogue
+     * lock, so searches running on other threads never see half an edit. A catalogue movie that was edited through
+     * its setters is accepted too, but only safely when nothing else reads the catalogue meanwhile.
+     *
+     * @param movie The movie in its new state.
+     */
+    public void updateMovie(Movie movie) {
+        synchronized (movies) {
+            Movie existing = movies.getById(movie.getMovieId());
+            if (existing != movie) {
+                applyUpsert(movie);
+            } else {
+                movies.markChanged(movie);
+            }
         }
+        logUpsert(movie);
     }
 
     /**
      * Returns the list of movies.
+     * Movies added to or removed from this list are picked up by the ID index automatically.
      *
      * @return A list of Movie objects.
      */
@@ -129,22 +266,632 @@ public class MovieManager {
      * @return The Movie object if found, or null if not found.
      */
     public Movie getMovieById(int movieId) {
-        for (Movie movie : movies) {
-            if (movie.getMovieId() == movieId) {
-                return movie;
+        return movies.getById(movieId); // Constant-time lookup through the ID index
+    }
+
+    /**
+     * Finds the movies that match a query, using the search index instead of scanning the catalogue.
+     * A query with keywords returns the movies that use them, best match first, among those that pass the other filters.
+     * A query with a sort order returns the matches in that order instead, read off the precomputed orders.
+     *
+     * @param query The filters to apply.
+     * @return The matching movies, in the query's sort order if it has one, else ranked if the query has keywords
+     *         and in catalogue order otherwise.
+     */
+    public List<Movie> searchMovies(MovieQuery query) {
+        List<Movie> matches = findMovies(query);
+        MovieSortOrder sortOrder = query.getSortOrder();
+        if (sortOrder == null || sortOrder == MovieSortOrder.CATALOGUE) {
+            return matches;
+        }
+        return getSortOrderIndex().sort(matches, sortOrder);
+    }
+
+    private List<Movie> findMovies(MovieQuery query) {
+        String actor = query.getActor();
+        int[] actorMovieIds = actor == null || actor.isBlank() ? null : castIndex.getMovieIds(actor);
+        String keywords = query.getKeywords();
+        if (keywords == null || keywords.isBlank()) {
+            return getSearchIndex().search(query, actorMovieIds);
+        }
+
+        List<Movie> ranked = searchText(keywords, 0);
+        int[] rankedIds = new int[ranked.size()];
+        for (int i = 0; i < rankedIds.length; i++) {
+            rankedIds[i] = ranked.get(i).getMovieId();
+        }
+        Arrays.sort(rankedIds);
+        if (actorMovieIds != null) {
+            rankedIds = intersect(rankedIds, actorMovieIds);
+        }
+        // Let the search index apply the other filters, then put its answer back in rank order
+        Set<Movie> passed = Collections.newSetFromMap(new IdentityHashMap<>());
+        passed.addAll(getSearchIndex().search(query, rankedIds));
+        List<Movie> result = new ArrayList<>(passed.size());
+        for (Movie movie : ranked) {
+            if (passed.contains(movie)) {
+                result.add(movie);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the movies whose title, description or cast use any of the given words, best match first.
+     * The text index is built on the first call.
+     *
+     * @param keywords The words to look for.
+     * @param limit    The most movies to return, or 0 for all of them.
+     * @return The matching movies, best match first.
+     */
+    public List<Movie> searchText(String keywords, int limit) {
+        synchronized (movies) { // Holding the catalogue lock, no edit can slip in between the build and the listener
+            if (!textIndex.isBuilt()) {
+                textIndex.build(movies);
+            }
+        }
+        return textIndex.search(keywords, limit);
+    }
+
+    /**
+     * Finds titles that contain the text or something within a typo or two of it, closest first.
+     * The title n-gram index is built on the first call.
+     *
+     * @param text  The title text, such as "interstelar".
+     * @param limit The most movies to return, or 0 for all of them.
+     * @return The matching movies, closest first.
+     */
+    public List<Movie> searchTitlesFuzzy(String text, int limit) {
+        return getTitleGramIndex().searchTitlesFuzzy(text, limit);
+    }
+
+    /**
+     * Suggests a correction for title text that no title contains.
+     *
+     * @param text The title text.
+     * @return The closest title, or null if a title contains the text or none is close.
+     */
+    public String suggestTitle(String text) {
+        return getTitleGramIndex().suggestTitle(text);
+    }
+
+    private TitleGramIndex getTitleGramIndex() {
+        synchronized (movies) { // Holding the catalogue lock, no edit can slip in between the build and the listener
+            if (!titleGramIndex.isBuilt()) {
+                titleGramIndex.build(movies);
+            }
+        }
+        return titleGramIndex;
+    }
+
+    private static int[] intersect(int[] sortedA, int[] sortedB) {
+        int[] common = new int[Math.min(sortedA.length, sortedB.length)];
+        int count = 0;
+        int a = 0;
+        int b = 0;
+        while (a < sortedA.length && b < sortedB.length) {
+            if (sortedA[a] < sortedB[b]) {
+                a++;
+            } else if (sortedA[a] > sortedB[b]) {
+                b++;
+            } else {
+                common[count++] = sortedA[a];
+                a++;
+                b++;
+            }
+        }
+        return Arrays.copyOf(common, count);
+    }
+
+    /**
+     * Finds every movie an actor appears in, through the cast index.
+     *
+     * @param actorName The actor's full name, in any case.
+     * @return The actor's movies, in movie ID order.
+     */
+    public List<Movie> getMoviesByActor(String actorName) {
+        int[] movieIds = castIndex.getMovieIds(actorName);
+        List<Movie> result = new ArrayList<>(movieIds.length);
+        for (int movieId : movieIds) {
+            Movie movie = movies.getById(movieId);
+            if (movie != null) {
+                result.add(movie);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cast index, which always reflects the current catalogue.
+     *
+     * @return the cast index
+     */
+    public CastIndex getCastIndex() {
+        return castIndex;
+    }
+
+    /**
+     * Returns the genres of the movies currently in the catalogue, for filters to offer.
+     * Unlike GenreRegistry.getGenreNames, this leaves out genres that no movie has any more.
+     *
+     * @return the genre names, in alphabetical order
+     */
+    public List<String> getGenres() {
+        return genreCounts.getGenres();
+    }
+
+    /**
+     * Registers a listener that is told about every movie added to, edited in or removed from the catalogue.
+     *
+     * @param listener The listener.
+     */
+    public void addCatalogueListener(CatalogueListener listener) {
+        movies.addListener(listener);
+    }
+
+    /**
+     * Unregisters a catalogue listener.
+     *
+     * @param listener The listener.
+     */
+    public void removeCatalogueListener(CatalogueListener listener) {
+        movies.removeListener(listener);
+    }
+
+    /**
+     * Returns one page of the movies that match a query, in the query's order, with a cursor for the next page.
+     * A page costs about as much as the movies on it and the ones skipped to find them, not as much as the
+     * catalogue: catalogue-order pages stop at the end of the page in the search index's candidate lists, and
+     * sorted pages walk the precomputed order from the cursor. Only queries with few candidates, and keyword
+     * queries, which are ranked as a whole, find all their matches first; the matches of the last keyword query
+     * are kept for its next pages until the catalogue changes.
+     *
+     * @param query The filters and order. Pass the same query with each cursor.
+     * @param after The cursor from the previous page, or null for the first page.
+     * @param limit The most movies on the page.
+     * @return The page.
+     */
+    public MoviePage getMoviePage(MovieQuery query, MovieCursor after, int limit) {
+        long start = PAGE_METRICS.start();
+        try {
+            return findPage(query, after, Math.max(limit, 1));
+        } catch (RuntimeException e) {
+            PAGE_METRICS.error();
+            throw e;
+        } finally {
+            PAGE_METRICS.stop(start);
+        }
+    }
+
+    private MoviePage findPage(MovieQuery query, MovieCursor after, int limit) {
+        MovieSortOrder sortOrder = query.getSortOrder() == null ? MovieSortOrder.CATALOGUE : query.getSortOrder();
+        String keywords = query.getKeywords();
+        if (keywords != null && !keywords.isBlank()) {
+            List<Movie> matches = keywordMatches(query);
+            if (sortOrder == MovieSortOrder.CATALOGUE) {
+                int from = after == null ? 0 : rankAfter(matches, after);
+                int to = Math.min(from + limit, matches.size());
+                MovieCursor next = to < matches.size() ? MovieCursor.afterRank(to, matches.get(to - 1)) : null;
+                return new MoviePage(new ArrayList<>(matches.subList(from, to)), next, matches.size(), true);
+            }
+            return sortedPage(matches, sortOrder, after, limit);
+        }
+
+        String actor = query.getActor();
+        int[] actorMovieIds = actor == null || actor.isBlank() ? null : castIndex.getMovieIds(actor);
+        MovieSearchIndex index = getSearchIndex();
+        MovieSearchIndex.Plan plan = index.plan(query, actorMovieIds);
+        if (sortOrder == MovieSortOrder.CATALOGUE) {
+            int[] positions = plan.positions(after == null ? 0 : catalogueStart(index, after), limit + 1);
+            List<Movie> movies = new ArrayList<>(Math.min(positions.length, limit));
+            for (int i = 0; i < positions.length && i < limit; i++) {
+                movies.add(index.movieAt(positions[i]));
+            }
+            MovieCursor next = positions.length > limit
+                    ? MovieCursor.afterInCatalogue(index.sequenceAt(positions[limit - 1]), index.getNumbering(),
+                            movies.get(limit - 1))
+                    : null;
+            return new MoviePage(movies, next, plan.estimate(), plan.isExact());
+        }
+        if (plan.candidateCount() <= MAX_SORTED_CANDIDATES) {
+            return sortedPage(getSortOrderIndex().sort(index.search(query, actorMovieIds), sortOrder), sortOrder, after, limit);
+        }
+        List<Movie> walked = getSortOrderIndex().walk(sortOrder, after, plan::matches, limit + 1);
+        return pageOf(walked, sortOrder, limit, plan.estimate(), plan.isExact());
+    }
+
+    /**
+     * Returns the matches of a keyword query, reusing those of the previous call while the query and the
+     * catalogue are the same, so paging through them ranks them once.
+     */
+    private List<Movie> keywordMatches(MovieQuery query) {
+        int version = movies.getVersion(); // Read first: an edit made during the search leaves the entry outdated
+        KeywordMatches cached = keywordMatches;
+        if (cached != null && cached.version == version && cached.query.equals(query)) {
+            return cached.movies;
+        }
+        List<Movie> matches = Collections.unmodifiableList(searchMovies(query));
+        keywordMatches = new KeywordMatches(new MovieQuery(query), version, matches);
+        return matches;
+    }
+
+    /**
+     * Finds where the next page in catalogue order starts: right after the cursor's movie, by its sequence number.
+     * If the catalogue has been numbered again since the cursor was made, the page goes on after the movie with the
+     * cursor's ID instead, or starts over if that movie is gone.
+     */
+    private static int catalogueStart(MovieSearchIndex index, MovieCursor after) {
+        if (after.getNumbering() == index.getNumbering()) {
+            return index.positionAfter(after.getSequence());
+        }
+        return Math.max(index.positionAfterMovie(after.getMovieId()), 0); // Numbered again since; go by the movie
+    }
+
+    /**
+     * Finds where the next page of ranked matches starts: right after the cursor's movie, looked up where the cursor
+     * left it and searched for if the ranking has changed since. If the movie no longer matches, the page starts
+     * after as many matches as were already returned.
+     */
+    private static int rankAfter(List<Movie> matches, MovieCursor after) {
+        int count = after.getPosition();
+        if (count > 0 && count <= matches.size() && matches.get(count - 1).getMovieId() == after.getMovieId()) {
+            return count;
+        }
+        for (int i = 0; i < matches.size(); i++) {
+            if (matches.get(i).getMovieId() == after.getMovieId()) {
+                return i + 1;
+            }
+        }
+        return Math.min(count, matches.size());
+    }
+
+    /**
+     * Pages through matches that were all found and sorted already.
+     */
+    private static MoviePage sortedPage(List<Movie> sorted, MovieSortOrder sortOrder, MovieCursor after, int limit) {
+        int from = after == null ? 0 : SortOrderIndex.indexAfter(sorted, after);
+        List<Movie> rest = sorted.subList(from, Math.min(from + limit + 1, sorted.size()));
+        return pageOf(rest, sortOrder, limit, sorted.size(), true);
+    }
+
+    /**
+     * Makes a page of up to limit + 1 movies in a precomputed order; the extra one only tells that there is more.
+     */
+    private static MoviePage pageOf(List<Movie> found, MovieSortOrder sortOrder, int limit, int total, boolean exact) {
+        List<Movie> movies = new ArrayList<>(found.subList(0, Math.min(limit, found.size())));
+        MovieCursor next = found.size() > limit ? MovieCursor.after(sortOrder, movies.get(movies.size() - 1)) : null;
+        return new MoviePage(movies, next, total, exact);
+    }
+
+    /**
+     * Returns an ID that no movie in the catalogue has yet, for a movie about to be added.
+     *
+     * @return One more than the highest movie ID, or 1 for an empty catalogue.
+     */
+    public int nextMovieId() {
+        return movies.nextMovieId();
+    }
+
+    /**
+     * Returns a page of the catalogue in a sort order. The orders are kept sorted as movies change,
+     * so a page costs as much as the movies on it.
+     *
+     * @param sortOrder The order.
+     * @param offset    The number of movies to skip.
+     * @param count     The most movies to return.
+     * @return The movies from offset on, in order.
+     */
+    public List<Movie> getSortedMovies(MovieSortOrder sortOrder, int offset, int count) {
+        if (sortOrder == MovieSortOrder.CATALOGUE) {
+            synchronized (movies) {
+                int from = Math.min(Math.max(offset, 0), movies.size());
+                int to = (int) Math.min((long) from + Math.max(count, 0), movies.size());
+                return movies.copyRange(from, to);
+            }
+        }
+        return getSortOrderIndex().slice(sortOrder, offset, count);
+    }
+
+    /**
+     * Returns the first movies of a list in a sort order, without sorting the rest of the list.
+     *
+     * @param candidates The movies to choose from, such as search results.
+     * @param sortOrder  The order.
+     * @param n          The most movies to return.
+     * @return Up to n movies, in order.
+     */
+    public List<Movie> getTopMovies(List<Movie> candidates, MovieSortOrder sortOrder, int n) {
+        if (sortOrder == MovieSortOrder.CATALOGUE) {
+            return new ArrayList<>(candidates.subList(0, Math.min(Math.max(n, 0), candidates.size())));
+        }
+        return getSortOrderIndex().top(candidates, sortOrder, n);
+    }
+
+    /**
+     * Returns the index of precomputed sort orders, building it on the first call.
+     *
+     * @return the sort order index
+     */
+    public SortOrderIndex getSortOrderIndex() {
+        synchronized (movies) { // Holding the catalogue lock, no edit can slip in between the build and the listener
+            if (!sortOrderIndex.isBuilt()) {
+                sortOrderIndex.build(movies);
+            }
+        }
+        return sortOrderIndex;
+    }
+
+    /**
+     * Completes a title as it is typed, with the best rated titles that have a word starting with the text.
+     * Keystrokes never wait for a rebuild: after the catalogue changes, completions come from the previous build
+     * while a new one is made on a background thread. Only the very first call builds them on the calling thread.
+     *
+     * @param prefix The text typed so far.
+     * @param limit  The most titles to return.
+     * @return Distinct titles, best rated first.
+     */
+    public List<String> completeTitle(String prefix, int limit) {
+        TitleCompletions completions = titleCompletions;
+        if (completions == null) {
+            return getTitleCompletions().complete(prefix, limit);
+        }
+        if (titleCompletionsVersion != movies.getVersion() && titleCompletionsQueued.compareAndSet(false, true)) {
+            COMPLETION_BUILDER.execute(() -> {
+                titleCompletionsQueued.set(false); // An edit made from here on queues another rebuild
+                getTitleCompletions();
+            });
+        }
+        return completions.complete(prefix, limit);
+    }
+
+    /**
+     * Returns the title completions for the current catalogue, rebuilding them, or waiting for a rebuild under way,
+     * if the catalogue has changed since they were built.
+     *
+     * @return the current title completions
+     */
+    public TitleCompletions getTitleCompletions() {
+        synchronized (titleCompletionsLock) {
+            if (titleCompletions == null || titleCompletionsVersion != movies.getVersion()) {
+                MovieList.Snapshot snapshot = movies.snapshot();
+                TitleCompletions built = TitleCompletions.build(snapshot.getMovies());
+                titleCompletionsVersion = snapshot.getVersion();
+                titleCompletions = built;
             }
+            return titleCompletions;
         }
-        return null;
     }
 
+    /**
+     * Returns the search index, rebuilding it if the catalogue has changed since it was built.
+     * The index is built from a snapshot taken under the catalogue lock, so searches on a background thread
+     * never read the catalogue while it changes; an edit made after the snapshot changes the catalogue version,
+     * so the next search rebuilds again.
+     *
+     * @return the current search index
+     */
+    public synchronized MovieSearchIndex getSearchIndex() {
+        if (searchIndex == null || searchIndexVersion != movies.getVersion()) {
+            MovieList.Snapshot snapshot = movies.snapshot();
+            searchIndexVersion = snapshot.getVersion();
+            searchIndex = MovieSearchIndex.build(snapshot);
+        }
+        return searchIndex;
+    }
+
+    /**
+     * Retrieves the first movie with the given title.
+     * This scans the catalogue, so prefer getMovieById wherever an ID is at hand.
+     *
+     * @param title The title of the movie.
+     * @return The Movie object if found, or null if not found.
+     */
+    public Movie getMovieByTitle(String title) {
+        if (title == null) return null;
+        return movies.findByTitle(title);
+    }
+
+    /**
+     * Deletes a movie by its ID and records the delete in the change log.
+     *
+     * @param movieId The ID of the movie to delete.
+     * @return true if the movie was found and deleted, false otherwise.
+     */
     public boolean deleteMovieById(int movieId) {
-        for (Movie movie : movies) {
-            if (movie.getMovieId() == movieId) {
-                movies.remove(movie);
-                saveMovies(); // Save the updated list to the CSV file
-                return true;
+        long start = DELETE_METRICS.start();
+        try {
+            if (movies.removeById(movieId) == null) {
+                return false;
             }
+            MovieChangeLog changeLog = getChangeLog();
+            if (changeLog != null) {
+                try {
+                    DELETE_METRICS.addBytesWritten(changeLog.appendDelete(movieId));
+                } catch (IOException e) {
+                    DELETE_METRICS.error();
+                    e.printStackTrace();
+                }
+                compactInBackgroundIfDue(changeLog);
+            }
+            return true;
+        } finally {
+            DELETE_METRICS.stop(start);
+        }
+    }
+
+    /**
+     * Returns the change log that belongs to the movies file, creating it on first use.
+     *
+     * @return the change log, or null if there is no movies file
+     */
+    private MovieChangeLog getChangeLog() {
+        if (changeLog == null) {
+            File movieFile = getMovieFilePath();
+            if (movieFile != null) {
+                changeLog = new MovieChangeLog(movieFile);
+            }
+        }
+        return changeLog;
+    }
+
+    private void logUpsert(Movie movie) {
+        MovieChangeLog changeLog = getChangeLog();
+        if (changeLog == null) return;
+
+        try {
+            changeLog.appendUpsert(movie);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        compactInBackgroundIfDue(changeLog);
+    }
+
+    /**
+     * Applies edits from the change log that are not yet part of movies.csv.
+     */
+    private void replayChangeLog() {
+        MovieChangeLog changeLog = getChangeLog();
+        if (changeLog != null) {
+            changeLog.replay(this::applyUpsert, movies::removeById);
+        }
+    }
+
+    /**
+     * Adds a movie, or copies its values onto the catalogue's movie with the same ID.
+     */
+    private void applyUpsert(Movie changed) {
+        synchronized (movies) {
+            Movie existing = movies.getById(changed.getMovieId());
+            if (existing == null) {
+                movies.add(changed);
+                return;
+            }
+            existing.setTitle(changed.getTitle());
+            existing.setYear(changed.getYear());
+            existing.setMainCast(changed.getMainCast());
+            existing.setRating(changed.getRating());
+            existing.setGenre(changed.getGenre());
+            existing.setDescription(changed.getDescription());
+            existing.setCoverImagePath(changed.getCoverImagePath());
+            movies.markChanged(existing);
+        }
+    }
+
+    /**
+     * Folds the change log into movies.csv on a background thread once the log is large compared to the catalogue,
+     * so the rewrite cost is spread over many edits. The log is rotated and then the catalogue snapshotted on the calling
+     * thread, so every rotated record is part of the snapshot; edits made while the file is being written go to the fresh log.
+     */
+    private void compactInBackgroundIfDue(MovieChangeLog changeLog) {
+        int threshold = Math.max(MIN_COMPACTION_RECORDS, movies.size() / 4);
+        if (changeLog.getRecordCount() < threshold || !compaction.tryAcquire()) {
+            return;
+        }
+        File movieFile = getMovieFilePath();
+        try {
+            // Rotate before the snapshot: an edit logged after the rotate lands in the fresh log and is replayed harmlessly
+            int rotatedRecords = changeLog.rotate();
+            List<Movie> snapshot = movies.snapshot().getMovies();
+            COMPACTOR.execute(() -> {
+                long start = COMPACT_METRICS.start();
+                try {
+                    COMPACT_METRICS.addBytesWritten(writeMovieFile(movieFile, snapshot, true));
+                    changeLog.discardRotated(rotatedRecords);
+                } catch (IOException e) {
+                    COMPACT_METRICS.error();
+                    e.printStackTrace(); // The rotated log is kept and replayed on the next load
+                } finally {
+                    compaction.release();
+                    COMPACT_METRICS.stop(start);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            compaction.release();
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes a full movies file next to the target and moves it into place, so a crash never leaves a half-written catalogue.
+     *
+     * @param background whether this is a change-log compaction, for the Flight Recorder event
+     * @return the size of the written file
+     */
+    private static long writeMovieFile(File movieFile, List<Movie> movieList, boolean background) throws IOException {
+        CatalogueSaveEvent event = new CatalogueSaveEvent();
+        event.begin();
+        File tempFile = new File(movieFile.getPath() + ".tmp");
+        try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8))) {
+            // Write the header row to the CSV file
+            writer.writeNext(MovieCsvFormat.HEADER);
+
+            // Write each movie's data to the CSV file
+            for (Movie movie : movieList) {
+                writer.writeNext(MovieCsvFormat.toRow(movie));
+            }
+        }
+        long bytesWritten = tempFile.length();
+        try {
+            Files.move(tempFile.toPath(), movieFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), movieFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        event.file = movieFile.getPath();
+        event.rowCount = movieList.size();
+        event.bytes = bytesWritten;
+        event.background = background;
+        event.commit();
+        return bytesWritten;
+    }
+
+    /**
+     * Counts the bytes that pass through an input stream.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * The matches of one keyword query at one catalogue version.
+     */
+    private static final class KeywordMatches {
+        final MovieQuery query; // A copy, so later changes to the caller's query do not match it
+        final int version;
+        final List<Movie> movies;
+
+        KeywordMatches(MovieQuery query, int version, List<Movie> movies) {
+            this.query = query;
+            this.version = version;
+            this.movies = movies;
         }
-        return false;
     }
 }
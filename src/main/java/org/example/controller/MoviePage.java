@@ -0,0 +1,79 @@
+package org.example.controller;
+
+import org.example.model.Movie;
+
+import java.util.List;
+
+/**
+ * MoviePage is one page of the results of a catalogue query: the movies on it, a cursor for the next page,
+ * and how many movies match the query in all.
+ *
+ * The total is an estimate unless isTotalExact says otherwise. Counting exactly would mean finding every match,
+ * which is what paging avoids; the estimate comes from the sizes of the search index's lists instead.
+ */
+public final class MoviePage {
+    private final List<Movie> movies;
+    private final MovieCursor nextCursor;
+    private final int totalEstimate;
+    private final boolean totalExact;
+
+    /**
+     * Creates a page.
+     *
+     * @param movies        the movies on the page
+     * @param nextCursor    the cursor for the next page, or null if this is the last page
+     * @param totalEstimate about how many movies match on all pages together
+     * @param totalExact    whether the total is exact
+     */
+    public MoviePage(List<Movie> movies, MovieCursor nextCursor, int totalEstimate, boolean totalExact) {
+        this.movies = movies;
+        this.nextCursor = nextCursor;
+        this.totalEstimate = totalEstimate;
+        this.totalExact = totalExact;
+    }
+
+    /**
+     * Returns the movies on this page.
+     *
+     * @return the movies, in the query's order
+     */
+    public List<Movie> getMovies() {
+        return movies;
+    }
+
+    /**
+     * Returns the cursor to pass back for the next page.
+     *
+     * @return the cursor, or null if this is the last page
+     */
+    public MovieCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Tells whether there are more pages after this one.
+     *
+     * @return true if there is a next page
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Returns about how many movies match the query, on all pages together.
+     *
+     * @return the estimated total
+     */
+    public int getTotalEstimate() {
+        return totalEstimate;
+    }
+
+    /**
+     * Tells whether getTotalEstimate is the exact number of matches.
+     *
+     * @return true if the total is exact
+     */
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.controller;
+
+import java.util.Objects;
+
+/**
+ * MovieQuery holds the filters of a catalogue search. A filter left at its default matches every movie.
+ */
+public class MovieQuery {
+    private String genre; // One genre name, matched case-insensitively against each of the movie's genres, null for any genre
+    private Integer year; // Exact release year, null for any year
+    private double minRating; // Lowest rating to include
+    private String titleText; // Matched as a case-insensitive part of the title, null or empty for any title
+    private String actor; // Full name of an actor in the cast, in any case, null or empty for any cast
+    private String keywords; // Words to look for in the title, description and cast; results are ranked when set
+    private MovieSortOrder sortOrder; // Order of the results, null for catalogue order (or rank order with keywords)
+
+    /**
+     * Creates a query that matches every movie.
+     */
+    public MovieQuery() {
+    }
+
+    /**
+     * Creates a query with all filters set.
+     *
+     * @param genre     a genre the movie must have, or null for any genre
+     * @param year      the release year, or null for any year
+     * @param minRating the lowest rating to include
+     * @param titleText part of the title to match, or null for any title
+     */
+    public MovieQuery(String genre, Integer year, double minRating, String titleText) {
+        this(genre, year, minRating, titleText, null);
+    }
+
+    /**
+     * Creates a query with all filters set, including an actor.
+     *
+     * @param genre     a genre the movie must have, or null for any genre
+     * @param year      the release year, or null for any year
+     * @param minRating the lowest rating to include
+     * @param titleText part of the title to match, or null for any title
+     * @param actor     the full name of an actor in the cast, or null for any cast
+     */
+    public MovieQuery(String genre, Integer year, double minRating, String titleText, String actor) {
+        this.genre = genre;
+        this.year = year;
+        this.minRating = minRating;
+        this.titleText = titleText;
+        this.actor = actor;
+    }
+
+    /**
+     * Creates a copy of a query, with all filters, keywords and order.
+     *
+     * @param other the query to copy
+     */
+    public MovieQuery(MovieQuery other) {
+        this(other.genre, other.year, other.minRating, other.titleText, other.actor);
+        this.keywords = other.keywords;
+        this.sortOrder = other.sortOrder;
+    }
+
+    // Getters and Setters
+    public String getGenre() {
+        return genre;
+    }
+
+    public void setGenre(String genre) {
+        this.genre = genre;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+
+    public double getMinRating() {
+        return minRating;
+    }
+
+    public void setMinRating(double minRating) {
+        this.minRating = minRating;
+    }
+
+    public String getTitleText() {
+        return titleText;
+    }
+
+    public void setTitleText(String titleText) {
+        this.titleText = titleText;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public void setActor(String actor) {
+        this.actor = actor;
+    }
+
+    public String getKeywords() {
+        return keywords;
+    }
+
+    public void setKeywords(String keywords) {
+        this.keywords = keywords;
+    }
+
+    public MovieSortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    public void setSortOrder(MovieSortOrder sortOrder) {
+        this.sortOrder = sortOrder;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MovieQuery other)) return false;
+        return Double.compare(minRating, other.minRating) == 0
+                && Objects.equals(genre, other.genre)
+                && Objects.equals(year, other.year)
+                && Objects.equals(titleText, other.titleText)
+                && Objects.equals(actor, other.actor)
+                && Objects.equals(keywords, other.keywords)
+                && sortOrder == other.sortOrder;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(genre, year, minRating, titleText, actor, keywords, sortOrder);
+    }
+}
@@ -0,0 +1,655 @@
+package org.example.controller;
+
+import org.example.model.GenreRegistry;
+import org.example.model.Movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MovieSearchIndex answers genre, year, rating and title queries over a snapshot of the catalogue
+ * without looking at every movie.
+ *
+ * It keeps one index per filter:
+ * - genre: the GenreRegistry bitmask of every movie, and for each genre bit the movies that have it,
+ * - year: one bucket of movies per release year,
+ * - rating: all movies sorted by rating, so "at least r" is a suffix found by binary search,
+ * - title: an inverted index from every three-character sequence of a lower-cased title to the movies containing it.
+ *
+ * An actor filter arrives as the movie IDs from the CastIndex, which are turned into positions through the
+ * movies sorted by ID.
+ *
+ * A query asks each index how many movies it would let through and walks only the smallest of those candidate
+ * lists, checking the remaining filters against plain per-movie arrays. Results come back in catalogue order.
+ * A genre matches when it is one of the movie's genres, ignoring case, so "Drama" does not match "Melodrama";
+ * the test is a single AND of two masks. A title matches as a case-insensitive "contains".
+ *
+ * The index is immutable; MovieManager builds a new one when the catalogue has changed since the last search.
+ */
+public class MovieSearchIndex {
+    private static final String GENRE_SEPARATORS = ",/|";
+    private static final int[] NO_POSITIONS = new int[0];
+    static final int GRAM = 3; // Title n-gram length, shared with TitleGramIndex
+
+    private final Movie[] movies; // Position in the catalogue to movie
+    private final long[] sequences; // Catalogue sequence number of each position, ascending
+    private final int numbering; // The catalogue numbering the sequence numbers belong to
+    private final int[] years;
+    private final double[] ratings;
+    private final long[] genreMasks; // GenreRegistry bitmask of each movie
+
+    private final int[][] positionsByGenre; // Genre bit to positions, ascending
+    private final IntIntHashMap bucketByYear; // Year to its index in yearBuckets
+    private final int[][] yearBuckets; // Positions per year, ascending
+    private final int[] byRating; // Positions ordered by rating, lowest first
+    private final int[] ratingKeys; // Sortable form of the float rating of each entry in byRating
+    private final int[] byId; // Positions ordered by movie ID
+    private final int[] idKeys; // Movie ID of each entry in byId
+    private final IntIntHashMap termByGram; // Title n-gram to its term number
+    private final int[] termStarts; // Term number to the start of its postings; one extra entry marks the end
+    private final int[] postings; // Positions per term, ascending, stored back to back
+
+    private MovieSearchIndex(Movie[] movies, long[] sequences, int numbering) {
+        this.movies = movies;
+        this.sequences = sequences;
+        this.numbering = numbering;
+        int count = movies.length;
+        this.years = new int[count];
+        this.ratings = new double[count];
+        this.genreMasks = new long[count];
+
+        IntBuffer[] genreLists = new IntBuffer[GenreRegistry.MAX_GENRES];
+        this.bucketByYear = new IntIntHashMap(256, -1);
+        List<IntBuffer> buckets = new ArrayList<>();
+        long[] ratingOrder = new long[count];
+        long[] idOrder = new long[count];
+
+        for (int position = 0; position < count; position++) {
+            Movie movie = movies[position];
+            years[position] = movie.getYear();
+            ratings[position] = movie.getRating();
+
+            long mask = movie.getGenreMask();
+            genreMasks[position] = mask;
+            for (long bits = mask; bits != 0; bits &= bits - 1) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                if (genreLists[bit] == null) {
+                    genreLists[bit] = new IntBuffer();
+                }
+                genreLists[bit].add(position);
+            }
+
+            int bucket = bucketByYear.get(movie.getYear());
+            if (bucket < 0) {
+                bucket = buckets.size();
+                bucketByYear.put(movie.getYear(), bucket);
+                buckets.add(new IntBuffer());
+            }
+            buckets.get(bucket).add(position);
+
+            // Rating key in the high half, position in the low half, so one primitive sort orders both
+            ratingOrder[position] = ((long) sortableKey((float) movie.getRating()) << 32) | position;
+            idOrder[position] = ((long) movie.getMovieId() << 32) | position;
+        }
+
+        this.positionsByGenre = new int[GenreRegistry.MAX_GENRES][];
+        for (int bit = 0; bit < positionsByGenre.length; bit++) {
+            positionsByGenre[bit] = genreLists[bit] == null ? NO_POSITIONS : genreLists[bit].toArray();
+        }
+        this.yearBuckets = new int[buckets.size()][];
+        for (int i = 0; i < yearBuckets.length; i++) {
+            yearBuckets[i] = buckets.get(i).toArray();
+        }
+
+        Arrays.sort(ratingOrder);
+        this.byRating = new int[count];
+        this.ratingKeys = new int[count];
+        for (int i = 0; i < count; i++) {
+            byRating[i] = (int) ratingOrder[i];
+            ratingKeys[i] = (int) (ratingOrder[i] >> 32);
+        }
+        Arrays.sort(idOrder);
+        this.byId = new int[count];
+        this.idKeys = new int[count];
+        for (int i = 0; i < count; i++) {
+            byId[i] = (int) idOrder[i];
+            idKeys[i] = (int) (idOrder[i] >> 32);
+        }
+
+        // Title postings in two passes: count each term, then fill the slices in position order
+        this.termByGram = new IntIntHashMap(1024, -1);
+        IntBuffer termCounts = new IntBuffer();
+        IntBuffer grams = new IntBuffer();
+        for (int position = 0; position < count; position++) {
+            distinctGrams(movies[position].getTitle(), grams);
+            for (int i = 0; i < grams.size; i++) {
+                int term = termByGram.get(grams.items[i]);
+                if (term < 0) {
+                    term = termCounts.size;
+                    termByGram.put(grams.items[i], term);
+                    termCounts.add(0);
+                }
+                termCounts.items[term]++;
+            }
+        }
+        this.termStarts = new int[termCounts.size + 1];
+        for (int term = 0; term < termCounts.size; term++) {
+            termStarts[term + 1] = termStarts[term] + termCounts.items[term];
+        }
+        this.postings = new int[termStarts[termCounts.size]];
+        int[] fill = Arrays.copyOf(termStarts, termCounts.size);
+        for (int position = 0; position < count; position++) {
+            distinctGrams(movies[position].getTitle(), grams);
+            for (int i = 0; i < grams.size; i++) {
+                postings[fill[termByGram.get(grams.items[i])]++] = position;
+            }
+        }
+    }
+
+    /**
+     * Builds an index over the given movies.
+     *
+     * @param movies the catalogue, in the order results should be returned
+     * @return the index
+     */
+    public static MovieSearchIndex build(List<Movie> movies) {
+        Movie[] array = movies.toArray(new Movie[0]);
+        long[] sequences = new long[array.length];
+        for (int position = 0; position < sequences.length; position++) {
+            sequences[position] = position;
+        }
+        return new MovieSearchIndex(array, sequences, 0);
+    }
+
+    /**
+     * Builds an index over a snapshot of the catalogue, keeping its sequence numbers for catalogue-order cursors.
+     *
+     * @param snapshot the catalogue snapshot
+     * @return the index
+     */
+    static MovieSearchIndex build(MovieList.Snapshot snapshot) {
+        return new MovieSearchIndex(snapshot.getMovies().toArray(new Movie[0]), snapshot.getSequences(),
+                snapshot.getNumbering());
+    }
+
+    /**
+     * Returns the number of movies in the index.
+     *
+     * @return the movie count
+     */
+    public int size() {
+        return movies.length;
+    }
+
+    /**
+     * Finds the movies that pass every filter of a query.
+     *
+     * @param query the filters
+     * @return the matching movies, in catalogue order
+     */
+    public List<Movie> search(MovieQuery query) {
+        return search(query, null);
+    }
+
+    /**
+     * Finds the movies that pass every filter of a query and are among the given movies.
+     * The query's actor is not looked at; the caller resolves it to movie IDs.
+     *
+     * @param query    the filters
+     * @param movieIds the IDs of the movies to choose from, or null for the whole catalogue
+     * @return the matching movies, in catalogue order
+     */
+    public List<Movie> search(MovieQuery query, int[] movieIds) {
+        int[] matched = plan(query, movieIds).positions(0, Integer.MAX_VALUE);
+        List<Movie> result = new ArrayList<>(matched.length);
+        for (int position : matched) {
+            result.add(movies[position]);
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the filters of a query against the index and picks the smallest candidate list to check them on.
+     * The query's actor is not looked at; the caller resolves it to movie IDs.
+     *
+     * @param query    the filters
+     * @param movieIds the IDs of the movies to choose from, ascending, or null for the whole catalogue
+     * @return the plan
+     */
+    Plan plan(MovieQuery query, int[] movieIds) {
+        return new Plan(query, movieIds);
+    }
+
+    /**
+     * Returns the movie at a catalogue position of the index.
+     *
+     * @param position the position
+     * @return the movie
+     */
+    Movie movieAt(int position) {
+        return movies[position];
+    }
+
+    /**
+     * Returns the catalogue sequence number of the movie at a position.
+     *
+     * @param position the position
+     * @return the sequence number
+     */
+    long sequenceAt(int position) {
+        return sequences[position];
+    }
+
+    /**
+     * Returns the catalogue numbering the sequence numbers belong to. Sequence numbers from another numbering
+     * cannot be compared with this index's.
+     *
+     * @return the numbering
+     */
+    int getNumbering() {
+        return numbering;
+    }
+
+    /**
+     * Finds the first position after a movie in catalogue order, whether or not that movie is still in the index.
+     *
+     * @param sequence the catalogue sequence number of the movie, in this index's numbering
+     * @return the position of the first movie with a higher sequence number
+     */
+    int positionAfter(long sequence) {
+        return sequence == Long.MAX_VALUE ? movies.length : lowerBound(sequences, sequence + 1);
+    }
+
+    /**
+     * Finds the position after a movie by its ID.
+     *
+     * @param movieId the movie ID
+     * @return the position after the movie, or -1 if it is not in the index
+     */
+    int positionAfterMovie(int movieId) {
+        int at = Arrays.binarySearch(idKeys, movieId);
+        return at >= 0 ? byId[at] + 1 : -1;
+    }
+
+    /**
+     * Looks up the positions of movies by ID, skipping IDs that are not in the index.
+     *
+     * @return the positions in ascending order
+     */
+    private int[] positionsOf(int[] movieIds) {
+        int[] positions = new int[movieIds.length];
+        int count = 0;
+        for (int movieId : movieIds) {
+            int at = Arrays.binarySearch(idKeys, movieId);
+            if (at >= 0) {
+                positions[count++] = byId[at];
+            }
+        }
+        Arrays.sort(positions, 0, count);
+        return Arrays.copyOf(positions, count);
+    }
+
+    /**
+     * Tells whether one of the genres in a genre column is the given name, ignoring case.
+     * Only used for genres that have no bit because the registry ran out of them.
+     */
+    private static boolean hasGenreNamed(String genreColumn, String name) {
+        if (genreColumn == null) {
+            return false;
+        }
+        int start = 0;
+        for (int i = 0; i <= genreColumn.length(); i++) {
+            if (i == genreColumn.length() || GENRE_SEPARATORS.indexOf(genreColumn.charAt(i)) >= 0) {
+                int from = start;
+                int to = i;
+                while (from < to && genreColumn.charAt(from) <= ' ') from++;
+                while (to > from && genreColumn.charAt(to - 1) <= ' ') to--;
+                if (to - from == name.length() && genreColumn.regionMatches(true, from, name, 0, name.length())) {
+                    return true;
+                }
+                start = i + 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Puts the distinct n-gram keys of a title into the buffer.
+     */
+    static void distinctGrams(String title, IntBuffer grams) {
+        grams.size = 0;
+        if (title == null || title.length() < GRAM) {
+            return;
+        }
+        String folded = fold(title);
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            grams.add(gramKey(folded, i));
+        }
+        Arrays.sort(grams.items, 0, grams.size);
+        int unique = 0;
+        for (int i = 0; i < grams.size; i++) {
+            if (i == 0 || grams.items[i] != grams.items[i - 1]) {
+                grams.items[unique++] = grams.items[i];
+            }
+        }
+        grams.size = unique;
+    }
+
+    /**
+     * Packs three characters into an int, ten bits each. Characters above U+03FF share keys,
+     * which only adds candidates that the final "contains" check then rejects.
+     */
+    static int gramKey(String folded, int start) {
+        return (folded.charAt(start) & 0x3FF) << 20
+                | (folded.charAt(start + 1) & 0x3FF) << 10
+                | (folded.charAt(start + 2) & 0x3FF);
+    }
+
+    /**
+     * Case-folds text one character at a time, the same way String.regionMatches ignores case.
+     */
+    static String fold(String text) {
+        char[] chars = new char[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(text.charAt(i)));
+        }
+        return new String(chars);
+    }
+
+    private static boolean containsFolded(String text, String folded) {
+        if (text == null) {
+            return false;
+        }
+        int last = text.length() - folded.length();
+        for (int start = 0; start <= last; start++) {
+            int i = 0;
+            while (i < folded.length()
+                    && Character.toLowerCase(Character.toUpperCase(text.charAt(start + i))) == folded.charAt(i)) {
+                i++;
+            }
+            if (i == folded.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.isEmpty();
+    }
+
+    /**
+     * Maps a float to an int that sorts the same way.
+     */
+    private static int sortableKey(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+
+    /**
+     * Returns the first index whose key is at least the given key.
+     */
+    private static int lowerBound(int[] keys, int key) {
+        return lowerBound(keys, 0, keys.length, key);
+    }
+
+    /**
+     * Returns the first index whose key is at least the given key.
+     */
+    private static int lowerBound(long[] keys, long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the first index in [from, to) whose key is at least the given key.
+     */
+    private static int lowerBound(int[] keys, int from, int to, int key) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The filters of one query, resolved against this index, with the smallest candidate list to check them on.
+     *
+     * While choosing the candidates the plan also estimates how many movies match: each filter lets through the
+     * share of the catalogue its index lists, and the filters are taken to be independent. With at most one filter,
+     * and that one answered exactly by its index, the estimate is the exact count.
+     */
+    final class Plan {
+        private final String genre;
+        private final long genreMask;
+        private final boolean genreByText; // A genre past the last bit
+        private final Integer year;
+        private final double minRating;
+        private final String title;
+        private final int[] movieIds; // Ascending, or null
+        private int[] allowed; // Positions of movieIds, ascending
+        private Candidates best = new Candidates(null, 0, movies.length, true);
+        private boolean none; // No movie can match
+        private double estimate = movies.length;
+        private int filters;
+        private boolean exact = true;
+
+        private Plan(MovieQuery query, int[] movieIds) {
+            genre = isBlank(query.getGenre()) ? null : query.getGenre().trim();
+            genreMask = genre == null ? 0 : GenreRegistry.getInstance().maskOf(genre);
+            genreByText = genre != null && genreMask == 0;
+            year = query.getYear();
+            minRating = query.getMinRating();
+            title = isBlank(query.getTitleText()) ? null : fold(query.getTitleText());
+            this.movieIds = movieIds;
+
+            if (genre != null && genreMask == 0 && !GenreRegistry.getInstance().hasOverflowed()) {
+                none = true; // Not a genre any movie has
+                return;
+            }
+
+            if (movieIds != null) {
+                allowed = positionsOf(movieIds);
+                narrow(allowed, 0, allowed.length, true, true);
+            }
+
+            if (year != null) {
+                int bucket = bucketByYear.get(year);
+                if (bucket < 0) {
+                    none = true;
+                    return;
+                }
+                narrow(yearBuckets[bucket], 0, yearBuckets[bucket].length, true, true);
+            }
+
+            if (title != null) {
+                // Every n-gram of the text must be in the title; the rarest one bounds the matches
+                Candidates rarest = new Candidates(null, 0, movies.length, true);
+                for (int i = 0; i + GRAM <= title.length(); i++) {
+                    int term = termByGram.get(gramKey(title, i));
+                    if (term < 0) {
+                        none = true; // No title contains this sequence
+                        return;
+                    }
+                    rarest = rarest.smaller(postings, termStarts[term], termStarts[term + 1], true);
+                }
+                narrow(rarest.positions, rarest.from, rarest.to, true, false);
+            }
+
+            if (minRating > 0) {
+                int from = lowerBound(ratingKeys, sortableKey((float) minRating));
+                narrow(byRating, from, byRating.length, false, true);
+            }
+
+            if (genreMask != 0) {
+                int[] genrePositions = positionsByGenre[Long.numberOfTrailingZeros(genreMask)];
+                narrow(genrePositions, 0, genrePositions.length, true, true);
+            } else if (genreByText) {
+                filters++;
+                exact = false;
+            }
+        }
+
+        private void narrow(int[] positions, int from, int to, boolean ascending, boolean exactList) {
+            best = best.smaller(positions, from, to, ascending);
+            estimate = movies.length == 0 ? 0 : estimate * (to - from) / movies.length;
+            filters++;
+            exact &= exactList;
+        }
+
+        /**
+         * Returns the estimated number of matching movies.
+         *
+         * @return the estimate, never more than the candidates
+         */
+        int estimate() {
+            if (none) {
+                return 0;
+            }
+            return filters <= 1 && exact ? best.size() : (int) Math.min(Math.round(estimate), best.size());
+        }
+
+        /**
+         * Tells whether estimate() is the exact number of matches.
+         *
+         * @return true if it is exact
+         */
+        boolean isExact() {
+            return none || filters <= 1 && exact;
+        }
+
+        /**
+         * Returns the number of candidates the filters are checked on, an upper bound on the matches.
+         *
+         * @return the candidate count
+         */
+        int candidateCount() {
+            return none ? 0 : best.size();
+        }
+
+        /**
+         * Finds matching positions from a catalogue position on. Candidates in catalogue order are checked only
+         * until enough matches are found, so a page costs about as much as its movies and the candidates between them.
+         *
+         * @param fromPosition the first catalogue position to consider
+         * @param limit        the most positions to return
+         * @return the matching positions, ascending
+         */
+        int[] positions(int fromPosition, int limit) {
+            if (none || limit <= 0) {
+                return NO_POSITIONS;
+            }
+            Candidates candidates = best;
+            long size = candidates.size();
+            if (!candidates.ascending && size * size > (long) limit * movies.length) {
+                // A page of the rating candidates means checking and sorting all of them, while walking the catalogue
+                // finds a page of them in about limit * catalogue / candidates steps
+                candidates = new Candidates(null, 0, movies.length, true);
+            }
+            int start = candidates.from;
+            if (candidates.ascending && fromPosition > 0) {
+                start = candidates.positions == null
+                        ? Math.max(start, fromPosition)
+                        : lowerBound(candidates.positions, candidates.from, candidates.to, fromPosition);
+            }
+            IntBuffer hits = new IntBuffer();
+            for (int i = start; i < candidates.to && (hits.size < limit || !candidates.ascending); i++) {
+                int position = candidates.positions == null ? i : candidates.positions[i];
+                if (position >= fromPosition && matches(position, candidates)) {
+                    hits.add(position);
+                }
+            }
+            int[] matched = hits.toArray();
+            if (!candidates.ascending) {
+                Arrays.sort(matched);
+            }
+            return matched.length > limit ? Arrays.copyOf(matched, limit) : matched;
+        }
+
+        private boolean matches(int position, Candidates candidates) {
+            if (year != null && years[position] != year) return false;
+            if (!(ratings[position] >= minRating)) return false;
+            if (genreMask != 0 && (genreMasks[position] & genreMask) == 0) return false;
+            if (genreByText && !hasGenreNamed(movies[position].getGenre(), genre)) return false;
+            if (allowed != null && candidates.positions != allowed && Arrays.binarySearch(allowed, position) < 0) return false;
+            return title == null || containsFolded(movies[position].getTitle(), title);
+        }
+
+        /**
+         * Tells whether a movie passes the filters, judged by its current values rather than the indexed ones.
+         * Used to filter movies walked in another order than the catalogue's.
+         *
+         * @param movie the movie
+         * @return true if it matches
+         */
+        boolean matches(Movie movie) {
+            if (none) return false;
+            if (year != null && movie.getYear() != year) return false;
+            if (!(movie.getRating() >= minRating)) return false;
+            if (genreMask != 0 && (movie.getGenreMask() & genreMask) == 0) return false;
+            if (genreByText && !hasGenreNamed(movie.getGenre(), genre)) return false;
+            if (movieIds != null && Arrays.binarySearch(movieIds, movie.getMovieId()) < 0) return false;
+            return title == null || containsFolded(movie.getTitle(), title);
+        }
+    }
+
+    /**
+     * A slice of positions to check, and whether it is in catalogue order.
+     */
+    private static final class Candidates {
+        final int[] positions; // Null means every position from "from" to "to"
+        final int from;
+        final int to;
+        final boolean ascending;
+
+        Candidates(int[] positions, int from, int to, boolean ascending) {
+            this.positions = positions;
+            this.from = from;
+            this.to = to;
+            this.ascending = ascending;
+        }
+
+        int size() {
+            return to - from;
+        }
+
+        Candidates smaller(int[] positions, int from, int to, boolean ascending) {
+            return to - from < size() ? new Candidates(positions, from, to, ascending) : this;
+        }
+    }
+
+    /**
+     * A growable int array.
+     */
+    static final class IntBuffer {
+        int[] items = new int[8];
+        int size;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.controller;
+
+/**
+ * MovieSortOrder names the orders the catalogue can be listed in. Every order except CATALOGUE is kept
+ * precomputed by SortOrderIndex, so listing movies in it never sorts the catalogue.
+ */
+public enum MovieSortOrder {
+    CATALOGUE("Catalogue order"), // The order of the movies file
+    RATING("Top rated"), // Highest rating first, then newest, then by movie ID
+    YEAR("Newest first"), // Latest year first, then highest rating, then by movie ID
+    TITLE("Title A-Z"); // Title ignoring case, then newest, then by movie ID
+
+    private final String label;
+
+    MovieSortOrder(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the name of the order as shown to users.
+     *
+     * @return the label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
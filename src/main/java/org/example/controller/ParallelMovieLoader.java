@@ -0,0 +1,221 @@
+package org.example.controller;
+
+import org.example.model.Movie;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * ParallelMovieLoader imports a large movies.csv on a fork-join pool.
+ *
+ * The file is cut into byte ranges that always end on a line break outside a quoted field,
+ * so a description that spans several lines is never split between two ranges. Finding safe cut
+ * points works in two passes: every range first counts its quote characters in parallel, which tells
+ * each range whether it starts inside a quoted field, and then each cut point only has to scan forward
+ * to the next line break that is outside quotes. The ranges are parsed in parallel with MovieCsvLoader.
+ * Because the ranges are contiguous, handing on their movies range by range keeps the order of the file.
+ *
+ * This relies on quotes only opening at the start of a field, which is how CSVWriter writes the file.
+ */
+class ParallelMovieLoader {
+    private static final long MIN_CHUNK_BYTES = 1L << 20; // Ranges smaller than this are not worth a task
+    private static final long MAX_CHUNK_BYTES = 1L << 30; // Keeps every range within one memory mapping
+    private static final int SCAN_BUFFER_BYTES = 8 * 1024;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a loader that runs on the given pool.
+     *
+     * @param pool the pool to parse on
+     */
+    ParallelMovieLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Loads every movie in the file and hands them to the consumer in file order.
+     *
+     * @param file     the movies.csv file, including its header row
+     * @param consumer receives each movie
+     * @return statistics for the load
+     * @throws IOException if the file cannot be read
+     */
+    MovieLoadStats load(File file, Consumer<Movie> consumer) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataStart = nextRecordStart(channel, 0, false, size);
+            long[] cuts = findCuts(channel, dataStart, size);
+
+            List<ForkJoinTask<Chunk>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < cuts.length; i++) {
+                long from = cuts[i];
+                long to = cuts[i + 1];
+                if (to > from) {
+                    tasks.add(pool.submit(() -> parse(channel, from, to)));
+                }
+            }
+
+            List<Chunk> chunks = new ArrayList<>(tasks.size());
+            long rows = 0;
+            long skipped = 0;
+            for (ForkJoinTask<Chunk> task : tasks) {
+                Chunk chunk = joinUnchecked(task);
+                chunks.add(chunk);
+                rows += chunk.movies.size();
+                skipped += chunk.skippedRows;
+            }
+            for (Chunk chunk : chunks) {
+                chunk.movies.forEach(consumer);
+            }
+            return new MovieLoadStats(rows, skipped, size, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Picks the byte offsets where parsing ranges begin. The first is the start of the data,
+     * the last is the end of the file, and every other one is the start of a record.
+     */
+    private long[] findCuts(FileChannel channel, long dataStart, long size) throws IOException {
+        long dataLength = size - dataStart;
+        int chunkCount = (int) Math.max(1, Math.min((long) pool.getParallelism() * 4, dataLength / MIN_CHUNK_BYTES));
+        chunkCount = (int) Math.max(chunkCount, (dataLength + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+        long chunkLength = (dataLength + chunkCount - 1) / Math.max(chunkCount, 1);
+
+        // Pass 1: count quotes in every nominal range so each one knows whether it starts inside a quoted field
+        List<ForkJoinTask<Long>> counts = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            long from = Math.min(size, dataStart + i * chunkLength);
+            long to = Math.min(size, from + chunkLength);
+            counts.add(pool.submit(() -> countQuotes(channel, from, to)));
+        }
+
+        // Pass 2: move every nominal boundary forward to the next line break outside quotes
+        long[] cuts = new long[chunkCount + 1];
+        cuts[0] = dataStart;
+        boolean insideQuotes = false;
+        for (int i = 1; i < chunkCount; i++) {
+            insideQuotes ^= (joinUnchecked(counts.get(i - 1)) & 1) == 1;
+            long boundary = Math.min(size, dataStart + i * chunkLength);
+            cuts[i] = Math.max(cuts[i - 1], nextRecordStart(channel, boundary, insideQuotes, size));
+        }
+        cuts[chunkCount] = size;
+        return cuts;
+    }
+
+    private static long countQuotes(FileChannel channel, long from, long to) throws IOException {
+        if (to <= from) {
+            return 0;
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        long quotes = 0;
+        while (buffer.hasRemaining()) {
+            if (buffer.get() == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * Scans forward from a position whose quote state is known and returns the offset just after
+     * the first line break that is not inside a quoted field.
+     */
+    private static long nextRecordStart(FileChannel channel, long position, boolean insideQuotes, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    insideQuotes = !insideQuotes;
+                } else if (b == '\n' && !insideQuotes) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static Chunk parse(FileChannel channel, long from, long to) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        List<Movie> movies = new ArrayList<>();
+        try (Reader reader = new InputStreamReader(new ByteBufferInputStream(buffer), StandardCharsets.UTF_8)) {
+            MovieCsvLoader loader = new MovieCsvLoader(reader);
+            loader.forEachMovie(movies::add);
+            return new Chunk(movies, loader.getSkippedRowCount());
+        }
+    }
+
+    private static <T> T joinUnchecked(ForkJoinTask<T> task) throws IOException {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The movies parsed from one byte range, in file order.
+     */
+    private static class Chunk {
+        final List<Movie> movies;
+        final long skippedRows;
+
+        Chunk(List<Movie> movies, long skippedRows) {
+            this.movies = movies;
+            this.skippedRows = skippedRows;
+        }
+    }
+
+    /**
+     * Reads a memory-mapped range as an input stream.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+}
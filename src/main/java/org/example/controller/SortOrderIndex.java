@@ -0,0 +1,466 @@
+package org.example.controller;
+
+import org.example.model.Movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * SortOrderIndex keeps the catalogue sorted by rating, by year and by title at all times, so listing movies
+ * in one of those orders reads them off instead of sorting.
+ *
+ * Each order is an array of movie slots. A slot remembers the rating, year and folded title the movie had when it
+ * was indexed, which is what the arrays are sorted by; ties are broken by movie ID, so every movie has exactly one
+ * place in each order and a binary search finds it. An edit takes the movie out at its old place and puts it back
+ * at its new one, moving the array entries in between instead of sorting again.
+ *
+ * Sorting a subset of the catalogue, such as search results, never sorts a large list either: a large subset is
+ * marked and picked out of the precomputed order in one pass, and only a small one is sorted directly.
+ *
+ * Like TextIndex, the index ignores changes until it is built, so build runs under the catalogue lock, as
+ * MovieManager.getSortOrderIndex does; edits then arrive under that lock on the editing thread. Pages are read from
+ * the search thread. A subset passed to sort or top may come from an older snapshot of the catalogue, so it is
+ * checked against the index and movies that have left the catalogue are dropped. walk holds the index lock while
+ * it runs its filter, so the filter must not wait on another thread or take the catalogue lock.
+ */
+public class SortOrderIndex implements CatalogueListener {
+    private static final MovieSortOrder[] ORDERS = {MovieSortOrder.RATING, MovieSortOrder.YEAR, MovieSortOrder.TITLE};
+
+    private boolean built;
+
+    // Slots: the values each movie was indexed with
+    private final IntIntHashMap slotByMovie = new IntIntHashMap();
+    private Movie[] movies = new Movie[64];
+    private int[] ids = new int[64];
+    private double[] ratings = new double[64];
+    private int[] years = new int[64];
+    private String[] titles = new String[64];
+    private int[] freeSlots = new int[8];
+    private int freeSlotCount;
+    private int slotCount;
+
+    private final int[][] orders = new int[ORDERS.length][]; // Slots in each order
+    private int size;
+
+    /**
+     * Indexes the given movies, replacing anything indexed before. From then on the index follows the
+     * catalogue through its listener methods. Call it while holding the catalogue lock.
+     *
+     * @param catalogue the catalogue
+     */
+    public synchronized void build(List<Movie> catalogue) {
+        slotByMovie.clear();
+        Arrays.fill(movies, null);
+        freeSlotCount = 0;
+        slotCount = 0;
+        for (Movie movie : catalogue) {
+            if (movie != null && slotByMovie.get(movie.getMovieId()) < 0) {
+                int slot = takeSlot();
+                slotByMovie.put(movie.getMovieId(), slot);
+                record(slot, movie);
+            }
+        }
+        size = slotCount;
+        int[] scratch = new int[size];
+        for (int o = 0; o < ORDERS.length; o++) {
+            int[] order = new int[Math.max(64, size)];
+            for (int slot = 0; slot < size; slot++) {
+                order[slot] = slot;
+            }
+            mergeSort(order, scratch, 0, size, ORDERS[o]);
+            orders[o] = order;
+        }
+        built = true;
+    }
+
+    /**
+     * Returns whether build has been called.
+     *
+     * @return true once the index follows the catalogue
+     */
+    public synchronized boolean isBuilt() {
+        return built;
+    }
+
+    @Override
+    public synchronized void movieAdded(Movie movie) {
+        movieChanged(movie);
+    }
+
+    @Override
+    public synchronized void movieChanged(Movie movie) {
+        if (!built) {
+            return;
+        }
+        int slot = slotByMovie.get(movie.getMovieId());
+        if (slot >= 0) {
+            if (movies[slot] == movie && ratings[slot] == movie.getRating() && years[slot] == movie.getYear()
+                    && titles[slot].equals(foldTitle(movie))) {
+                return;
+            }
+            unlink(slot);
+        } else {
+            slot = takeSlot();
+            slotByMovie.put(movie.getMovieId(), slot);
+        }
+        record(slot, movie);
+        link(slot);
+    }
+
+    @Override
+    public synchronized void movieRemoved(Movie movie) {
+        if (!built) {
+            return;
+        }
+        int slot = slotByMovie.remove(movie.getMovieId());
+        if (slot < 0) {
+            return;
+        }
+        unlink(slot);
+        movies[slot] = null;
+        titles[slot] = null;
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    /**
+     * Returns a page of the catalogue in a sort order.
+     *
+     * @param sortOrder the order, other than CATALOGUE
+     * @param offset    the number of movies to skip
+     * @param count     the most movies to return
+     * @return the movies from offset on, in order
+     */
+    public synchronized List<Movie> slice(MovieSortOrder sortOrder, int offset, int count) {
+        int[] order = orders[orderIndex(sortOrder)];
+        int from = Math.min(Math.max(offset, 0), size);
+        int to = (int) Math.min((long) from + Math.max(count, 0), size);
+        List<Movie> page = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            page.add(movies[order[i]]);
+        }
+        return page;
+    }
+
+    /**
+     * Puts movies from the catalogue in a sort order. Movies that are not in the catalogue are left out.
+     *
+     * @param subset    the movies, for example search results
+     * @param sortOrder the order, other than CATALOGUE
+     * @return the same movies, in order
+     */
+    public synchronized List<Movie> sort(List<Movie> subset, MovieSortOrder sortOrder) {
+        MovieSortOrder by = ORDERS[orderIndex(sortOrder)];
+        int[] slots = slotsOf(subset);
+        long sortCost = (long) slots.length * (32 - Integer.numberOfLeadingZeros(slots.length));
+        List<Movie> sorted = new ArrayList<>(slots.length);
+        if (sortCost > size) {
+            // Cheaper to walk the whole order once than to sort the subset
+            BitSet wanted = new BitSet(slotCount);
+            for (int slot : slots) {
+                wanted.set(slot);
+            }
+            int[] order = orders[orderIndex(sortOrder)];
+            for (int i = 0; i < size && sorted.size() < slots.length; i++) {
+                if (wanted.get(order[i])) {
+                    sorted.add(movies[order[i]]);
+                }
+            }
+            return sorted;
+        }
+        mergeSort(slots, new int[slots.length], 0, slots.length, by);
+        for (int slot : slots) {
+            sorted.add(movies[slot]);
+        }
+        return sorted;
+    }
+
+    /**
+     * Returns the first movies of a subset in a sort order without ordering the rest: a bounded heap keeps the
+     * best n seen so far, so the cost grows with the subset's size but only with the logarithm of n.
+     *
+     * @param subset    the movies, for example search results
+     * @param sortOrder the order, other than CATALOGUE
+     * @param n         the most movies to return
+     * @return up to n movies, in order
+     */
+    public synchronized List<Movie> top(List<Movie> subset, MovieSortOrder sortOrder, int n) {
+        MovieSortOrder by = ORDERS[orderIndex(sortOrder)];
+        if (n <= 0) {
+            return new ArrayList<>();
+        }
+        int[] heap = new int[Math.min(n, subset.size())]; // The worst of the best n at the root
+        int heapSize = 0;
+        for (Movie movie : subset) {
+            int slot = movie == null ? -1 : slotByMovie.get(movie.getMovieId());
+            if (slot < 0 || movies[slot] != movie) {
+                continue;
+            }
+            if (heapSize < heap.length) {
+                int i = heapSize++;
+                while (i > 0 && compare(heap[(i - 1) >>> 1], slot, by) < 0) {
+                    heap[i] = heap[(i - 1) >>> 1];
+                    i = (i - 1) >>> 1;
+                }
+                heap[i] = slot;
+            } else if (compare(slot, heap[0], by) < 0) {
+                int i = 0;
+                while (2 * i + 1 < heapSize) {
+                    int child = 2 * i + 1;
+                    if (child + 1 < heapSize && compare(heap[child + 1], heap[child], by) > 0) {
+                        child++;
+                    }
+                    if (compare(heap[child], slot, by) <= 0) {
+                        break;
+                    }
+                    heap[i] = heap[child];
+                    i = child;
+                }
+                heap[i] = slot;
+            }
+        }
+        mergeSort(heap, new int[heapSize], 0, heapSize, by);
+        List<Movie> best = new ArrayList<>(heapSize);
+        for (int i = 0; i < heapSize; i++) {
+            best.add(movies[heap[i]]);
+        }
+        return best;
+    }
+
+    /**
+     * Walks an order from a cursor on and returns the first movies that pass a filter. The walk stops as soon
+     * as it has enough, so a page costs about as much as the movies it skips over.
+     *
+     * @param sortOrder the order, other than CATALOGUE
+     * @param after     where the previous page ended, or null to start at the beginning
+     * @param filter    the movies to keep
+     * @param count     the most movies to return
+     * @return the movies, in order
+     */
+    public synchronized List<Movie> walk(MovieSortOrder sortOrder, MovieCursor after, Predicate<Movie> filter, int count) {
+        int[] order = orders[orderIndex(sortOrder)];
+        List<Movie> found = new ArrayList<>(Math.max(Math.min(count, size), 0));
+        for (int i = after == null ? 0 : positionAfter(order, after); i < size && found.size() < count; i++) {
+            Movie movie = movies[order[i]];
+            if (filter.test(movie)) {
+                found.add(movie);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds where the page after a cursor starts in a list already in the cursor's order.
+     *
+     * @param sorted the movies, in the cursor's sort order
+     * @param after  where the previous page ended
+     * @return the index of the first movie after the cursor
+     */
+    static int indexAfter(List<Movie> sorted, MovieCursor after) {
+        MovieSortOrder by = after.getSortOrder();
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            Movie movie = sorted.get(middle);
+            if (compare(by, movie.getRating(), movie.getYear(), foldTitle(movie), movie.getMovieId(),
+                    after.getRating(), after.getYear(), after.getTitle(), after.getMovieId()) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index in an order of the first slot that sorts after a cursor.
+     */
+    private int positionAfter(int[] order, MovieCursor after) {
+        MovieSortOrder by = after.getSortOrder();
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int slot = order[middle];
+            if (compare(by, ratings[slot], years[slot], titles[slot], ids[slot],
+                    after.getRating(), after.getYear(), after.getTitle(), after.getMovieId()) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the number of movies indexed.
+     *
+     * @return the movie count
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Looks up the slots of movies, skipping movies that are not the ones indexed under their ID.
+     */
+    private int[] slotsOf(List<Movie> subset) {
+        int[] slots = new int[subset.size()];
+        int count = 0;
+        for (Movie movie : subset) {
+            int slot = movie == null ? -1 : slotByMovie.get(movie.getMovieId());
+            if (slot >= 0 && movies[slot] == movie) {
+                slots[count++] = slot;
+            }
+        }
+        return count == slots.length ? slots : Arrays.copyOf(slots, count);
+    }
+
+    /**
+     * Puts a slot into every order at the place its values sort to.
+     */
+    private void link(int slot) {
+        for (int o = 0; o < ORDERS.length; o++) {
+            int[] order = orders[o];
+            if (size == order.length) {
+                order = orders[o] = Arrays.copyOf(order, size * 2);
+            }
+            int at = -find(order, slot, ORDERS[o]) - 1;
+            System.arraycopy(order, at, order, at + 1, size - at);
+            order[at] = slot;
+        }
+        size++;
+    }
+
+    /**
+     * Takes a slot out of every order, finding it by the values it was indexed with.
+     */
+    private void unlink(int slot) {
+        for (int o = 0; o < ORDERS.length; o++) {
+            int[] order = orders[o];
+            int at = find(order, slot, ORDERS[o]);
+            System.arraycopy(order, at + 1, order, at, size - at - 1);
+        }
+        size--;
+    }
+
+    /**
+     * Binary-searches an order for a slot: its index if present, otherwise -(insertion point) - 1.
+     */
+    private int find(int[] order, int slot, MovieSortOrder by) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(order[middle], slot, by);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int compare(int a, int b, MovieSortOrder by) {
+        return compare(by, ratings[a], years[a], titles[a], ids[a], ratings[b], years[b], titles[b], ids[b]);
+    }
+
+    /**
+     * Compares two sort keys in an order. Titles are case-folded.
+     */
+    private static int compare(MovieSortOrder by, double ratingA, int yearA, String titleA, int idA,
+                               double ratingB, int yearB, String titleB, int idB) {
+        int comparison;
+        switch (by) {
+            case RATING:
+                comparison = Double.compare(ratingB, ratingA);
+                if (comparison == 0) {
+                    comparison = Integer.compare(yearB, yearA);
+                }
+                break;
+            case YEAR:
+                comparison = Integer.compare(yearB, yearA);
+                if (comparison == 0) {
+                    comparison = Double.compare(ratingB, ratingA);
+                }
+                break;
+            default:
+                comparison = titleA.compareTo(titleB);
+                if (comparison == 0) {
+                    comparison = Integer.compare(yearB, yearA);
+                }
+                break;
+        }
+        return comparison != 0 ? comparison : Integer.compare(idA, idB);
+    }
+
+    /**
+     * Sorts slots in [from, to) by an order, using scratch as the merge buffer.
+     */
+    private void mergeSort(int[] slots, int[] scratch, int from, int to, MovieSortOrder by) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(slots, scratch, from, middle, by);
+        mergeSort(slots, scratch, middle, to, by);
+        if (compare(slots[middle - 1], slots[middle], by) <= 0) {
+            return; // Already in order, as when movies are added in ID order
+        }
+        System.arraycopy(slots, from, scratch, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || left < middle && compare(scratch[left], scratch[right], by) <= 0) {
+                slots[i] = scratch[left++];
+            } else {
+                slots[i] = scratch[right++];
+            }
+        }
+    }
+
+    private void record(int slot, Movie movie) {
+        movies[slot] = movie;
+        ids[slot] = movie.getMovieId();
+        ratings[slot] = movie.getRating();
+        years[slot] = movie.getYear();
+        titles[slot] = foldTitle(movie);
+    }
+
+    private int takeSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == movies.length) {
+            int capacity = slotCount * 2;
+            movies = Arrays.copyOf(movies, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            years = Arrays.copyOf(years, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+        }
+        return slotCount++;
+    }
+
+    private static String foldTitle(Movie movie) {
+        return movie.getTitle() == null ? "" : MovieSearchIndex.fold(movie.getTitle());
+    }
+
+    private static int orderIndex(MovieSortOrder sortOrder) {
+        for (int o = 0; o < ORDERS.length; o++) {
+            if (ORDERS[o] == sortOrder) {
+                return o;
+            }
+        }
+        throw new IllegalArgumentException("Not a precomputed order: " + sortOrder);
+    }
+}
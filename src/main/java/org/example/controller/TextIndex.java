@@ -0,0 +1,463 @@
+package org.example.controller;
+
+import org.example.model.Movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * TextIndex finds movies by the words in their title, description and cast, best matches first.
+ *
+ * Text is split into words of letters and digits, lower-cased, and plural endings are taken off ("dreams" and
+ * "dream" are the same word). Each word has a posting list of the movies that use it and how often, weighted by
+ * field: a word in the title counts TITLE_WEIGHT times, in the cast CAST_WEIGHT times, in the description once.
+ * Postings are stored as variable-length byte sequences of gaps between movie numbers, so most entries take two
+ * or three bytes. A query scores every movie that has at least one of its words with BM25, which favours rare
+ * words, several matching words and short texts.
+ *
+ * The index listens to the catalogue once it is built. An edited movie is indexed again under a new number and
+ * its old number is marked dead, so an edit costs as much as indexing one movie; the postings are rebuilt once
+ * dead entries outnumber live ones. Until then word rarity also counts the dead entries, which shifts scores
+ * slightly but not which movies match.
+ *
+ * The listener methods ignore changes until the index is built, so build has to run under the catalogue lock, as
+ * MovieManager.searchText does: an edit made between reading the catalogue and marking the index built would
+ * otherwise be lost. After that, edits arrive on the editing thread under the catalogue lock, and searches come
+ * from the search thread. A search scores into scratch arrays owned by the index, so it holds the index lock for
+ * the whole query and an edit made meanwhile waits for it. Searches return the catalogue's own Movie objects.
+ */
+public class TextIndex implements CatalogueListener {
+    public static final int TITLE_WEIGHT = 3;
+    public static final int CAST_WEIGHT = 2;
+    public static final int DESCRIPTION_WEIGHT = 1;
+    private static final float K1 = 1.2f; // How quickly repeated words stop adding to the score
+    private static final float B = 0.75f; // How much longer texts are penalised
+    private static final int MIN_DEAD_FOR_REBUILD = 1024;
+
+    private boolean built;
+
+    // Terms: open-addressing table from word to term number
+    private String[] terms = new String[1024];
+    private int[] termHashes = new int[1024];
+    private int[] termTable = new int[2048]; // Term number + 1, 0 for an empty slot
+    private int termCount;
+
+    // Postings per term: gap to the previous document, then weighted frequency, both as variable-length ints
+    private byte[][] postings = new byte[1024][];
+    private int[] postingBytes = new int[1024];
+    private int[] lastDocument = new int[1024];
+    private int[] documentFrequency = new int[1024];
+
+    // Documents: one per indexed version of a movie, numbered in the order they were indexed
+    private Movie[] documents = new Movie[1024];
+    private int[] documentLengths = new int[1024]; // Sum of the weighted frequencies
+    private int documentCount;
+    private final BitSet dead = new BitSet();
+    private int deadCount;
+    private long liveLength;
+    private final IntIntHashMap documentByMovie = new IntIntHashMap();
+
+    // Scratch space, reused between calls
+    private char[] word = new char[32];
+    private long[] tokens = new long[64]; // Term number in the high half, weight in the low half
+    private int tokenCount;
+    private float[] scores = new float[1024];
+
+    /**
+     * Indexes the given movies, replacing anything indexed before. From then on the index follows the
+     * catalogue through its listener methods. Call it while holding the catalogue lock.
+     *
+     * @param movies the catalogue
+     */
+    public synchronized void build(List<Movie> movies) {
+        clear();
+        for (Movie movie : movies) {
+            if (movie != null) {
+                index(movie);
+            }
+        }
+        built = true;
+    }
+
+    /**
+     * Tells whether build has been called.
+     *
+     * @return true once the index follows the catalogue
+     */
+    public synchronized boolean isBuilt() {
+        return built;
+    }
+
+    @Override
+    public synchronized void movieAdded(Movie movie) {
+        movieChanged(movie);
+    }
+
+    @Override
+    public synchronized void movieChanged(Movie movie) {
+        if (!built) {
+            return;
+        }
+        retire(movie.getMovieId());
+        index(movie);
+        rebuildIfMostlyDead();
+    }
+
+    @Override
+    public synchronized void movieRemoved(Movie movie) {
+        if (!built) {
+            return;
+        }
+        retire(movie.getMovieId());
+        rebuildIfMostlyDead();
+    }
+
+    /**
+     * Finds the movies that use any of the words in a query, best match first.
+     *
+     * @param text  the query, such as "dream heist"
+     * @param limit the most movies to return, or 0 for all of them
+     * @return the matching movies; equal scores keep the order the movies were indexed in
+     */
+    public synchronized List<Movie> search(String text, int limit) {
+        List<Movie> result = new ArrayList<>();
+        if (text == null || liveCount() == 0) {
+            return result;
+        }
+        tokenCount = 0;
+        tokenize(text, 1, false);
+        Arrays.sort(tokens, 0, tokenCount);
+        if (scores.length < documentCount) {
+            scores = new float[documents.length];
+        }
+
+        int live = liveCount();
+        float averageLength = (float) liveLength / live;
+        int touched = 0;
+        int[] hits = new int[16];
+        for (int i = 0; i < tokenCount; i++) {
+            int term = (int) (tokens[i] >>> 32);
+            if (term < 0 || (i > 0 && (int) (tokens[i - 1] >>> 32) == term)) {
+                continue; // Unknown word, or the same word again
+            }
+            int frequency = documentFrequency[term];
+            float idf = (float) Math.log(1 + (live - frequency + 0.5) / (frequency + 0.5));
+            byte[] list = postings[term];
+            int end = postingBytes[term];
+            int document = 0;
+            int at = 0;
+            while (at < end) {
+                int gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = list[at++];
+                    gap |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                int tf = 0;
+                shift = 0;
+                do {
+                    b = list[at++];
+                    tf |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                document += gap;
+                if (deadCount > 0 && dead.get(document)) {
+                    continue;
+                }
+                float norm = K1 * (1 - B + B * documentLengths[document] / averageLength);
+                if (scores[document] == 0) {
+                    if (touched == hits.length) {
+                        hits = Arrays.copyOf(hits, touched * 2);
+                    }
+                    hits[touched++] = document;
+                }
+                scores[document] += idf * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+
+        // Best score first, then by document number: both fit in one long, so smaller keys rank higher
+        int count = limit > 0 ? Math.min(limit, touched) : touched;
+        long[] ranked = new long[count];
+        int kept = 0;
+        for (int i = 0; i < touched; i++) {
+            int document = hits[i];
+            long key = ((long) ~Float.floatToIntBits(scores[document]) << 32) | document;
+            scores[document] = 0;
+            if (kept < count) {
+                ranked[kept++] = key;
+                if (kept == count && count < touched) {
+                    heapify(ranked);
+                }
+            } else if (key < ranked[0]) {
+                ranked[0] = key; // Replaces the worst of the best so far
+                siftDown(ranked, 0);
+            }
+        }
+        Arrays.sort(ranked);
+        for (long key : ranked) {
+            result.add(documents[(int) key]);
+        }
+        return result;
+    }
+
+    /**
+     * Orders keys as a heap with the largest, so the worst ranked, at the root.
+     */
+    private static void heapify(long[] heap) {
+        for (int i = heap.length / 2 - 1; i >= 0; i--) {
+            siftDown(heap, i);
+        }
+    }
+
+    private static void siftDown(long[] heap, int i) {
+        long key = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heap.length) {
+                break;
+            }
+            if (child + 1 < heap.length && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= key) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = key;
+    }
+
+    /**
+     * Returns the number of movies in the index.
+     *
+     * @return the live document count
+     */
+    public synchronized int size() {
+        return liveCount();
+    }
+
+    private int liveCount() {
+        return documentCount - deadCount;
+    }
+
+    private void clear() {
+        Arrays.fill(terms, 0, termCount, null);
+        Arrays.fill(termTable, 0);
+        Arrays.fill(postings, 0, termCount, null);
+        Arrays.fill(postingBytes, 0, termCount, 0);
+        Arrays.fill(lastDocument, 0, termCount, 0);
+        Arrays.fill(documentFrequency, 0, termCount, 0);
+        termCount = 0;
+        Arrays.fill(documents, 0, documentCount, null);
+        documentCount = 0;
+        dead.clear();
+        deadCount = 0;
+        liveLength = 0;
+        documentByMovie.clear();
+    }
+
+    /**
+     * Adds a movie as a new document.
+     */
+    private void index(Movie movie) {
+        tokenCount = 0;
+        tokenize(movie.getTitle(), TITLE_WEIGHT, true);
+        tokenize(movie.getMainCast(), CAST_WEIGHT, true);
+        tokenize(movie.getDescription(), DESCRIPTION_WEIGHT, true);
+        Arrays.sort(tokens, 0, tokenCount);
+
+        if (documentCount == documents.length) {
+            documents = Arrays.copyOf(documents, documentCount * 2);
+            documentLengths = Arrays.copyOf(documentLengths, documentCount * 2);
+        }
+        int document = documentCount++;
+        documents[document] = movie;
+        documentByMovie.put(movie.getMovieId(), document);
+
+        int length = 0;
+        for (int i = 0; i < tokenCount; ) {
+            int term = (int) (tokens[i] >>> 32);
+            int tf = 0;
+            while (i < tokenCount && (int) (tokens[i] >>> 32) == term) {
+                tf += (int) tokens[i++];
+            }
+            post(term, document, tf);
+            length += tf;
+        }
+        documentLengths[document] = length;
+        liveLength += length;
+    }
+
+    /**
+     * Marks the current document of a movie as dead.
+     */
+    private void retire(int movieId) {
+        int document = documentByMovie.remove(movieId);
+        if (document >= 0) {
+            dead.set(document);
+            deadCount++;
+            liveLength -= documentLengths[document];
+        }
+    }
+
+    private void rebuildIfMostlyDead() {
+        if (deadCount < MIN_DEAD_FOR_REBUILD || deadCount < liveCount()) {
+            return;
+        }
+        List<Movie> live = new ArrayList<>(liveCount());
+        for (int document = 0; document < documentCount; document++) {
+            if (!dead.get(document)) {
+                live.add(documents[document]);
+            }
+        }
+        build(live);
+    }
+
+    private void post(int term, int document, int tf) {
+        byte[] list = postings[term];
+        if (list == null) {
+            list = postings[term] = new byte[8];
+        }
+        int at = postingBytes[term];
+        if (at + 10 > list.length) {
+            list = postings[term] = Arrays.copyOf(list, list.length * 2);
+        }
+        at = writeVarInt(list, at, document - lastDocument[term]);
+        at = writeVarInt(list, at, tf);
+        postingBytes[term] = at;
+        lastDocument[term] = document;
+        documentFrequency[term]++;
+    }
+
+    private static int writeVarInt(byte[] list, int at, int value) {
+        while ((value & ~0x7F) != 0) {
+            list[at++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        list[at++] = (byte) value;
+        return at;
+    }
+
+    /**
+     * Splits text into words and adds their term numbers to the token buffer. New words get a term number
+     * only when adding; otherwise they are recorded as -1.
+     */
+    private void tokenize(String text, int weight, boolean adding) {
+        if (text == null) {
+            return;
+        }
+        int length = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (length == word.length) {
+                    word = Arrays.copyOf(word, length * 2);
+                }
+                word[length++] = Character.toLowerCase(c);
+            } else if (length > 0) {
+                int term = findTerm(stem(length), adding);
+                if (tokenCount == tokens.length) {
+                    tokens = Arrays.copyOf(tokens, tokenCount * 2);
+                }
+                tokens[tokenCount++] = ((long) term << 32) | weight;
+                length = 0;
+            }
+        }
+    }
+
+    /**
+     * Takes the plural ending off the word in the scratch buffer: "stories" to "story", "heroes" to "heroe",
+     * "dreams" to "dream", leaving words such as "bus", "glass" and "yes" alone.
+     *
+     * @return the new length of the word
+     */
+    private int stem(int length) {
+        if (length <= 3 || word[length - 1] != 's') {
+            return length;
+        }
+        char second = word[length - 2];
+        char third = word[length - 3];
+        if (second == 'e' && third == 'i' && word[length - 4] != 'e' && word[length - 4] != 'a') {
+            word[length - 3] = 'y';
+            return length - 2;
+        }
+        if (second == 'e' && third != 'a' && third != 'e' && third != 'o') {
+            return length - 1;
+        }
+        if (second != 'u' && second != 's') {
+            return length - 1;
+        }
+        return length;
+    }
+
+    /**
+     * Looks up the word in the scratch buffer.
+     *
+     * @return its term number, or -1 if it is new and not to be added
+     */
+    private int findTerm(int length, boolean adding) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + word[i];
+        }
+        int mask = termTable.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (termTable[slot] != 0) {
+            int term = termTable[slot] - 1;
+            if (termHashes[term] == hash && sameWord(terms[term], length)) {
+                return term;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (!adding) {
+            return -1;
+        }
+        if (termCount == terms.length) {
+            int capacity = termCount * 2;
+            terms = Arrays.copyOf(terms, capacity);
+            termHashes = Arrays.copyOf(termHashes, capacity);
+            postings = Arrays.copyOf(postings, capacity);
+            postingBytes = Arrays.copyOf(postingBytes, capacity);
+            lastDocument = Arrays.copyOf(lastDocument, capacity);
+            documentFrequency = Arrays.copyOf(documentFrequency, capacity);
+        }
+        int term = termCount++;
+        terms[term] = new String(word, 0, length);
+        termHashes[term] = hash;
+        termTable[slot] = term + 1;
+        if (termCount * 2 > termTable.length) {
+            growTermTable();
+        }
+        return term;
+    }
+
+    private boolean sameWord(String term, int length) {
+        if (term.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (term.charAt(i) != word[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void growTermTable() {
+        termTable = new int[termTable.length * 2];
+        int mask = termTable.length - 1;
+        for (int term = 0; term < termCount; term++) {
+            int hash = termHashes[term];
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (termTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            termTable[slot] = term + 1;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package org.example.controller;
+
+import org.example.model.Movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TitleCompletions suggests titles while the user types one, best rated first.
+ *
+ * Every distinct title is listed once under each of its words, so "god" completes both "God's Army" and
+ * "The Godfather". The listings are sorted by the case-folded title text from their word on, which puts all
+ * listings that complete a prefix in one run, found with two binary searches. A max tree over the listings'
+ * weights then picks the best of the run without looking at the rest of it: the tree is walked best node first,
+ * so a query costs about the number of completions times the tree height however many titles match.
+ *
+ * A title weighs its best rating among the movies that have it; between equal ratings, a title that starts
+ * with the prefix comes before one that only has a word starting with it.
+ *
+ * The completions are immutable; MovieManager builds new ones when the catalogue has changed since they were built.
+ */
+public final class TitleCompletions {
+    private static final char END = '\0'; // Follows each title in the text, sorting before any other character
+    private static final int SMALL_RUN = 12; // Runs this short are sorted by insertion
+
+    private final String[] titles; // Distinct titles, as first written
+    private final char[] text; // Folded titles, each followed by END
+    private final int[] listings; // Offsets in text where a word starts, sorted by the text from there on
+    private final int[] listingTitles; // Title of each listing
+    private final byte[] tree; // Max tree of listing weights; listing i is node leafStart + i
+    private final int leafStart;
+
+    private TitleCompletions(String[] titles, char[] text, int[] listings, int[] listingTitles, byte[] tree, int leafStart) {
+        this.titles = titles;
+        this.text = text;
+        this.listings = listings;
+        this.listingTitles = listingTitles;
+        this.tree = tree;
+        this.leafStart = leafStart;
+    }
+
+    /**
+     * Builds the completions for the titles of a catalogue.
+     *
+     * @param movies the catalogue
+     * @return the completions
+     */
+    public static TitleCompletions build(List<Movie> movies) {
+        Map<String, Integer> titleNumbers = new HashMap<>();
+        List<String> titleList = new ArrayList<>();
+        int[] ratings = new int[64]; // Best rating per title, in tenths
+        int textLength = 0;
+        for (Movie movie : movies) {
+            if (movie == null || movie.getTitle() == null || movie.getTitle().isBlank()) {
+                continue;
+            }
+            String title = movie.getTitle().strip();
+            int rating = (int) Math.round(Math.min(Math.max(movie.getRating(), 0.0), 10.0) * 10);
+            Integer number = titleNumbers.putIfAbsent(title, titleList.size());
+            if (number == null) {
+                if (titleList.size() == ratings.length) {
+                    ratings = Arrays.copyOf(ratings, ratings.length * 2);
+                }
+                ratings[titleList.size()] = rating;
+                titleList.add(title);
+                textLength += title.length() + 1;
+            } else {
+                ratings[number] = Math.max(ratings[number], rating);
+            }
+        }
+
+        char[] text = new char[textLength];
+        int[] listings = new int[Math.max(16, titleList.size() * 2)];
+        int[] titleStarts = new int[titleList.size() + 1];
+        int listingCount = 0;
+        int at = 0;
+        for (int t = 0; t < titleList.size(); t++) {
+            String folded = MovieSearchIndex.fold(titleList.get(t));
+            titleStarts[t] = at;
+            boolean inWord = false;
+            for (int i = 0; i < folded.length(); i++) {
+                char c = folded.charAt(i);
+                boolean wordChar = Character.isLetterOrDigit(c);
+                if (i == 0 || wordChar && !inWord) {
+                    if (listingCount == listings.length) {
+                        listings = Arrays.copyOf(listings, listingCount * 2);
+                    }
+                    listings[listingCount++] = at;
+                }
+                inWord = wordChar;
+                text[at++] = c == END ? ' ' : c;
+            }
+            text[at++] = END;
+        }
+        titleStarts[titleList.size()] = at;
+        listings = Arrays.copyOf(listings, listingCount);
+        sort(listings, 0, listingCount, 0, text);
+
+        int leafStart = Integer.highestOneBit(Math.max(1, listingCount - 1)) << 1;
+        byte[] tree = new byte[leafStart * 2];
+        int[] listingTitles = new int[listingCount];
+        for (int i = 0; i < listingCount; i++) {
+            int title = Arrays.binarySearch(titleStarts, listings[i]);
+            boolean titleStart = title >= 0;
+            title = titleStart ? title : -title - 2;
+            listingTitles[i] = title;
+            tree[leafStart + i] = (byte) (ratings[title] * 2 + (titleStart ? 1 : 0));
+        }
+        for (int node = leafStart - 1; node > 0; node--) {
+            tree[node] = (byte) Math.max(tree[2 * node] & 0xFF, tree[2 * node + 1] & 0xFF);
+        }
+        return new TitleCompletions(titleList.toArray(new String[0]), text, listings, listingTitles, tree, leafStart);
+    }
+
+    /**
+     * Returns the best rated titles that have a word starting with the prefix. Case is ignored.
+     *
+     * @param prefix what the user has typed so far
+     * @param limit  the most titles to return
+     * @return distinct titles, best rated first
+     */
+    public List<String> complete(String prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return List.of();
+        }
+        String folded = MovieSearchIndex.fold(prefix.stripLeading()).replace(END, ' ');
+        if (folded.isEmpty()) {
+            return List.of();
+        }
+        int from = bound(folded, false);
+        int to = bound(folded, true);
+        if (from >= to) {
+            return List.of();
+        }
+
+        // Start from the few tree nodes that exactly cover the run, then always open the best node found so far
+        NodeQueue queue = new NodeQueue();
+        for (int left = from + leafStart, right = to + leafStart, height = 0; left < right; left >>>= 1, right >>>= 1, height++) {
+            if ((left & 1) == 1) {
+                queue.add(key(left++, height));
+            }
+            if ((right & 1) == 1) {
+                queue.add(key(--right, height));
+            }
+        }
+        List<String> result = new ArrayList<>(Math.min(limit, to - from));
+        int[] picked = new int[Math.min(limit, to - from)];
+        while (result.size() < limit && queue.size > 0) {
+            long key = queue.poll();
+            int height = 31 - (int) (key & 31);
+            int node = (int) (((key >>> 5) & 0xFFFFFFFFL) + leafStart >>> height);
+            if (height > 0) {
+                queue.add(key(2 * node, height - 1));
+                queue.add(key(2 * node + 1, height - 1));
+                continue;
+            }
+            int title = listingTitles[node - leafStart];
+            boolean seen = false;
+            for (int i = 0; i < result.size() && !seen; i++) {
+                seen = picked[i] == title; // A title with the prefix at several of its words
+            }
+            if (!seen) {
+                picked[result.size()] = title;
+                result.add(titles[title]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of distinct titles.
+     *
+     * @return the title count
+     */
+    public int size() {
+        return titles.length;
+    }
+
+    /**
+     * Orders nodes best weight first, then leftmost first, then a node before the nodes below it.
+     */
+    private long key(int node, int height) {
+        long leftmost = ((long) node << height) - leafStart;
+        return (long) (255 - (tree[node] & 0xFF)) << 55 | leftmost << 5 | (31 - height);
+    }
+
+    /**
+     * Returns the first listing whose text is not before the prefix, or with after set, the first whose
+     * text is after every text starting with the prefix.
+     */
+    private int bound(String prefix, boolean after) {
+        int low = 0;
+        int high = listings.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int order = compareToPrefix(listings[middle], prefix);
+            if (order < 0 || after && order == 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares the text at an offset with a prefix, as if the text ended after the prefix's length.
+     */
+    private int compareToPrefix(int offset, String prefix) {
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = text[offset + i];
+            if (c != prefix.charAt(i)) {
+                return c == END ? -1 : c - prefix.charAt(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Sorts listings by their text with a three-way radix quicksort: listings are split on the character at
+     * the given depth, and only the listings equal there go on to the next character.
+     */
+    private static void sort(int[] listings, int from, int to, int depth, char[] text) {
+        while (to - from > SMALL_RUN) {
+            char pivot = median(text[listings[from] + depth], text[listings[(from + to) >>> 1] + depth],
+                    text[listings[to - 1] + depth]);
+            int less = from;
+            int greater = to;
+            int i = from;
+            while (i < greater) {
+                char c = text[listings[i] + depth];
+                if (c < pivot) {
+                    swap(listings, less++, i++);
+                } else if (c > pivot) {
+                    swap(listings, i, --greater);
+                } else {
+                    i++;
+                }
+            }
+            sort(listings, from, less, depth, text);
+            sort(listings, greater, to, depth, text);
+            if (pivot == END) {
+                return; // The middle run's texts are all equal
+            }
+            from = less;
+            to = greater;
+            depth++;
+        }
+        for (int i = from + 1; i < to; i++) {
+            int listing = listings[i];
+            int j = i;
+            while (j > from && compareFrom(text, listings[j - 1], listing, depth) > 0) {
+                listings[j] = listings[j - 1];
+                j--;
+            }
+            listings[j] = listing;
+        }
+    }
+
+    private static int compareFrom(char[] text, int a, int b, int depth) {
+        for (int i = depth; ; i++) {
+            char x = text[a + i];
+            char y = text[b + i];
+            if (x != y || x == END) {
+                return x - y;
+            }
+        }
+    }
+
+    private static char median(char a, char b, char c) {
+        return a < b ? (b < c ? b : (a < c ? c : a)) : (a < c ? a : (b < c ? c : b));
+    }
+
+    private static void swap(int[] items, int i, int j) {
+        int item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+    }
+
+    /**
+     * A binary min-heap of node keys.
+     */
+    private static final class NodeQueue {
+        long[] keys = new long[64];
+        int size;
+
+        void add(long key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int i = size++;
+            while (i > 0 && keys[(i - 1) >>> 1] > key) {
+                keys[i] = keys[(i - 1) >>> 1];
+                i = (i - 1) >>> 1;
+            }
+            keys[i] = key;
+        }
+
+        long poll() {
+            long top = keys[0];
+            long last = keys[--size];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= last) {
+                    break;
+                }
+                keys[i] = keys[child];
+                i = child;
+            }
+            keys[i] = last;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package org.example.controller;
+
+import org.example.model.Movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+import static org.example.controller.MovieSearchIndex.GRAM;
+
+/**
+ * TitleGramIndex finds titles within a typo or two of some text. It maps every three-character sequence of a
+ * case-folded title to the movies whose titles contain it; titles that share enough sequences with the text are
+ * checked with an edit distance that allows a few wrong, missing, extra or swapped letters, and the closest come first.
+ *
+ * Unlike the title postings inside MovieSearchIndex, which are rebuilt with the rest of that index after any edit,
+ * this index follows the catalogue one movie at a time, as TextIndex does. A movie whose title changes is indexed
+ * again under a new document number and its old number is marked dead; the postings are rebuilt once dead entries
+ * outnumber live ones. Edits that keep the title cost a lookup.
+ *
+ * The listener methods ignore changes until the index is built, so build runs under the catalogue lock, as
+ * MovieManager does on the first fuzzy search. Searches come from the search thread and count shared n-grams in
+ * an array owned by the index, which is cleared through the documents the search touched rather than allocated
+ * per search; the index lock is therefore held for the whole search.
+ */
+class TitleGramIndex implements CatalogueListener {
+    private static final int MIN_DEAD_FOR_REBUILD = 1024;
+    private static final int MAX_TITLE_LENGTH_PENALTY = (1 << 23) - 1;
+
+    private boolean built;
+
+    // Postings: n-gram key to term number, and per term the documents whose title has it, ascending
+    private final IntIntHashMap termByGram = new IntIntHashMap(1024, -1);
+    private int[][] postings = new int[1024][];
+    private int[] postingSizes = new int[1024];
+    private int termCount;
+
+    // Documents: one per indexed title of a movie, numbered in the order they were indexed
+    private Movie[] documents = new Movie[1024];
+    private String[] titles = new String[1024]; // Title each document was indexed with
+    private int documentCount;
+    private final BitSet dead = new BitSet();
+    private int deadCount;
+    private final IntIntHashMap documentByMovie = new IntIntHashMap();
+
+    // Scratch space, reused between calls
+    private final MovieSearchIndex.IntBuffer grams = new MovieSearchIndex.IntBuffer();
+    private final MovieSearchIndex.IntBuffer touched = new MovieSearchIndex.IntBuffer(); // Documents with shared > 0
+    private int[] shared = new int[1024]; // n-grams each document shares with the text; all zero between searches
+
+    /**
+     * Indexes the given movies, replacing anything indexed before. From then on the index follows the
+     * catalogue through its listener methods. Call it while holding the catalogue lock.
+     *
+     * @param movies the catalogue
+     */
+    synchronized void build(List<Movie> movies) {
+        clear();
+        for (Movie movie : movies) {
+            if (movie != null) {
+                index(movie);
+            }
+        }
+        built = true;
+    }
+
+    /**
+     * Tells whether build has been called.
+     *
+     * @return true once the index follows the catalogue
+     */
+    synchronized boolean isBuilt() {
+        return built;
+    }
+
+    @Override
+    public synchronized void movieAdded(Movie movie) {
+        movieChanged(movie);
+    }
+
+    @Override
+    public synchronized void movieChanged(Movie movie) {
+        if (!built) {
+            return;
+        }
+        int document = documentByMovie.get(movie.getMovieId());
+        if (document >= 0 && Objects.equals(titles[document], movie.getTitle())) {
+            documents[document] = movie;
+            return;
+        }
+        retire(movie.getMovieId());
+        index(movie);
+        rebuildIfMostlyDead();
+    }
+
+    @Override
+    public synchronized void movieRemoved(Movie movie) {
+        if (!built) {
+            return;
+        }
+        retire(movie.getMovieId());
+        rebuildIfMostlyDead();
+    }
+
+    /**
+     * Finds titles that contain the text or something close to it, allowing a typo or two:
+     * one edit for text of six or more characters and two for nine or more, where an edit is a wrong,
+     * missing, extra or swapped letter. Case is ignored.
+     *
+     * @param text  the title text, such as "interstelar"
+     * @param limit the most movies to return, or 0 for all of them
+     * @return the matching movies, fewest edits first, then shortest title first, then in the order they were indexed
+     */
+    synchronized List<Movie> searchTitlesFuzzy(String text, int limit) {
+        long[] ranked = fuzzyTitleMatches(text, limit);
+        List<Movie> result = new ArrayList<>(ranked.length);
+        for (long key : ranked) {
+            result.add(documents[(int) key]);
+        }
+        return result;
+    }
+
+    /**
+     * Suggests the title the user probably meant when the text has a typo.
+     *
+     * @param text the title text
+     * @return the closest title, or null if a title already contains the text or none comes close
+     */
+    synchronized String suggestTitle(String text) {
+        long[] ranked = fuzzyTitleMatches(text, 1);
+        if (ranked.length == 0 || ranked[0] >>> 55 == 0) {
+            return null;
+        }
+        return titles[(int) ranked[0]];
+    }
+
+    /**
+     * Returns the number of movies in the index.
+     *
+     * @return the live document count
+     */
+    synchronized int size() {
+        return documentCount - deadCount;
+    }
+
+    /**
+     * Ranks fuzzy title matches. Each key holds the edit count in its top bits, then how much longer the title
+     * is than the text, then the document, so sorting the keys ranks the matches.
+     */
+    private long[] fuzzyTitleMatches(String text, int limit) {
+        String query = text == null ? "" : MovieSearchIndex.fold(text.trim());
+        if (query.length() < GRAM) {
+            return new long[0];
+        }
+        int maxEdits = query.length() >= 9 ? 2 : query.length() >= 6 ? 1 : 0;
+
+        MovieSearchIndex.distinctGrams(query, grams);
+        if (shared.length < documentCount) {
+            shared = new int[Math.max(documentCount, shared.length * 2)];
+        }
+        touched.size = 0;
+        try {
+            int gramCount = grams.size;
+            for (int i = 0; i < gramCount; i++) {
+                int term = termByGram.get(grams.items[i]);
+                if (term < 0) {
+                    continue;
+                }
+                int[] list = postings[term];
+                for (int at = 0; at < postingSizes[term]; at++) {
+                    if (shared[list[at]]++ == 0) {
+                        touched.add(list[at]);
+                    }
+                }
+            }
+            return rank(query, gramCount, maxEdits, limit);
+        } finally {
+            for (int i = 0; i < touched.size; i++) {
+                shared[touched.items[i]] = 0;
+            }
+        }
+    }
+
+    /**
+     * Checks the touched documents against the text and ranks those within maxEdits.
+     */
+    private long[] rank(String query, int gramCount, int maxEdits, int limit) {
+        // A title within e edits keeps all but GRAM * e of the text's n-grams (and one at least, as asked here).
+        // Round e checks the titles that share just enough for e edits, so after it every title within e edits
+        // has been found and the new matches of round e have at least e edits. Checking a round's titles in
+        // rank order then finds its best matches first, and a search with a limit stops once nothing it has
+        // not checked yet could make the cut.
+        long[] ranked = new long[16];
+        int count = 0;
+        int[][] rows = new int[3][query.length() + 1];
+        int checkedDownTo = Integer.MAX_VALUE; // Titles sharing at least this many n-grams have been checked
+        for (int round = 0; round <= maxEdits; round++) {
+            int needed = Math.max(1, gramCount - GRAM * round);
+            long[] candidates = new long[16];
+            int candidateCount = 0;
+            if (needed < checkedDownTo) {
+                for (int i = 0; i < touched.size; i++) {
+                    int document = touched.items[i];
+                    if (shared[document] >= needed && shared[document] < checkedDownTo && !dead.get(document)) {
+                        if (candidateCount == candidates.length) {
+                            candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                        }
+                        candidates[candidateCount++] = (lengthPenalty(titles[document], query) << 32) | document;
+                    }
+                }
+                checkedDownTo = needed;
+            }
+
+            // Matches found in earlier rounds: those with fewer edits than this round rank above anything
+            // this round finds, those with exactly this many compete with it on length and document order
+            int better = 0;
+            long[] carried = new long[count];
+            int carriedCount = 0;
+            for (int i = 0; i < count; i++) {
+                long edits = ranked[i] >>> 55;
+                if (edits < round) {
+                    better++;
+                } else if (edits == round) {
+                    carried[carriedCount++] = ranked[i] & ~(-1L << 55);
+                }
+            }
+            if (limit > 0) {
+                if (better >= limit) {
+                    break;
+                }
+                Arrays.sort(candidates, 0, candidateCount);
+                Arrays.sort(carried, 0, carriedCount);
+            }
+
+            int found = 0; // Matches of this round with exactly round edits
+            int carriedBefore = 0; // Carried matches that rank above the current candidate
+            for (int i = 0; i < candidateCount; i++) {
+                if (limit > 0) {
+                    while (carriedBefore < carriedCount && carried[carriedBefore] < candidates[i]) {
+                        carriedBefore++;
+                    }
+                    if (better + found + carriedBefore >= limit) {
+                        break; // This and every later candidate rank below enough matches already
+                    }
+                }
+                int document = (int) candidates[i];
+                int edits = substringEditDistance(query, titles[document], maxEdits, rows);
+                if (edits > maxEdits) {
+                    continue;
+                }
+                if (count == ranked.length) {
+                    ranked = Arrays.copyOf(ranked, count * 2);
+                }
+                ranked[count++] = ((long) edits << 55) | candidates[i];
+                if (edits == round) {
+                    found++;
+                }
+            }
+        }
+        Arrays.sort(ranked, 0, count);
+        return Arrays.copyOf(ranked, limit > 0 ? Math.min(limit, count) : count);
+    }
+
+    /**
+     * Ranks longer titles lower among those with the same number of edits.
+     */
+    private static long lengthPenalty(String title, String query) {
+        return Math.min(Math.max(title.length() - query.length(), 0), MAX_TITLE_LENGTH_PENALTY);
+    }
+
+    /**
+     * Returns the fewest edits that turn the query into some part of the text, counting a swap of two
+     * neighbouring letters as one edit, or maxEdits + 1 if it takes more than maxEdits.
+     *
+     * @param query    the case-folded query
+     * @param text     the text, in any case
+     * @param maxEdits the most edits of interest
+     * @param rows     three arrays one longer than the query, used as scratch space
+     */
+    static int substringEditDistance(String query, String text, int maxEdits, int[][] rows) {
+        int m = query.length();
+        int[] beforePrevious = rows[0];
+        int[] previous = rows[1];
+        int[] current = rows[2];
+        for (int i = 0; i <= m; i++) {
+            previous[i] = i; // Nothing of the text read yet: every query letter must be inserted
+        }
+        int best = previous[m];
+        char last = 0;
+        for (int j = 1; j <= text.length(); j++) {
+            char t = Character.toLowerCase(Character.toUpperCase(text.charAt(j - 1)));
+            current[0] = 0; // A match may start anywhere in the text
+            for (int i = 1; i <= m; i++) {
+                char q = query.charAt(i - 1);
+                int cost = previous[i - 1] + (q == t ? 0 : 1);
+                cost = Math.min(cost, previous[i] + 1);
+                cost = Math.min(cost, current[i - 1] + 1);
+                if (i > 1 && j > 1 && q == last && query.charAt(i - 2) == t) {
+                    cost = Math.min(cost, beforePrevious[i - 2] + 1);
+                }
+                current[i] = cost;
+            }
+            best = Math.min(best, current[m]);
+            if (best == 0) {
+                return 0;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+            last = t;
+        }
+        return Math.min(best, maxEdits + 1);
+    }
+
+    private void clear() {
+        termByGram.clear();
+        Arrays.fill(postings, 0, termCount, null);
+        Arrays.fill(postingSizes, 0, termCount, 0);
+        termCount = 0;
+        Arrays.fill(documents, 0, documentCount, null);
+        Arrays.fill(titles, 0, documentCount, null);
+        documentCount = 0;
+        dead.clear();
+        deadCount = 0;
+        documentByMovie.clear();
+    }
+
+    /**
+     * Adds a movie's title as a new document.
+     */
+    private void index(Movie movie) {
+        if (documentCount == documents.length) {
+            documents = Arrays.copyOf(documents, documentCount * 2);
+            titles = Arrays.copyOf(titles, documentCount * 2);
+        }
+        int document = documentCount++;
+        documents[document] = movie;
+        titles[document] = movie.getTitle();
+        documentByMovie.put(movie.getMovieId(), document);
+
+        MovieSearchIndex.distinctGrams(movie.getTitle(), grams);
+        for (int i = 0; i < grams.size; i++) {
+            int term = termByGram.get(grams.items[i]);
+            if (term < 0) {
+                if (termCount == postings.length) {
+                    postings = Arrays.copyOf(postings, termCount * 2);
+                    postingSizes = Arrays.copyOf(postingSizes, termCount * 2);
+                }
+                term = termCount++;
+                termByGram.put(grams.items[i], term);
+            }
+            int[] list = postings[term];
+            if (list == null) {
+                list = postings[term] = new int[4];
+            } else if (postingSizes[term] == list.length) {
+                list = postings[term] = Arrays.copyOf(list, list.length * 2);
+            }
+            list[postingSizes[term]++] = document;
+        }
+    }
+
+    /**
+     * Marks the current document of a movie as dead.
+     */
+    private void retire(int movieId) {
+        int document = documentByMovie.remove(movieId);
+        if (document >= 0) {
+            dead.set(document);
+            deadCount++;
+            documents[document] = null;
+        }
+    }
+
+    private void rebuildIfMostlyDead() {
+        if (deadCount < MIN_DEAD_FOR_REBUILD || deadCount < documentCount - deadCount) {
+            return;
+        }
+        List<Movie> live = new ArrayList<>(documentCount - deadCount);
+        for (int document = 0; document < documentCount; document++) {
+            if (!dead.get(document)) {
+                live.add(documents[document]);
+            }
+        }
+        build(live);
+    }
+}
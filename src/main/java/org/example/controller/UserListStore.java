@@ -0,0 +1,350 @@
+package org.example.controller;
+
+import com.opencsv.CSVWriter;
+import com.opencsv.ICSVParser;
+import com.opencsv.RFC4180ParserBuilder;
+import org.example.metrics.Metrics;
+import org.example.metrics.OperationMetrics;
+import org.example.metrics.UserFileEvent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * UserListStore keeps one list of strings per username (favorites or watch history) in a CSV file,
+ * one row per user: the username followed by the list entries.
+ *
+ * The file is append-only. Changing a user's list appends a new row for that user, and an in-memory index
+ * remembers the byte offset of each user's latest row. Reading or updating one user's list therefore touches
+ * only that user's row, no matter how many users the file holds. Superseded rows are dropped by a compaction
+ * that runs once they outnumber the live ones, which keeps the file size bounded at a constant cost per update.
+ *
+ * There is one store per file, shared by every UserManager in the application.
+ */
+class UserListStore {
+    private static final Map<String, UserListStore> OPEN_STORES = new ConcurrentHashMap<>();
+    private static final int MIN_DEAD_ROWS_TO_COMPACT = 64;
+    private static final OperationMetrics READ_METRICS = Metrics.operation("UserListStore.read"); // File scans and row reads
+    private static final OperationMetrics WRITE_METRICS = Metrics.operation("UserListStore.write"); // Appends and compactions
+
+    private final File file;
+    private final ICSVParser parser = new RFC4180ParserBuilder().build(); // Matches CSVWriter's doubled-quote escaping
+    private final Map<String, Long> offsets = new HashMap<>(); // Username to the offset of their latest row
+    private long indexedLength = -1; // File length the index describes; -1 until the file has been scanned
+    private boolean endsWithLineBreak = true;
+    private int deadRows;
+    private int generation; // Bumped whenever the index is rebuilt from the file
+
+    private UserListStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the shared store for a file.
+     *
+     * @param file the CSV file holding the lists
+     * @return the store
+     */
+    static UserListStore forFile(File file) {
+        return OPEN_STORES.computeIfAbsent(file.getAbsolutePath(), path -> new UserListStore(file));
+    }
+
+    /**
+     * Returns a number that changes whenever the file was re-read from scratch, for example because
+     * it was edited outside the application. Callers that cache lists can compare it to know when to drop them.
+     *
+     * @return the index generation
+     * @throws IOException if the file cannot be read
+     */
+    synchronized int getGeneration() throws IOException {
+        ensureIndexed();
+        return generation;
+    }
+
+    /**
+     * Checks whether a user has a row in the file.
+     *
+     * @param username the username
+     * @return true if the user has a list, even an empty one
+     * @throws IOException if the file cannot be read
+     */
+    synchronized boolean contains(String username) throws IOException {
+        ensureIndexed();
+        return offsets.containsKey(username);
+    }
+
+    /**
+     * Reads one user's list.
+     *
+     * @param username the username
+     * @return a modifiable copy of the list, empty if the user has none
+     * @throws IOException if the file cannot be read
+     */
+    synchronized List<String> get(String username) throws IOException {
+        ensureIndexed();
+        Long offset = offsets.get(username);
+        if (offset == null) {
+            return new ArrayList<>();
+        }
+        String[] row = readRow(offset);
+        return new ArrayList<>(Arrays.asList(row).subList(1, row.length));
+    }
+
+    /**
+     * Replaces one user's list by appending a new row for them.
+     *
+     * @param username the username
+     * @param items    the new list
+     * @throws IOException if the file cannot be written
+     */
+    synchronized void put(String username, List<String> items) throws IOException {
+        ensureIndexed();
+        String[] row = new String[items.size() + 1];
+        row[0] = username;
+        for (int i = 0; i < items.size(); i++) {
+            row[i + 1] = items.get(i);
+        }
+        byte[] line = toLine(row);
+
+        long offset = indexedLength;
+        long start = WRITE_METRICS.start();
+        UserFileEvent event = new UserFileEvent();
+        event.begin();
+        try (OutputStream out = new FileOutputStream(file, true)) {
+            if (!endsWithLineBreak) {
+                out.write('\n');
+                offset++;
+            }
+            out.write(line);
+        } catch (IOException e) {
+            WRITE_METRICS.error();
+            throw e;
+        } finally {
+            WRITE_METRICS.stop(start);
+        }
+        WRITE_METRICS.addBytesWritten(offset + line.length - indexedLength);
+        commit(event, UserFileEvent.APPEND_ROW, 1, offset + line.length - indexedLength);
+        indexedLength = offset + line.length;
+        endsWithLineBreak = true;
+        if (offsets.put(username, offset) != null) {
+            deadRows++;
+        }
+
+        if (deadRows >= MIN_DEAD_ROWS_TO_COMPACT && deadRows > offsets.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Builds the offset index on first use, and again if the file was changed by something other than this store.
+     */
+    private void ensureIndexed() throws IOException {
+        if (indexedLength >= 0 && file.length() == indexedLength) {
+            return;
+        }
+        offsets.clear();
+        deadRows = 0;
+        endsWithLineBreak = true;
+        indexedLength = 0;
+        generation++;
+        if (!file.exists()) {
+            return;
+        }
+
+        long start = READ_METRICS.start();
+        UserFileEvent event = new UserFileEvent();
+        event.begin();
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            long offset = 0;
+            long recordStart = 0;
+            boolean quoted = false;
+            int b;
+            while ((b = in.read()) >= 0) {
+                offset++;
+                if (b == '"') {
+                    quoted = !quoted;
+                }
+                if (b == '\n' && !quoted) {
+                    indexRecord(record, recordStart);
+                    record.reset();
+                    recordStart = offset;
+                } else {
+                    record.write(b);
+                }
+            }
+            indexRecord(record, recordStart);
+            endsWithLineBreak = offset == 0 || recordStart == offset;
+            indexedLength = offset;
+            READ_METRICS.addBytesRead(offset);
+            commit(event, UserFileEvent.SCAN, offsets.size() + deadRows, offset);
+        } catch (IOException e) {
+            READ_METRICS.error();
+            throw e;
+        } finally {
+            READ_METRICS.stop(start);
+        }
+    }
+
+    private void indexRecord(ByteArrayOutputStream record, long recordStart) throws IOException {
+        String line = record.toString(StandardCharsets.UTF_8).strip();
+        if (line.isEmpty()) {
+            return;
+        }
+        String[] row = parser.parseLine(line);
+        if (row.length > 0 && offsets.put(row[0], recordStart) != null) {
+            deadRows++;
+        }
+    }
+
+    /**
+     * Reads the row that starts at the given offset, stopping at the first line break outside quotes.
+     */
+    private String[] readRow(long offset) throws IOException {
+        long start = READ_METRICS.start();
+        UserFileEvent event = new UserFileEvent();
+        event.begin();
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            in.seek(offset);
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            boolean quoted = false;
+            int read;
+            outer:
+            while ((read = in.read(buffer)) > 0) {
+                READ_METRICS.addBytesRead(read);
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer[i];
+                    if (b == '"') {
+                        quoted = !quoted;
+                    } else if (b == '\n' && !quoted) {
+                        record.write(buffer, 0, i);
+                        break outer;
+                    }
+                }
+                record.write(buffer, 0, read);
+            }
+            commit(event, UserFileEvent.READ_ROW, 1, record.size());
+            return parser.parseLine(record.toString(StandardCharsets.UTF_8).strip());
+        } catch (IOException e) {
+            READ_METRICS.error();
+            throw e;
+        } finally {
+            READ_METRICS.stop(start);
+        }
+    }
+
+    /**
+     * Rewrites the file with only the latest row of each user, keeping their order.
+     * The live offsets are visited in file order, so the old file is read in one sequential pass
+     * and each live row is copied as it goes by.
+     */
+    private void compact() throws IOException {
+        List<Map.Entry<String, Long>> live = new ArrayList<>(offsets.entrySet());
+        live.sort(Map.Entry.comparingByValue());
+
+        File tempFile = new File(file.getPath() + ".tmp");
+        Map<String, Long> newOffsets = new HashMap<>();
+        long offset = 0;
+        long start = WRITE_METRICS.start();
+        UserFileEvent event = new UserFileEvent();
+        event.begin();
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file));
+             OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            int next = 0; // Index in live of the next row to copy
+            long position = 0;
+            long recordStart = 0;
+            boolean quoted = false;
+            int b;
+            while (next < live.size() && (b = in.read()) >= 0) {
+                position++;
+                if (b == '"') {
+                    quoted = !quoted;
+                }
+                if (b != '\n' || quoted) {
+                    if (recordStart == live.get(next).getValue()) {
+                        record.write(b);
+                    }
+                    continue;
+                }
+                if (recordStart == live.get(next).getValue()) {
+                    newOffsets.put(live.get(next++).getKey(), offset);
+                    offset += copyRow(record, out);
+                    record.reset();
+                }
+                recordStart = position;
+            }
+            if (next < live.size() && recordStart == live.get(next).getValue()) {
+                newOffsets.put(live.get(next).getKey(), offset); // The last row had no line break
+                offset += copyRow(record, out);
+            }
+        } catch (IOException e) {
+            WRITE_METRICS.error();
+            throw e;
+        } finally {
+            WRITE_METRICS.stop(start);
+        }
+        WRITE_METRICS.addBytesWritten(offset);
+        commit(event, UserFileEvent.REWRITE, live.size(), offset);
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        offsets.clear();
+        offsets.putAll(newOffsets);
+        indexedLength = offset;
+        endsWithLineBreak = true;
+        deadRows = 0;
+    }
+
+    /**
+     * Fills in and records a Flight Recorder event for a file access that just finished.
+     */
+    private void commit(UserFileEvent event, String operation, long rowCount, long bytes) {
+        if (event.shouldCommit()) {
+            event.file = file.getPath();
+            event.operation = operation;
+            event.rowCount = rowCount;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Writes one row's bytes followed by a line break and returns how many bytes that took.
+     */
+    private static int copyRow(ByteArrayOutputStream record, OutputStream out) throws IOException {
+        record.writeTo(out);
+        out.write('\n');
+        return record.size() + 1;
+    }
+
+    private static byte[] toLine(String[] row) throws IOException {
+        StringWriter line = new StringWriter();
+        try (CSVWriter writer = new CSVWriter(line)) {
+            writer.writeNext(row);
+        }
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -2,8 +2,11 @@ package org.example.controller;
 
 import com.opencsv.CSVReader;
 import com.opencsv.CSVWriter;
-import com.opencsv.exceptions.CsvException;
 import com.opencsv.exceptions.CsvValidationException;
+import org.example.metrics.Metrics;
+import org.example.metrics.OperationMetrics;
+import org.example.metrics.UserFileEvent;
+import org.example.model.Movie;
 import org.example.view.LoginGUI;
 
 import javax.swing.*;
@@ -15,6 +18,9 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
 
 /**
  * UserManager handles user authentication, registration, and storing user data in a CSV file.
@@ -24,12 +30,41 @@ public class UserManager {
     private static final String FAVORITES_CSV_FILE = "UserFavorites.csv";
     private static final String WATCH_HISTORY_CSV_FILE = "UserWatchHistory.csv";
 
+    private static final OperationMetrics AUTHENTICATE_METRICS = Metrics.operation("UserManager.authenticateUser");
+    private static final OperationMetrics ADD_FAVORITE_METRICS = Metrics.operation("UserManager.addFavorite");
+    private static final OperationMetrics REMOVE_FAVORITE_METRICS = Metrics.operation("UserManager.removeFavorite");
+    private static final OperationMetrics IS_FAVORITE_METRICS = Metrics.operation("UserManager.isFavorite");
+    private static final OperationMetrics GET_FAVORITES_METRICS = Metrics.operation("UserManager.getFavorites");
+    private static final OperationMetrics ADD_WATCHED_METRICS = Metrics.operation("UserManager.addWatched");
+    private static final OperationMetrics REMOVE_WATCHED_METRICS = Metrics.operation("UserManager.removeWatched");
+    private static final OperationMetrics GET_WATCH_HISTORY_METRICS = Metrics.operation("UserManager.getWatchHistory");
+
+    private final MovieManager movieManager; // Resolves the movie IDs in favorites and watch history to titles
+    private volatile Map<String, String> credentials; // Username to password, loaded from UserPass.csv on first use
+
+    /**
+     * Creates a UserManager that cannot show titles for favorites and watch history,
+     * which then appear by movie ID.
+     */
+    public UserManager() {
+        this(null);
+    }
+
+    /**
+     * Creates a UserManager that looks up movie titles in the given catalogue.
+     *
+     * @param movieManager the catalogue that favorites and watch history refer to
+     */
+    public UserManager(MovieManager movieManager) {
+        this.movieManager = movieManager;
+    }
+
     /**
      * Gets the file path for the UserPass.csv file from resources or file system.
      *
      * @return the file object representing the UserPass.csv file
      */
-    private File getUserFilePath() {
+    protected File getUserFilePath() {
         // Get the file path from resources
         URL getPathURL = getClass().getClassLoader().getResource(USER_CSV_FILE);
 
@@ -89,6 +124,49 @@ public class UserManager {
             throw new RuntimeException(e); // Handle URI syntax exception
         }
     }
+    /**
+     * Returns the in-memory credentials table, loading UserPass.csv the first time it is needed.
+     * After that, logins and username checks never read the file again; new accounts are added
+     * to the table as they are appended to the file.
+     *
+     * @return a map from username to password
+     */
+    private Map<String, String> getCredentials() {
+        Map<String, String> table = credentials;
+        if (table != null) {
+            return table;
+        }
+        synchronized (this) {
+            if (credentials == null) {
+                Map<String, String> loaded = new ConcurrentHashMap<>();
+                File file = getUserFilePath();
+                UserFileEvent event = new UserFileEvent();
+                event.begin();
+                if (file.exists()) {
+                    try (CSVReader reader = new CSVReader(new FileReader(file))) {
+                        String[] row;
+                        while ((row = reader.readNext()) != null) {
+                            if (row.length == 2) {
+                                loaded.putIfAbsent(row[0], row[1]); // The first row for a username wins, as before
+                            }
+                        }
+                        AUTHENTICATE_METRICS.addBytesRead(file.length()); // The one read behind every later login
+                        event.file = file.getPath();
+                        event.operation = UserFileEvent.SCAN;
+                        event.rowCount = loaded.size();
+                        event.bytes = file.length();
+                        event.commit();
+                    } catch (IOException | CsvValidationException e) {
+                        AUTHENTICATE_METRICS.error();
+                        e.printStackTrace();
+                    }
+                }
+                credentials = loaded;
+            }
+            return credentials;
+        }
+    }
+
     /**
      * Authenticates a user based on the provided username and password.
      *
@@ -97,18 +175,15 @@ public class UserManager {
      * @return true if the user is authenticated, false otherwise
      */
     public boolean authenticateUser(String username, String password) {
-        File file = getUserFilePath();
-        try (CSVReader reader = new CSVReader(new FileReader(file))) {
-            String[] credentials;
-            while ((credentials = reader.readNext()) != null) {
-                if (credentials.length == 2 && credentials[0].equals(username) && credentials[1].equals(password)) {
-                    return true; // Authentication successful
-                }
+        long start = AUTHENTICATE_METRICS.start();
+        try {
+            if (username == null || password == null) {
+                return false;
             }
-        } catch (IOException | CsvValidationException e) {
-            e.printStackTrace();
+            return password.equals(getCredentials().get(username));
+        } finally {
+            AUTHENTICATE_METRICS.stop(start);
         }
-        return false;
     }
 
     /**
@@ -118,18 +193,7 @@ public class UserManager {
      * @return true if the username is taken, false otherwise
      */
     public boolean isUsernameTaken(String username) {
-        File file = getUserFilePath();
-        try (CSVReader reader = new CSVReader(new FileReader(file))) {
-            String[] credentials;
-            while ((credentials = reader.readNext()) != null) {
-                if (credentials.length == 2 && credentials[0].equals(username)) {
-                    return true; // Username is taken
-                }
-            }
-        } catch (IOException | CsvValidationException e) {
-            e.printStackTrace();
-        }
-        return false;
+        return username != null && getCredentials().containsKey(username);
     }
     /**
      * Saves a new user's credentials (username and password) to the CSV file.
@@ -138,7 +202,7 @@ public class UserManager {
      * @param username the username to save
      * @param password the password to save
      */
-    public void saveUserCredentials(String username, String password) {
+    public synchronized void saveUserCredentials(String username, String password) {
         File userFile = getUserFilePath();
         if (userFile == null) return;
 
@@ -167,289 +231,328 @@ public class UserManager {
 
         } catch (IOException e) {
             e.printStackTrace();
+            return;
         }
+
+        // Keep the in-memory table in step with the file
+        getCredentials().putIfAbsent(username.trim(), password.trim());
     }
 
     /**
-     * Adds a movie to the user's favorites list and updates the CSV file.
+     * Adds a movie to the current user's favorites list and shows the outcome in a dialog.
+     * Only the current user's row is read and a new row for them is appended.
      *
-     * @param movieTitle the title of the movie to add
+     * @param movieId the ID of the movie to add
      */
-    public void addToFavorites(String movieTitle) {
+    public void addToFavorites(int movieId) {
         String username = LoginGUI.getCurrentUsername(); // Get the current logged-in user's username
-        File file = getFavoritesFilePath();
-
-        try (CSVReader reader = new CSVReader(new FileReader(file))) {
-            List<String[]> allUsers = reader.readAll();
-            boolean userFound = false;
-
-            // Iterate through all users to find the current user
-            for (int i = 0; i < allUsers.size(); i++) {
-                String[] userRow = allUsers.get(i);
-                if (userRow[0].equals(username)) {
-                    // User found, update their favorites
-                    List<String> favorites = new ArrayList<>();
-                    favorites.add(userRow[0]); // First element is the username
-
-                    // Add the current favorites (if any) from the row (ignoring the username column)
-                    for (int j = 1; j < userRow.length; j++) {
-                        favorites.add(userRow[j]);
-                    }
-
-                    // Check if the movie is already in the favorites
-                    if (favorites.contains(movieTitle)) {
-                        // Show a message that the movie is already in favorites
-                        JOptionPane.showMessageDialog(null, "This movie is already in your favorites!");
-                        return; // Exit the method
-                    } else {
-                        favorites.add(movieTitle); // Add the movie to the list
-                    }
 
-                    // Update the user's row in the allUsers list
-                    allUsers.set(i, favorites.toArray(new String[0]));
-                    userFound = true;
-                    break;
-                }
-            }
+        // Check if the movie is already in the favorites
+        if (!addFavorite(username, movieId)) {
+            // Show a message that the movie is already in favorites
+            JOptionPane.showMessageDialog(null, "This movie is already in your favorites!");
+            return; // Exit the method
+        }
 
-            // If the user was not found, create a new row for them
-            if (!userFound) {
-                List<String> favorites = new ArrayList<>();
-                favorites.add(username); // Add the username
-                favorites.add(movieTitle); // Add the movie title
-                allUsers.add(favorites.toArray(new String[0]));
-            }
+        // Show a message dialog after successfully adding the movie
+        JOptionPane.showMessageDialog(null, "Movie added to your favorites!");
+    }
 
-            // Write the updated list of all users back to the CSV file
-            try (CSVWriter writer = new CSVWriter(new FileWriter(file))) {
-                writer.writeAll(allUsers); // Write all rows back to the CSV
-            } catch (IOException e) {
-                e.printStackTrace(); // Log the exception
-            }
+    /**
+     * Adds a movie to the current user's favorites list, looking the movie up by title.
+     *
+     * @param movieTitle the title of the movie to add
+     */
+    public void addToFavorites(String movieTitle) {
+        int movieId = resolveTitle(movieTitle);
+        if (movieId == UserMovieLists.UNKNOWN_MOVIE) {
+            JOptionPane.showMessageDialog(null, "Movie not found.");
+            return;
+        }
+        addToFavorites(movieId);
+    }
 
-            // Show a message dialog after successfully adding the movie
-            JOptionPane.showMessageDialog(null, "Movie added to your favorites!");
+    /**
+     * Adds a movie to a user's favorites list without any dialogs.
+     *
+     * @param username the username of the user
+     * @param movieId  the ID of the movie to add
+     * @return true if the movie was added, false if it was already a favorite or could not be saved
+     */
+    public boolean addFavorite(String username, int movieId) {
+        long start = ADD_FAVORITE_METRICS.start();
+        try {
+            return getFavoriteLists().add(username, movieId, titleResolver());
+        } catch (IOException e) {
+            ADD_FAVORITE_METRICS.error();
+            e.printStackTrace(); // Log the exception
+        } finally {
+            ADD_FAVORITE_METRICS.stop(start);
+        }
+        return false;
+    }
 
-        } catch (IOException | CsvException e) {
+    /**
+     * Removes a movie from a user's favorites list without any dialogs.
+     *
+     * @param username the username of the user
+     * @param movieId  the ID of the movie to remove
+     * @return true if the movie was a favorite and has been removed
+     */
+    public boolean removeFavorite(String username, int movieId) {
+        long start = REMOVE_FAVORITE_METRICS.start();
+        try {
+            return getFavoriteLists().remove(username, movieId, titleResolver());
+        } catch (IOException e) {
+            REMOVE_FAVORITE_METRICS.error();
             e.printStackTrace(); // Log the exception
+        } finally {
+            REMOVE_FAVORITE_METRICS.stop(start);
         }
+        return false;
     }
 
     /**
-     * Retrieves the list of favorite movies for a user.
+     * Checks whether a movie is on a user's favorites list.
      *
      * @param username the username of the user
-     * @return a list of movie titles
+     * @param movieId  the ID of the movie
+     * @return true if the movie is a favorite
      */
-    public List<String> getFavoriteMovies(String username) {
-        File file = getFavoritesFilePath();
-        List<String> favorites = new ArrayList<>();
-        try (CSVReader reader = new CSVReader(new FileReader(file))) {
-            String[] row;
-            while ((row = reader.readNext()) != null) {
-                if (row[0].equals(username)) {
-                    for (int i = 1; i < row.length; i++) {
-                        favorites.add(row[i]); // Add movie titles to favorites list
-                    }
-                    return favorites;
-                }
-            }
-        } catch (IOException | CsvValidationException e) {
+    public boolean isFavorite(String username, int movieId) {
+        long start = IS_FAVORITE_METRICS.start();
+        try {
+            return getFavoriteLists().contains(username, movieId, titleResolver());
+        } catch (IOException e) {
+            IS_FAVORITE_METRICS.error();
             e.printStackTrace();
+        } finally {
+            IS_FAVORITE_METRICS.stop(start);
         }
-        return favorites; // Return empty list if no favorites found
+        return false;
     }
 
     /**
-     * Adds a movie to the user's watch history and updates the CSV file.
+     * Retrieves the IDs of a user's favorite movies, in the order they were added.
      *
-     * @param movieTitle the title of the movie to add to the watch history
+     * @param username the username of the user
+     * @return the movie IDs, empty if the user has no favorites
      */
-    public void addToWatchHistory(String movieTitle) {
-        // Get the current logged-in username
-        String username = LoginGUI.getCurrentUsername();
-
-        // Get the file path for storing watch history
-        File file = getWatchHistoryFilePath();
-
-        try (CSVReader reader = new CSVReader(new FileReader(file))) {
-            List<String[]> allUsers = reader.readAll();
-            boolean userFound = false;
-
-            // Iterate over each user row to find the current user
-            for (int i = 0; i < allUsers.size(); i++) {
-                String[] userRow = allUsers.get(i);
-                if (userRow[0].equals(username)) {
-                    List<String> history = new ArrayList<>();
-                    history.add(userRow[0]); // Add the username
+    public int[] getFavoriteMovieIds(String username) {
+        long start = GET_FAVORITES_METRICS.start();
+        try {
+            return getFavoriteLists().get(username, titleResolver());
+        } catch (IOException e) {
+            GET_FAVORITES_METRICS.error();
+            e.printStackTrace();
+        } finally {
+            GET_FAVORITES_METRICS.stop(start);
+        }
+        return new int[0]; // Return empty list if no favorites found
+    }
 
-                    // Add existing watch history entries (ignoring the username column)
-                    for (int j = 1; j < userRow.length; j++) {
-                        history.add(userRow[j]);
-                    }
+    /**
+     * Retrieves the titles of a user's favorite movies for display.
+     *
+     * @param username the username of the user
+     * @return a list of movie titles
+     */
+    public List<String> getFavoriteMovies(String username) {
+        return toTitles(getFavoriteMovieIds(username));
+    }
 
-                    // Check if the movie is already in the watch history
-                    if (history.contains(movieTitle)) {
-                        // Show a message that the movie is already in the watch history
-                        JOptionPane.showMessageDialog(null, "This movie is already in your watch history!");
-                        return; // Exit the method to prevent adding a duplicate
-                    } else {
-                        // Add the new movie title to the history if it's not already there
-                        history.add(movieTitle);
-                    }
+    /**
+     * Adds a movie to the current user's watch history and shows the outcome in a dialog.
+     * Only the current user's row is read and a new row for them is appended.
+     *
+     * @param movieId the ID of the movie to add to the watch history
+     */
+    public void addToWatchHistory(int movieId) {
+        // Get the current logged-in username
+        String username = LoginGUI.getCurrentUsername();
 
-                    // Update the user's row in the allUsers list
-                    allUsers.set(i, history.toArray(new String[0]));
-                    userFound = true;
-                    break;
-                }
-            }
+        // Check if the movie is already in the watch history
+        if (!addWatched(username, movieId)) {
+            // Show a message that the movie is already in the watch history
+            JOptionPane.showMessageDialog(null, "This movie is already in your watch history!");
+            return; // Exit the method to prevent adding a duplicate
+        }
 
-            // If the user does not have an existing history, create a new entry
-            if (!userFound) {
-                List<String> history = new ArrayList<>();
-                history.add(username); // Add the username
-                history.add(movieTitle); // Add the movie title
-                allUsers.add(history.toArray(new String[0]));
-            }
+        // Show a message dialog after successfully adding the movie to the watch history
+        JOptionPane.showMessageDialog(null, "Movie added to your watch history!");
+    }
 
-            // Write the updated history to the CSV file
-            try (CSVWriter writer = new CSVWriter(new FileWriter(file))) {
-                writer.writeAll(allUsers); // Write all rows back to the CSV
-            }
+    /**
+     * Adds a movie to the current user's watch history, looking the movie up by title.
+     *
+     * @param movieTitle the title of the movie to add to the watch history
+     */
+    public void addToWatchHistory(String movieTitle) {
+        int movieId = resolveTitle(movieTitle);
+        if (movieId == UserMovieLists.UNKNOWN_MOVIE) {
+            JOptionPane.showMessageDialog(null, "Movie not found.");
+            return;
+        }
+        addToWatchHistory(movieId);
+    }
 
-            // Show a message dialog after successfully adding the movie to the watch history
-            JOptionPane.showMessageDialog(null, "Movie added to your watch history!");
+    /**
+     * Adds a movie to a user's watch history without any dialogs.
+     *
+     * @param username the username of the user
+     * @param movieId  the ID of the movie to add
+     * @return true if the movie was added, false if it was already in the history or could not be saved
+     */
+    public boolean addWatched(String username, int movieId) {
+        long start = ADD_WATCHED_METRICS.start();
+        try {
+            return getWatchHistoryLists().add(username, movieId, titleResolver());
+        } catch (IOException e) {
+            ADD_WATCHED_METRICS.error();
+            e.printStackTrace(); // Log any exceptions
+        } finally {
+            ADD_WATCHED_METRICS.stop(start);
+        }
+        return false;
+    }
 
-        } catch (IOException | CsvException e) {
+    /**
+     * Removes a movie from a user's watch history without any dialogs.
+     *
+     * @param username the username of the user
+     * @param movieId  the ID of the movie to remove
+     * @return true if the movie was in the history and has been removed
+     */
+    public boolean removeWatched(String username, int movieId) {
+        long start = REMOVE_WATCHED_METRICS.start();
+        try {
+            return getWatchHistoryLists().remove(username, movieId, titleResolver());
+        } catch (IOException e) {
+            REMOVE_WATCHED_METRICS.error();
             e.printStackTrace(); // Log any exceptions
+        } finally {
+            REMOVE_WATCHED_METRICS.stop(start);
         }
+        return false;
     }
 
     /**
-     * Retrieves the watch history for a user.
+     * Retrieves the IDs of the movies in a user's watch history, in the order they were watched.
      *
      * @param username the username of the user
-     * @return a list of movie titles representing the user's watch history
+     * @return the movie IDs, empty if the user has no watch history
      */
-    public List<String> getWatchHistory(String username) {
-        File file = getWatchHistoryFilePath();
-        List<String> history = new ArrayList<>();
-        try (CSVReader reader = new CSVReader(new FileReader(file))) {
-            String[] row;
-            while ((row = reader.readNext()) != null) {
-                if (row[0].equals(username)) {
-                    for (int i = 1; i < row.length; i++) {
-                        history.add(row[i]); // Add movie titles to watch history list
-                    }
-                    return history;
-                }
-            }
-        } catch (IOException | CsvValidationException e) {
+    public int[] getWatchHistoryIds(String username) {
+        long start = GET_WATCH_HISTORY_METRICS.start();
+        try {
+            return getWatchHistoryLists().get(username, titleResolver());
+        } catch (IOException e) {
+            GET_WATCH_HISTORY_METRICS.error();
             e.printStackTrace();
+        } finally {
+            GET_WATCH_HISTORY_METRICS.stop(start);
         }
-        return history; // Return empty list if no watch history found
+        return new int[0]; // Return empty list if no watch history found
     }
 
     /**
-     * Removes a movie from the user's favorites list and updates the CSV file.
+     * Retrieves the titles in a user's watch history for display.
+     *
+     * @param username the username of the user
+     * @return a list of movie titles representing the user's watch history
+     */
+    public List<String> getWatchHistory(String username) {
+        return toTitles(getWatchHistoryIds(username));
+    }
+
+    /**
+     * Removes a movie from the current user's favorites list and updates the CSV file.
+     *
+     * @param movieId the ID of the movie to remove
+     */
+    public void removeFromFavorites(int movieId) {
+        String username = LoginGUI.getCurrentUsername(); // Get the current logged-in user's username
+        removeFromList(getFavoriteLists(), username, movieId);
+    }
+
+    /**
+     * Removes a movie from the current user's favorites list, looking the movie up by title.
      *
      * @param movieTitle the title of the movie to remove
      */
     public void removeFromFavorites(String movieTitle) {
         String username = LoginGUI.getCurrentUsername(); // Get the current logged-in user's username
-        File file = getFavoritesFilePath();
-
-        try (CSVReader reader = new CSVReader(new FileReader(file))) {
-            List<String[]> allUsers = reader.readAll();
-            boolean userFound = false;
-
-            // Iterate through all users to find the current user
-            for (int i = 0; i < allUsers.size(); i++) {
-                String[] userRow = allUsers.get(i);
-                if (userRow[0].equals(username)) {
-                    List<String> favorites = new ArrayList<>();
-                    favorites.add(userRow[0]); // First element is the username
-
-                    // Add the current favorites (if any) from the row (ignoring the username column)
-                    for (int j = 1; j < userRow.length; j++) {
-                        favorites.add(userRow[j]);
-                    }
-
-                    // Remove the movie from favorites
-                    favorites.remove(movieTitle);
-
-                    // Update the user's row in the allUsers list
-                    allUsers.set(i, favorites.toArray(new String[0]));
-                    userFound = true;
-                    break;
-                }
-            }
-
-            // If the user was not found, do nothing
-            if (!userFound) {
-                JOptionPane.showMessageDialog(null, "User not found.");
-                return;
-            }
-
-            // Write the updated list of all users back to the CSV file
-            try (CSVWriter writer = new CSVWriter(new FileWriter(file))) {
-                writer.writeAll(allUsers); // Write all rows back to the CSV
-            }
+        removeFromList(getFavoriteLists(), username, resolveTitle(movieTitle));
+    }
 
-        } catch (IOException | CsvException e) {
-            e.printStackTrace(); // Log any exceptions
-        }
+    /**
+     * Removes a movie from the current user's watch history and updates the CSV file.
+     *
+     * @param movieId the ID of the movie to remove
+     */
+    public void removeFromWatchHistory(int movieId) {
+        String username = LoginGUI.getCurrentUsername(); // Get the current logged-in user's username
+        removeFromList(getWatchHistoryLists(), username, movieId);
     }
 
     /**
-     * Removes a movie from the user's watch history and updates the CSV file.
+     * Removes a movie from the current user's watch history, looking the movie up by title.
      *
      * @param movieTitle the title of the movie to remove
      */
     public void removeFromWatchHistory(String movieTitle) {
         String username = LoginGUI.getCurrentUsername(); // Get the current logged-in user's username
-        File file = getWatchHistoryFilePath(); // Get the file path for the watch history CSV
-
-        try (CSVReader reader = new CSVReader(new FileReader(file))) {
-            List<String[]> allUsers = reader.readAll(); // Read all user data from the CSV file
-            boolean userFound = false;
-
-            // Iterate through all users to find the current user
-            for (int i = 0; i < allUsers.size(); i++) {
-                String[] userRow = allUsers.get(i);
-                if (userRow[0].equals(username)) {
-                    List<String> watchHistory = new ArrayList<>();
-                    watchHistory.add(userRow[0]); // First element is the username
-
-                    // Add the current watch history (if any) from the row (ignoring the username column)
-                    for (int j = 1; j < userRow.length; j++) {
-                        watchHistory.add(userRow[j]);
-                    }
-
-                    // Remove the movie from the watch history
-                    watchHistory.remove(movieTitle);
-
-                    // Update the user's row in the allUsers list
-                    allUsers.set(i, watchHistory.toArray(new String[0]));
-                    userFound = true;
-                    break;
-                }
-            }
+        removeFromList(getWatchHistoryLists(), username, resolveTitle(movieTitle));
+    }
 
+    /**
+     * Removes a movie from one user's list, touching only that user's row.
+     */
+    private void removeFromList(UserMovieLists lists, String username, int movieId) {
+        try {
             // If the user was not found, do nothing
-            if (!userFound) {
+            if (!lists.hasUser(username)) {
                 JOptionPane.showMessageDialog(null, "User not found.");
                 return;
             }
+            lists.remove(username, movieId, titleResolver());
+        } catch (IOException e) {
+            e.printStackTrace(); // Log any exceptions
+        }
+    }
 
-            // Write the updated list of all users back to the CSV file
-            try (CSVWriter writer = new CSVWriter(new FileWriter(file))) {
-                writer.writeAll(allUsers); // Write all rows back to the CSV
-            }
+    private UserMovieLists getFavoriteLists() {
+        return UserMovieLists.forFile(getFavoritesFilePath());
+    }
 
-        } catch (IOException | CsvException e) {
-            e.printStackTrace(); // Log any exceptions
+    private UserMovieLists getWatchHistoryLists() {
+        return UserMovieLists.forFile(getWatchHistoryFilePath());
+    }
+
+    /**
+     * Returns the resolver for list rows written before lists held IDs, or null without a catalogue to look titles up in.
+     */
+    private ToIntFunction<String> titleResolver() {
+        return movieManager == null ? null : this::resolveTitle;
+    }
+
+    /**
+     * Looks up a movie ID by title. Used for the title-based methods and for list rows written before lists held IDs.
+     */
+    private int resolveTitle(String movieTitle) {
+        Movie movie = movieManager == null ? null : movieManager.getMovieByTitle(movieTitle);
+        return movie == null ? UserMovieLists.UNKNOWN_MOVIE : movie.getMovieId();
+    }
+
+    /**
+     * Turns movie IDs into titles for display. Movies that are no longer in the catalogue are shown by ID.
+     */
+    private List<String> toTitles(int[] movieIds) {
+        List<String> titles = new ArrayList<>(movieIds.length);
+        for (int movieId : movieIds) {
+            Movie movie = movieManager == null ? null : movieManager.getMovieById(movieId);
+            titles.add(movie == null ? "#" + movieId : movie.getTitle());
         }
+        return titles;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,247 @@
+package org.example.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * UserMovieLists holds one list of movie IDs per user (favorites or watch history) on top of a UserListStore.
+ *
+ * Each user's list is kept in memory as an IntOrderedSet once it has been read, so checking for a duplicate is a
+ * hash lookup on an int rather than a scan of title strings. The file stores each ID tagged as "#" and the decimal
+ * number, so a title made of digits, such as "1917", is never taken for an ID.
+ * Rows written before lists were ID-based hold untagged titles instead. Those are resolved to IDs when the row is
+ * read, and the row is written back with IDs on its next change, but only if every title resolved: an entry that
+ * no movie matches, or that could not be looked up because there was no title resolver, is kept as it was written.
+ *
+ * There is one instance per file, shared by every UserManager in the application.
+ */
+class UserMovieLists {
+    static final int UNKNOWN_MOVIE = -1; // Returned by a title resolver that finds no movie
+    private static final char ID_TAG = '#'; // Starts every entry that is a movie ID
+
+    private static final Map<String, UserMovieLists> OPEN_LISTS = new ConcurrentHashMap<>();
+
+    private final UserListStore store;
+    private final Map<String, UserList> cache = new HashMap<>(); // Username to their list, filled on first read
+    private int cachedGeneration; // Store generation the cache was filled from
+
+    private UserMovieLists(UserListStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Returns the shared lists for a file.
+     *
+     * @param file the CSV file holding the lists
+     * @return the lists
+     */
+    static UserMovieLists forFile(File file) {
+        return OPEN_LISTS.computeIfAbsent(file.getAbsolutePath(), path -> new UserMovieLists(UserListStore.forFile(file)));
+    }
+
+    /**
+     * Checks whether a user has a list in the file.
+     *
+     * @param username the username
+     * @return true if the user has a list, even an empty one
+     * @throws IOException if the file cannot be read
+     */
+    synchronized boolean hasUser(String username) throws IOException {
+        return store.contains(username);
+    }
+
+    /**
+     * Checks whether a movie is on a user's list.
+     *
+     * @param username      the username
+     * @param movieId       the movie ID
+     * @param titleResolver turns titles from older rows into movie IDs, or null if titles cannot be looked up
+     * @return true if the movie is on the list
+     * @throws IOException if the file cannot be read
+     */
+    synchronized boolean contains(String username, int movieId, ToIntFunction<String> titleResolver) throws IOException {
+        return load(username, titleResolver).ids.contains(movieId);
+    }
+
+    /**
+     * Returns a user's list in the order the movies were added.
+     *
+     * @param username      the username
+     * @param titleResolver turns titles from older rows into movie IDs, or null if titles cannot be looked up
+     * @return the movie IDs, empty if the user has no list
+     * @throws IOException if the file cannot be read
+     */
+    synchronized int[] get(String username, ToIntFunction<String> titleResolver) throws IOException {
+        return load(username, titleResolver).ids.toArray();
+    }
+
+    /**
+     * Adds a movie to the end of a user's list.
+     *
+     * @param username      the username
+     * @param movieId       the movie ID
+     * @param titleResolver turns titles from older rows into movie IDs, or null if titles cannot be looked up
+     * @return true if the movie was added, false if it was already on the list
+     * @throws IOException if the file cannot be written
+     */
+    synchronized boolean add(String username, int movieId, ToIntFunction<String> titleResolver) throws IOException {
+        UserList list = load(username, titleResolver);
+        if (!list.add(movieId)) {
+            return false;
+        }
+        save(username, list);
+        return true;
+    }
+
+    /**
+     * Removes a movie from a user's list.
+     *
+     * @param username      the username
+     * @param movieId       the movie ID
+     * @param titleResolver turns titles from older rows into movie IDs, or null if titles cannot be looked up
+     * @return true if the movie was on the list
+     * @throws IOException if the file cannot be written
+     */
+    synchronized boolean remove(String username, int movieId, ToIntFunction<String> titleResolver) throws IOException {
+        UserList list = load(username, titleResolver);
+        if (!list.remove(movieId)) {
+            return false;
+        }
+        save(username, list);
+        return true;
+    }
+
+    /**
+     * Returns a user's cached list, reading their row if it is not cached yet.
+     * The whole cache is dropped if the store had to re-read the file, since the file was then changed elsewhere.
+     * Titles that were read without a resolver are looked up again once a caller passes one.
+     */
+    private UserList load(String username, ToIntFunction<String> titleResolver) throws IOException {
+        int generation = store.getGeneration();
+        if (generation != cachedGeneration) {
+            cache.clear();
+            cachedGeneration = generation;
+        }
+        UserList list = cache.get(username);
+        if (list == null) {
+            list = new UserList(store.get(username));
+            list.resolve(titleResolver);
+            cache.put(username, list);
+        } else if (list.entries != null && !list.resolverTried && titleResolver != null) {
+            list.resolve(titleResolver);
+        }
+        return list;
+    }
+
+    private void save(String username, UserList list) throws IOException {
+        List<String> entries = list.entries;
+        if (entries == null) {
+            entries = new ArrayList<>(list.ids.size());
+            for (int i = 0; i < list.ids.size(); i++) {
+                entries.add(ID_TAG + String.valueOf(list.ids.get(i)));
+            }
+        }
+        store.put(username, entries);
+        cachedGeneration = store.getGeneration(); // Our own append does not invalidate the cache
+    }
+
+    /**
+     * Parses an entry written as a movie ID.
+     *
+     * @return the ID, or UNKNOWN_MOVIE if the entry is not the ID tag followed by a plain non-negative number
+     */
+    private static int parseMovieId(String entry) {
+        if (entry.length() < 2 || entry.length() > 10 || entry.charAt(0) != ID_TAG) {
+            return UNKNOWN_MOVIE;
+        }
+        int value = 0;
+        for (int i = 1; i < entry.length(); i++) {
+            char c = entry.charAt(i);
+            if (c < '0' || c > '9') {
+                return UNKNOWN_MOVIE;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * One user's list. While the row still has titles, it also keeps every entry as written, together with the
+     * movie each one resolved to, so that the row can be written back without losing the titles no movie matched.
+     */
+    private static final class UserList {
+        IntOrderedSet ids = new IntOrderedSet(); // The movies on the list, in order
+        List<String> entries; // The row as written, or null once it holds nothing but movie IDs
+        int[] entryIds; // Movie of each entry, UNKNOWN_MOVIE for an unresolved title
+        boolean resolverTried; // Whether the titles have been through a resolver
+
+        UserList(List<String> written) {
+            entries = new ArrayList<>(written);
+            entryIds = new int[Math.max(8, written.size())];
+        }
+
+        /**
+         * Turns the entries into movie IDs. The row stops keeping its entries once every one is a movie.
+         */
+        void resolve(ToIntFunction<String> titleResolver) {
+            ids = new IntOrderedSet();
+            boolean complete = true;
+            for (int i = 0; i < entries.size(); i++) {
+                String entry = entries.get(i);
+                int movieId = parseMovieId(entry);
+                if (movieId == UNKNOWN_MOVIE && titleResolver != null) {
+                    movieId = titleResolver.applyAsInt(entry); // A title from before lists were ID-based
+                }
+                entryIds[i] = movieId;
+                if (movieId == UNKNOWN_MOVIE) {
+                    complete = false;
+                } else {
+                    ids.add(movieId);
+                }
+            }
+            resolverTried = titleResolver != null;
+            if (complete) {
+                entries = null;
+                entryIds = null;
+            }
+        }
+
+        boolean add(int movieId) {
+            if (!ids.add(movieId)) {
+                return false;
+            }
+            if (entries != null) {
+                if (entries.size() == entryIds.length) {
+                    entryIds = Arrays.copyOf(entryIds, entryIds.length * 2);
+                }
+                entryIds[entries.size()] = movieId;
+                entries.add(ID_TAG + String.valueOf(movieId));
+            }
+            return true;
+        }
+
+        boolean remove(int movieId) {
+            if (!ids.remove(movieId)) {
+                return false;
+            }
+            if (entries != null) {
+                int kept = 0;
+                for (int i = 0; i < entries.size(); i++) {
+                    if (entryIds[i] != movieId) {
+                        entries.set(kept, entries.get(i));
+                        entryIds[kept++] = entryIds[i];
+                    }
+                }
+                entries.subList(kept, entries.size()).clear();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one load of movies.csv, including the replay of its change log.
+ */
+@Name("org.example.CatalogueLoad")
+@Label("Catalogue Load")
+@Category({"Movie Mania", "Catalogue"})
+@Description("Reading movies.csv and its change log into memory")
+public class CatalogueLoadEvent extends jdk.jfr.Event {
+    @Label("File")
+    public String file;
+
+    @Label("Rows")
+    public long rowCount;
+
+    @Label("Skipped Rows")
+    @Description("Rows that could not be parsed")
+    public long skippedRowCount;
+
+    @Label("File Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Parallel")
+    public boolean parallel;
+}
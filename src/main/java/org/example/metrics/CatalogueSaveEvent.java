@@ -0,0 +1,30 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one full rewrite of movies.csv, whether by saveMovies or by a background compaction.
+ */
+@Name("org.example.CatalogueSave")
+@Label("Catalogue Save")
+@Category({"Movie Mania", "Catalogue"})
+@Description("Rewriting movies.csv from the in-memory catalogue")
+public class CatalogueSaveEvent extends jdk.jfr.Event {
+    @Label("File")
+    public String file;
+
+    @Label("Rows")
+    public long rowCount;
+
+    @Label("File Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Background")
+    @Description("Whether this was a change-log compaction rather than an explicit save")
+    public boolean background;
+}
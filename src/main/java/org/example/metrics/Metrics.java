@@ -0,0 +1,56 @@
+package org.example.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metrics holds the OperationMetrics of every instrumented operation in the application and registers each of them
+ * with the platform MBean server as org.example:type=Operation,name=&lt;operation&gt;, where any JMX tool can read them.
+ */
+public final class Metrics {
+    public static final String DOMAIN = "org.example";
+
+    private static final Map<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the metrics of an operation, creating and registering them on first use.
+     *
+     * @param name the operation name, such as "MovieManager.readMovies"
+     * @return the shared metrics for that name
+     */
+    public static OperationMetrics operation(String name) {
+        return OPERATIONS.computeIfAbsent(name, Metrics::register);
+    }
+
+    /**
+     * Returns the metrics of every operation used so far.
+     *
+     * @return a snapshot of the metrics
+     */
+    public static List<OperationMetrics> getOperations() {
+        return new ArrayList<>(OPERATIONS.values());
+    }
+
+    private static OperationMetrics register(String name) {
+        OperationMetrics metrics = new OperationMetrics(name);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=Operation,name=" + name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(metrics, objectName);
+            }
+        } catch (JMException | RuntimeException e) {
+            e.printStackTrace(); // The numbers are still kept; they just cannot be seen over JMX
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one pass of updating the titles screen: searching the catalogue for the current filters.
+ */
+@Name("org.example.MovieSearch")
+@Label("Movie List Update")
+@Category({"Movie Mania", "View"})
+@Description("Filtering the catalogue for the titles screen")
+public class MovieSearchEvent extends jdk.jfr.Event {
+    @Label("Title Text")
+    public String titleText;
+
+    @Label("Genre")
+    public String genre;
+
+    @Label("Keywords")
+    public String keywords;
+
+    @Label("Actor")
+    public String actor;
+
+    @Label("Sort Order")
+    public String sortOrder;
+
+    @Label("Year")
+    public int year;
+
+    @Label("Minimum Rating")
+    public double minRating;
+
+    @Label("Catalogue Size")
+    public int catalogueSize;
+
+    @Label("Results")
+    public int resultCount;
+
+    @Label("Cancelled")
+    @Description("Whether a newer search replaced this one before it finished")
+    public boolean cancelled;
+}
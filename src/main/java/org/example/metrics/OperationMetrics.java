@@ -0,0 +1,171 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OperationMetrics keeps the numbers for one instrumented operation: how often it ran, how often it failed,
+ * how long it took and how many bytes it read and wrote. Instances come from Metrics.operation and are
+ * registered as MBeans.
+ *
+ * A call is timed like this:
+ * <pre>
+ * long start = metrics.start();
+ * try {
+ *     ...
+ * } catch (IOException e) {
+ *     metrics.error();
+ * } finally {
+ *     metrics.stop(start);
+ * }
+ * </pre>
+ */
+public class OperationMetrics implements OperationMetricsMBean {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String name;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the operation name, such as "MovieManager.readMovies".
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the time to pass to stop once the operation is done.
+     *
+     * @return the current System.nanoTime
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records one call that began at the given time.
+     *
+     * @param start the value returned by start
+     */
+    public void stop(long start) {
+        long nanos = System.nanoTime() - start;
+        calls.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        latencies.record(nanos);
+    }
+
+    /**
+     * Counts a failed call. The call still has to be stopped.
+     */
+    public void error() {
+        errors.increment();
+    }
+
+    /**
+     * Adds to the bytes the operation read.
+     *
+     * @param bytes the number of bytes
+     */
+    public void addBytesRead(long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    /**
+     * Adds to the bytes the operation wrote.
+     *
+     * @param bytes the number of bytes
+     */
+    public void addBytesWritten(long bytes) {
+        bytesWritten.add(bytes);
+    }
+
+    /**
+     * Returns the histogram of call durations.
+     *
+     * @return the histogram
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public long getCallCount() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long count = calls.sum();
+        return count == 0 ? 0 : totalNanos.sum() / NANOS_PER_MILLI / count;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return maxNanos.get() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return quantileMillis(0.50);
+    }
+
+    @Override
+    public double getP95Millis() {
+        return quantileMillis(0.95);
+    }
+
+    @Override
+    public double getP99Millis() {
+        return quantileMillis(0.99);
+    }
+
+    private double quantileMillis(double quantile) {
+        // Buckets only bound a duration from above, so never report more than the slowest call seen
+        return Math.min(latencies.getQuantile(quantile), maxNanos.get()) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        errors.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        bytesRead.reset();
+        bytesWritten.reset();
+        latencies.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d calls, %d errors, mean %.3f ms, p99 %.3f ms, %d bytes read, %d bytes written",
+                name, getCallCount(), getErrorCount(), getMeanMillis(), getP99Millis(), getBytesRead(), getBytesWritten());
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.metrics;
+
+/**
+ * The management interface of OperationMetrics, as shown in JConsole, VisualVM and other JMX tools.
+ * Durations are in milliseconds.
+ */
+public interface OperationMetricsMBean {
+    long getCallCount();
+
+    long getErrorCount();
+
+    long getBytesRead();
+
+    long getBytesWritten();
+
+    double getMeanMillis();
+
+    double getMaxMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    void reset();
+}
@@ -0,0 +1,31 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for decoding one cover image to the size it is shown at.
+ */
+@Name("org.example.PosterDecode")
+@Label("Poster Decode")
+@Category({"Movie Mania", "View"})
+@Description("Decoding a cover image for a poster tile or the details screen")
+public class PosterDecodeEvent extends jdk.jfr.Event {
+    @Label("Cover")
+    public String imagePath;
+
+    @Label("Decoded From")
+    @Description("The file actually decoded: a thumbnail rendition, the original or the default cover")
+    public String source;
+
+    @Label("Width")
+    public int width;
+
+    @Label("Height")
+    public int height;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,35 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one read or write of a user data file: the credentials, favorites or watch history CSV.
+ */
+@Name("org.example.UserFile")
+@Label("User File Access")
+@Category({"Movie Mania", "User Data"})
+@Description("Reading, appending to or rewriting a user data file")
+public class UserFileEvent extends jdk.jfr.Event {
+    public static final String SCAN = "scan";
+    public static final String READ_ROW = "read row";
+    public static final String APPEND_ROW = "append row";
+    public static final String REWRITE = "rewrite";
+
+    @Label("File")
+    public String file;
+
+    @Label("Operation")
+    @Description("scan, read row, append row or rewrite")
+    public String operation;
+
+    @Label("Rows")
+    public long rowCount;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,133 @@
+package org.example.model;
+
+import java.util.Arrays;
+
+/**
+ * ActorRegistry gives every actor name in the catalogue an ID, so a cast list can be stored as a few integers
+ * instead of a long string that repeats the same names across many movies.
+ */
+public final class ActorRegistry {
+    public static final String CAST_SEPARATOR = ", ";
+
+    private static final ActorRegistry INSTANCE = new ActorRegistry();
+
+    private final ValuePool names = new ValuePool();
+
+    private ActorRegistry() {
+    }
+
+    /**
+     * Returns the registry shared by every movie.
+     *
+     * @return the registry
+     */
+    public static ActorRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the ID of an actor, registering the name if it is new.
+     *
+     * @param name the actor name, exactly as written
+     * @return the actor ID
+     */
+    public int intern(String name) {
+        return names.intern(name);
+    }
+
+    /**
+     * Returns the ID of an actor without registering it.
+     *
+     * @param name the actor name, exactly as written
+     * @return the actor ID, or -1 if no movie has had this actor
+     */
+    public int find(String name) {
+        return names.find(name);
+    }
+
+    /**
+     * Returns the name of an actor.
+     *
+     * @param id an actor ID
+     * @return the name
+     */
+    public String getName(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Turns a cast list into actor IDs, if joining their names with CAST_SEPARATOR gives back exactly the same text.
+     *
+     * @param mainCast the cast list, such as "Al Pacino, Robert De Niro"
+     * @return the actor IDs in order, or null if the text cannot be rebuilt from them (odd spacing, empty names)
+     *         or a name would contain a comma
+     */
+    int[] encode(String mainCast) {
+        if (mainCast == null || mainCast.isEmpty()) {
+            return null;
+        }
+        int count = 1;
+        for (int at = mainCast.indexOf(CAST_SEPARATOR); at >= 0; at = mainCast.indexOf(CAST_SEPARATOR, at + CAST_SEPARATOR.length())) {
+            count++;
+        }
+        int[] ids = new int[count];
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = i == count - 1 ? mainCast.length() : mainCast.indexOf(CAST_SEPARATOR, start);
+            if (end == start || Character.isWhitespace(mainCast.charAt(start))
+                    || Character.isWhitespace(mainCast.charAt(end - 1))) {
+                return null; // An empty or padded name would not come back the same
+            }
+            int comma = mainCast.indexOf(',', start);
+            if (comma >= 0 && comma < end) {
+                return null; // Names run together ("A,B"); each ID must be one actor
+            }
+            ids[i] = names.intern(mainCast.substring(start, end));
+            start = end + CAST_SEPARATOR.length();
+        }
+        return ids;
+    }
+
+    /**
+     * Turns a cast list that encode could not keep as IDs into the IDs of its actors, splitting on commas
+     * and trimming each name.
+     *
+     * @param mainCast the cast list, or null
+     * @return the actor IDs in order, without empty names
+     */
+    int[] internAll(String mainCast) {
+        if (mainCast == null) {
+            return new int[0];
+        }
+        int[] ids = new int[mainCast.length() / 2 + 1];
+        int count = 0;
+        int start = 0;
+        for (int i = 0; i <= mainCast.length(); i++) {
+            if (i == mainCast.length() || mainCast.charAt(i) == ',') {
+                String name = mainCast.substring(start, i).trim();
+                if (!name.isEmpty()) {
+                    ids[count++] = names.intern(name);
+                }
+                start = i + 1;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Joins actor names back into a cast list.
+     *
+     * @param ids actor IDs, as returned by encode
+     * @return the cast list
+     */
+    String decode(int[] ids) {
+        StringBuilder cast = new StringBuilder();
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) {
+                cast.append(CAST_SEPARATOR);
+            }
+            cast.append(names.get(ids[i]));
+        }
+        return cast.toString();
+    }
+}
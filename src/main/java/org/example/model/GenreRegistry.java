@@ -0,0 +1,160 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * GenreRegistry gives every genre seen in the catalogue a bit, and every distinct genre column value
+ * ("Sci-Fi, Thriller") an ID. A movie stores only that ID; the column text and the bitmask of its genres
+ * are looked up here, so they exist once however many movies share them.
+ *
+ * Genres are matched case-insensitively and split on commas, slashes and vertical bars. The first 64 genres get
+ * bits; any genre after that is kept as text only, and hasOverflowed tells callers to match such genres by text.
+ *
+ * The registry is shared by every thread. Reads of masks and genre bits take the same lock as register, which
+ * grows the tables they read; only the column text lookups, backed by the lock-free ValuePool, skip it.
+ */
+public final class GenreRegistry {
+    public static final int MAX_GENRES = Long.SIZE;
+
+    private static final GenreRegistry INSTANCE = new GenreRegistry();
+
+    private final ValuePool genres = new ValuePool(); // Lowercased genre name, ID = bit
+    private final List<String> displayNames = new ArrayList<>(); // Spelling of each genre as first seen
+    private final ValuePool columns = new ValuePool(); // Whole genre column values
+    private long[] masks = new long[16]; // Bitmask of each column value, by column ID, guarded by this
+    private boolean overflowed;
+
+    private GenreRegistry() {
+    }
+
+    /**
+     * Returns the registry shared by every movie.
+     *
+     * @return the registry
+     */
+    public static GenreRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Splits a genre column value into genre names, trimmed and without empty entries.
+     *
+     * @param genreColumn the column value, such as "Sci-Fi, Thriller"
+     * @return the genre names, in order
+     */
+    public static List<String> split(String genreColumn) {
+        List<String> names = new ArrayList<>();
+        if (genreColumn == null) {
+            return names;
+        }
+        for (String part : genreColumn.split("[,/|]")) {
+            String name = part.trim();
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns the ID of a genre column value, registering its genres if they are new.
+     *
+     * @param genreColumn the column value
+     * @return the ID to pass to getColumn and getMask
+     */
+    public int register(String genreColumn) {
+        int id = columns.find(genreColumn);
+        if (id >= 0) {
+            return id;
+        }
+        synchronized (this) {
+            id = columns.find(genreColumn);
+            if (id >= 0) {
+                return id;
+            }
+            long mask = 0;
+            for (String name : split(genreColumn)) {
+                int bit = registerGenre(name);
+                if (bit >= 0) {
+                    mask |= 1L << bit;
+                }
+            }
+            int nextId = columns.size();
+            long[] current = masks;
+            if (nextId >= current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[nextId] = mask;
+            masks = current;
+            return columns.intern(genreColumn);
+        }
+    }
+
+    private int registerGenre(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        int bit = genres.find(key);
+        if (bit >= 0) {
+            return bit;
+        }
+        if (genres.size() >= MAX_GENRES) {
+            overflowed = true;
+            return -1;
+        }
+        displayNames.add(name);
+        return genres.intern(key);
+    }
+
+    /**
+     * Returns the genre column value with the given ID.
+     *
+     * @param id an ID returned by register
+     * @return the column value, exactly as it was registered
+     */
+    public String getColumn(int id) {
+        return columns.get(id);
+    }
+
+    /**
+     * Returns the bitmask of the genres in the column value with the given ID.
+     *
+     * @param id an ID returned by register
+     * @return the bitmask
+     */
+    public synchronized long getMask(int id) {
+        return masks[id];
+    }
+
+    /**
+     * Returns the bit of a single genre.
+     *
+     * @param genreName the genre name, in any case
+     * @return the bitmask with just that genre's bit set, or 0 if the genre has no bit
+     */
+    public synchronized long maskOf(String genreName) {
+        int bit = genreName == null ? -1 : genres.find(genreName.trim().toLowerCase(Locale.ROOT));
+        return bit < 0 ? 0 : 1L << bit;
+    }
+
+    /**
+     * Tells whether more than MAX_GENRES genres were seen, so that some genres have no bit.
+     *
+     * @return true if bitmasks do not cover every genre
+     */
+    public synchronized boolean hasOverflowed() {
+        return overflowed;
+    }
+
+    /**
+     * Returns every genre with a bit, in alphabetical order, spelled as first seen.
+     *
+     * @return the genre names
+     */
+    public synchronized List<String> getGenreNames() {
+        List<String> names = new ArrayList<>(displayNames);
+        names.sort(String.CASE_INSENSITIVE_ORDER);
+        return names;
+    }
+}
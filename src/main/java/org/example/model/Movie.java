@@ -1,16 +1,24 @@
 package org.example.model;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * The Movie class represents a movie with its details.
+ *
+ * To keep large catalogues small, values shared between movies are stored once: the genre column is an ID into the
+ * GenreRegistry, which also holds its genre bitmask, and the cast is a list of IDs into the ActorRegistry. The
+ * description, which is long and rarely shown, is kept as UTF-8 bytes. The getters rebuild the original text.
  */
 public class Movie {
+    private static final int NO_GENRE = -1;
+
     private int movieId; // Unique ID for the movie
     private String title;
     private int year;
-    private String mainCast;
+    private Object mainCast; // Actor IDs (int[]), or the text itself if it cannot be rebuilt from IDs, or null
     private double rating;
-    private String genre;
-    private String description;
+    private int genreId = NO_GENRE; // GenreRegistry ID of the genre column
+    private byte[] description; // UTF-8
     private String coverImagePath; // New field for the cover image path
 
 
@@ -29,10 +37,10 @@ public class Movie {
         this.movieId = movieId;
         this.title = title;
         this.year = year;
-        this.mainCast = mainCast;
+        setMainCast(mainCast);
         this.rating = rating;
-        this.genre = genre;
-        this.description = description;
+        setGenre(genre);
+        setDescription(description);
         this.coverImagePath = coverImagePath;
     }
 
@@ -62,11 +70,28 @@ public class Movie {
     }
 
     public String getMainCast() {
-        return mainCast;
+        if (mainCast instanceof int[] actorIds) {
+            return ActorRegistry.getInstance().decode(actorIds);
+        }
+        return (String) mainCast;
     }
 
     public void setMainCast(String mainCast) {
-        this.mainCast = mainCast;
+        int[] actorIds = ActorRegistry.getInstance().encode(mainCast);
+        this.mainCast = actorIds != null ? actorIds : mainCast;
+    }
+
+    /**
+     * Returns the cast of this movie as ActorRegistry IDs, in the order they are listed.
+     * The array may be shared with the movie and must not be modified.
+     *
+     * @return the actor IDs, empty if the movie has no cast
+     */
+    public int[] getCastIds() {
+        if (mainCast instanceof int[] actorIds) {
+            return actorIds;
+        }
+        return ActorRegistry.getInstance().internAll((String) mainCast);
     }
 
     public double getRating() {
@@ -78,19 +103,28 @@ public class Movie {
     }
 
     public String getGenre() {
-        return genre;
+        return genreId == NO_GENRE ? null : GenreRegistry.getInstance().getColumn(genreId);
     }
 
     public void setGenre(String genre) {
-        this.genre = genre;
+        this.genreId = genre == null ? NO_GENRE : GenreRegistry.getInstance().register(genre);
+    }
+
+    /**
+     * Returns the genres of this movie as a GenreRegistry bitmask.
+     *
+     * @return the bitmask, 0 if the movie has no genre
+     */
+    public long getGenreMask() {
+        return genreId == NO_GENRE ? 0 : GenreRegistry.getInstance().getMask(genreId);
     }
 
     public String getDescription() {
-        return description;
+        return description == null ? null : new String(description, StandardCharsets.UTF_8);
     }
 
     public void setDescription(String description) {
-        this.description = description;
+        this.description = description == null ? null : description.getBytes(StandardCharsets.UTF_8);
     }
 
     public String getCoverImagePath() {
@@ -0,0 +1,64 @@
+package org.example.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ValuePool hands out a small integer ID for each distinct string, so that a value repeated across many movies
+ * is stored once and each movie keeps only its ID. Values are never removed; pools hold catalogue vocabulary
+ * such as genre names and actor names, which stays small compared to the catalogue.
+ *
+ * Lookups by value and by ID are lock-free, so movies can be created on several loader threads at once.
+ */
+final class ValuePool {
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private int size; // Only changed while holding the lock; readers go through values and ids
+
+    /**
+     * Returns the ID of a value, adding the value if it is new.
+     */
+    int intern(String value) {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            String[] current = values;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+            }
+            current[size] = value;
+            values = current; // Publish the slot before the ID can be seen
+            ids.put(value, size);
+            return size++;
+        }
+    }
+
+    /**
+     * Returns the ID of a value, or -1 if it has never been interned.
+     */
+    int find(String value) {
+        Integer id = ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the value with the given ID.
+     */
+    String get(int id) {
+        return values[id];
+    }
+
+    /**
+     * Returns the number of distinct values.
+     */
+    synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,336 @@
+package org.example.tools;
+
+import com.opencsv.CSVWriter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * DatasetGenerator writes synthetic movies.csv, UserPass.csv, UserFavorites.csv and UserWatchHistory.csv files
+ * of any size, for trying out loading, searching and saving at scale.
+ *
+ * The data is shaped like a real catalogue: movies have one to three genres ("Sci-Fi, Thriller"), casts of
+ * three to twelve actors, and descriptions with commas, quotes and the odd line break. Favorites and watch
+ * histories follow a Zipf distribution, so a few movies are in many lists and most are in few, and list lengths
+ * vary from user to user. Everything is drawn from one seeded SplittableRandom, so the same seed and sizes
+ * always produce byte-identical files.
+ *
+ * Run it with: DatasetGenerator folder [movies] [users] [seed]
+ */
+public class DatasetGenerator {
+    public static final long DEFAULT_SEED = 42;
+    public static final int DEFAULT_MOVIE_COUNT = 100_000;
+    public static final int DEFAULT_USER_COUNT = 10_000;
+    public static final double POPULARITY_SKEW = 1.0; // Zipf exponent for how often a movie is picked
+
+    private static final String[] GENRES = {"Action", "Adventure", "Animation", "Comedy", "Crime", "Documentary",
+            "Drama", "Family", "Fantasy", "History", "Horror", "Music", "Mystery", "Romance", "Sci-Fi", "Sport",
+            "Thriller", "War", "Western"};
+    private static final String[] TITLE_WORDS = {"Dark", "Night", "Last", "City", "Return", "Star", "Love", "Empire",
+            "Shadow", "River", "Storm", "Silent", "Lost", "Golden", "Iron", "Secret", "Wild", "Broken", "Hidden",
+            "Kingdom", "Dream", "Fire", "Winter", "Summer", "Ghost", "Road", "Heart", "Blood", "Glass", "Ocean"};
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael",
+            "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+            "Sarah", "Carlos", "Aiko", "Priya", "Mateo", "Chloé", "Olufemi", "Zoë", "Björn", "Ana", "Wei", "Fatima"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas",
+            "Taylor", "Moore", "Jackson", "Martin", "Lee", "Tanaka", "Okafor", "Novak", "Müller", "Kowalski", "Singh"};
+    private static final String[] HEROES = {"a retired detective", "a young hacker", "two estranged sisters",
+            "a small-town teacher", "an ambitious chef", "a disgraced pilot", "a lonely robot", "a rookie cop"};
+    private static final String[] GOALS = {"uncovers a conspiracy", "must survive one more night",
+            "sets out to find a missing friend", "takes \"one last job\"", "falls for the wrong person",
+            "tries to win back everything they lost", "is pulled into a war between families"};
+    private static final String[] PLACES = {"in 1920s Chicago", "on a failing space station", "across the Sahara",
+            "in a city that never sleeps", "at the edge of the world", "in a quiet, snowbound village"};
+    private static final String[] COVERS = {"images/Avatar.jpg", "images/Barbie.jpg", "images/Gladiator.png",
+            "images/Godfather.jpg", "images/Inception.jpg", "images/Interstellar.jpg", "images/Oppen.jpg",
+            "images/Shawshank.jpg", "images/Spidey.jpg", "images/TheMatrix.jpg", "images/Titanic.jpg",
+            "images/gump.jpg", "images/pulp.jpg"}; // Bundled covers, so generated catalogues can be browsed
+
+    private final long seed;
+    private final int movieCount;
+    private final int userCount;
+    private int meanFavorites = 12;
+    private int meanWatched = 40;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed       the seed every random choice derives from
+     * @param movieCount the number of movies, with IDs 1 to movieCount
+     * @param userCount  the number of users, named by username(1) to username(userCount)
+     */
+    public DatasetGenerator(long seed, int movieCount, int userCount) {
+        if (movieCount < 1 || userCount < 0) {
+            throw new IllegalArgumentException("Need at least one movie and no negative user count");
+        }
+        this.seed = seed;
+        this.movieCount = movieCount;
+        this.userCount = userCount;
+    }
+
+    /**
+     * Sets the average favorites and watch history lengths. Lengths are drawn from an exponential distribution
+     * around these means, so most users have short lists and a few have long ones.
+     *
+     * @param meanFavorites the average number of favorites per user
+     * @param meanWatched   the average number of watched movies per user
+     */
+    public void setMeanListLengths(int meanFavorites, int meanWatched) {
+        this.meanFavorites = meanFavorites;
+        this.meanWatched = meanWatched;
+    }
+
+    /**
+     * Returns the username of a generated user.
+     *
+     * @param user the user number, from 1
+     * @return the username
+     */
+    public static String username(int user) {
+        return "user" + user;
+    }
+
+    /**
+     * Returns the password of a generated user.
+     *
+     * @param user the user number, from 1
+     * @return the password
+     */
+    public static String password(int user) {
+        return "pass" + user;
+    }
+
+    /**
+     * Writes all four files into a folder, under the names the application reads.
+     *
+     * @param folder the folder to write into; it is created if needed
+     * @throws IOException if a file cannot be written
+     */
+    public void writeAll(File folder) throws IOException {
+        if (!folder.isDirectory() && !folder.mkdirs()) {
+            throw new IOException("Could not create " + folder);
+        }
+        writeMovies(new File(folder, "movies.csv"));
+        writeUsers(new File(folder, "UserPass.csv"), new File(folder, "UserFavorites.csv"),
+                new File(folder, "UserWatchHistory.csv"));
+    }
+
+    /**
+     * Writes a movies.csv with movies 1 to movieCount.
+     *
+     * @param movieFile the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeMovies(File movieFile) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        try (CSVWriter writer = new CSVWriter(open(movieFile))) {
+            writer.writeNext(new String[]{"ID", "Title", "Year", "Main Cast", "Rating", "Genre", "Description",
+                    "Cover Image Path"});
+            for (int movieId = 1; movieId <= movieCount; movieId++) {
+                writer.writeNext(new String[]{
+                        Integer.toString(movieId),
+                        title(random),
+                        Integer.toString(year(random)),
+                        cast(random),
+                        Double.toString(rating(random)),
+                        genres(random),
+                        description(random),
+                        COVERS[random.nextInt(COVERS.length)]
+                });
+            }
+        }
+    }
+
+    /**
+     * Writes the credentials, favorites and watch history files for users 1 to userCount.
+     * Favorites and watch histories hold movie IDs, picked with a Zipf-skewed popularity.
+     *
+     * @param userFile         the UserPass.csv to write
+     * @param favoritesFile    the UserFavorites.csv to write
+     * @param watchHistoryFile the UserWatchHistory.csv to write
+     * @throws IOException if a file cannot be written
+     */
+    public void writeUsers(File userFile, File favoritesFile, File watchHistoryFile) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed ^ 0x9E3779B97F4A7C15L); // Independent of the movies
+        Popularity popularity = new Popularity(movieCount, random);
+        try (CSVWriter credentials = new CSVWriter(open(userFile), CSVWriter.DEFAULT_SEPARATOR,
+                CSVWriter.NO_QUOTE_CHARACTER, CSVWriter.DEFAULT_ESCAPE_CHARACTER, "\n");
+             CSVWriter favorites = new CSVWriter(open(favoritesFile));
+             CSVWriter watchHistory = new CSVWriter(open(watchHistoryFile))) {
+            credentials.writeNext(new String[]{"Username", "Password"});
+            for (int user = 1; user <= userCount; user++) {
+                String username = username(user);
+                credentials.writeNext(new String[]{username, password(user)});
+                favorites.writeNext(movieRow(username, listLength(meanFavorites, random), popularity, random));
+                watchHistory.writeNext(movieRow(username, listLength(meanWatched, random), popularity, random));
+            }
+        }
+    }
+
+    private static Writer open(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static String title(SplittableRandom random) {
+        StringBuilder title = new StringBuilder();
+        if (random.nextInt(4) == 0) {
+            title.append("The ");
+        }
+        title.append(pick(TITLE_WORDS, random));
+        for (int words = random.nextInt(3); words > 0; words--) {
+            title.append(' ').append(pick(TITLE_WORDS, random));
+        }
+        int sequel = random.nextInt(12);
+        if (sequel >= 10) {
+            title.append(' ').append(sequel - 8); // Part 2 or 3
+        } else if (sequel == 9) {
+            title.append(": ").append(pick(TITLE_WORDS, random)).append(" Rising");
+        }
+        return title.toString();
+    }
+
+    private static int year(SplittableRandom random) {
+        double recent = Math.sqrt(random.nextDouble()); // More recent years are more likely
+        return 1920 + (int) (recent * 106);
+    }
+
+    private static double rating(SplittableRandom random) {
+        double rating = 6.4 + random.nextGaussian() * 1.2;
+        return Math.round(Math.min(Math.max(rating, 1.0), 10.0) * 10) / 10.0;
+    }
+
+    private static String genres(SplittableRandom random) {
+        int count = 1 + random.nextInt(3);
+        String[] chosen = new String[count];
+        for (int i = 0; i < count; i++) {
+            String genre;
+            do {
+                genre = pick(GENRES, random);
+            } while (Arrays.asList(chosen).contains(genre));
+            chosen[i] = genre;
+        }
+        return String.join(", ", chosen);
+    }
+
+    private static String cast(SplittableRandom random) {
+        int count = 3 + random.nextInt(10);
+        StringBuilder cast = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                cast.append(", ");
+            }
+            cast.append(pick(FIRST_NAMES, random)).append(' ').append(pick(LAST_NAMES, random));
+        }
+        return cast.toString();
+    }
+
+    private static String description(SplittableRandom random) {
+        String hero = pick(HEROES, random);
+        String description = Character.toUpperCase(hero.charAt(0)) + hero.substring(1) + " " + pick(GOALS, random)
+                + " " + pick(PLACES, random) + ".";
+        if (random.nextInt(3) == 0) {
+            description += " Nothing, of course, goes to plan.";
+        }
+        if (random.nextInt(50) == 0) {
+            description += "\nBased on a true story."; // Quoted fields may span lines
+        }
+        return description;
+    }
+
+    private static int listLength(int mean, SplittableRandom random) {
+        return (int) Math.min(-Math.log(1 - random.nextDouble()) * mean, mean * 20L);
+    }
+
+    private static String[] movieRow(String username, int length, Popularity popularity, SplittableRandom random) {
+        String[] row = new String[length + 1];
+        row[0] = username;
+        int filled = 0;
+        int attempts = 0;
+        while (filled < length && attempts++ < length * 4) {
+            String movieId = "#" + popularity.next(random); // The tagged form UserManager stores IDs in
+            if (!Arrays.asList(row).subList(1, filled + 1).contains(movieId)) {
+                row[++filled] = movieId;
+            }
+        }
+        return Arrays.copyOf(row, filled + 1); // Small catalogues may not have enough distinct popular movies
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Picks movie IDs with a Zipf distribution over a shuffled ranking, so the popular movies are spread
+     * over the catalogue instead of being the lowest IDs.
+     */
+    private static final class Popularity {
+        private final double[] cumulative; // cumulative[rank] = P(rank or better)
+        private final int[] movieIdByRank;
+
+        Popularity(int movieCount, SplittableRandom random) {
+            cumulative = new double[movieCount];
+            double total = 0;
+            for (int rank = 0; rank < movieCount; rank++) {
+                total += 1 / Math.pow(rank + 1, POPULARITY_SKEW);
+                cumulative[rank] = total;
+            }
+            for (int rank = 0; rank < movieCount; rank++) {
+                cumulative[rank] /= total;
+            }
+
+            movieIdByRank = new int[movieCount];
+            for (int rank = 0; rank < movieCount; rank++) {
+                movieIdByRank[rank] = rank + 1;
+            }
+            for (int rank = movieCount - 1; rank > 0; rank--) { // Fisher-Yates shuffle
+                int other = random.nextInt(rank + 1);
+                int swap = movieIdByRank[rank];
+                movieIdByRank[rank] = movieIdByRank[other];
+                movieIdByRank[other] = swap;
+            }
+        }
+
+        int next(SplittableRandom random) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+            rank = rank >= 0 ? rank : Math.min(-rank - 1, cumulative.length - 1);
+            return movieIdByRank[rank];
+        }
+    }
+
+    /**
+     * Writes a dataset from the command line.
+     *
+     * @param args the output folder, then optionally the movie count, user count and seed
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: DatasetGenerator folder [movies] [users] [seed]");
+            return;
+        }
+        int movies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MOVIE_COUNT;
+        int users = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_USER_COUNT;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+
+        long start = System.nanoTime();
+        try {
+            new DatasetGenerator(seed, movies, users).writeAll(new File(args[0]));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        System.out.println("Wrote " + movies + " movies and " + users + " users to " + args[0] + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * AdminGUI represents the admin dashboard for Movie Mania.
@@ -29,8 +30,8 @@ public class AdminGUI extends Application {
 
     public AdminGUI() {
         this.movieManager = new MovieManager();
-        this.userManager = new UserManager();
-        this.movieManager.readMovies();
+        this.userManager = new UserManager(movieManager);
+        this.movieManager.readMoviesParallel(ForkJoinPool.commonPool());
     }
 
     @Override
@@ -78,10 +79,7 @@ public class AdminGUI extends Application {
         layout.setPadding(new Insets(20));
         layout.setAlignment(Pos.CENTER);
 
-        int nextMovieId = movieManager.getMovies().stream()
-                .mapToInt(Movie::getMovieId)
-                .max()
-                .orElse(0) + 1;
+        int nextMovieId = movieManager.nextMovieId(); // Kept by the catalogue, so no pass over every movie
 
         TextField txtID = new TextField(String.valueOf(nextMovieId));
         txtID.setEditable(false);
@@ -113,6 +111,7 @@ public class AdminGUI extends Application {
                 String destinationPath = "target/classes/images/" + imageName;
                 try {
                     Files.copy(selectedFile.toPath(), Paths.get(destinationPath), StandardCopyOption.REPLACE_EXISTING);
+                    PosterCache.getInstance().coverUploaded(new File("target/classes"), "images/" + imageName);
                     lblImagePath.setText("images/" + imageName);
                 } catch (IOException ex) {
                     ex.printStackTrace();
@@ -135,8 +134,7 @@ public class AdminGUI extends Application {
                         lblImagePath.getText()
                 );
 
-                movieManager.getMovies().add(newMovie);
-                movieManager.saveMovies();
+                movieManager.addMovie(newMovie);
                 stage.close();
             } catch (NumberFormatException ex) {
                 showAlert("Invalid Input", "Please enter valid year and rating.");
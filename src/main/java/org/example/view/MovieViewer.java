@@ -1,30 +1,64 @@
 package org.example.view;
 
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.Side;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.Duration;
+import org.example.controller.MovieCursor;
 import org.example.controller.MovieManager;
+import org.example.controller.MoviePage;
+import org.example.controller.MovieQuery;
+import org.example.controller.MovieSortOrder;
 import org.example.controller.UserManager;
+import org.example.metrics.Metrics;
+import org.example.metrics.MovieSearchEvent;
+import org.example.metrics.OperationMetrics;
 import org.example.model.Movie;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MovieViewer {
+    private static final int RESIZE_SETTLE_MILLIS = 120; // Quiet time after the last resize event before reflowing
+    private static final int SEARCH_DEBOUNCE_MILLIS = 250; // Quiet time after the last filter change before searching
+    private static final int TITLE_COMPLETIONS = 8; // Most titles offered while typing
+    private static final int SEARCH_PAGE_SIZE = 120; // Movies fetched at a time; more are fetched as the grid nears its end
+    private static final OperationMetrics FILTER_METRICS = Metrics.operation("MovieViewer.filter");
+    private static final OperationMetrics RENDER_METRICS = Metrics.operation("MovieViewer.render");
+
+    // One daemon thread runs catalogue searches for every titles screen
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "movie-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Title completions take microseconds, but the very first one builds them from the whole catalogue,
+    // so they also stay off the FX thread; a thread of their own keeps them from waiting on searches
+    private static final ExecutorService COMPLETION_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "title-completion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private MovieManager movieManager;
     private UserManager userManager;
 
@@ -33,29 +67,16 @@ public class MovieViewer {
         this.userManager = userManager;
     }
 
+    /**
+     * Returns an image view that shows a cover at the given size. The cover is decoded in the background
+     * by the shared PosterCache, with a placeholder until it is ready.
+     */
     private ImageView resizeImage(String imagePath, int width, int height) {
-        try {
-            InputStream inputStream = getClass().getResourceAsStream("/" + imagePath);
-            if (inputStream == null) {
-                System.err.println("Image not found: " + imagePath);
-                return getDefaultImageView(width, height);
-            }
-            Image image = new Image(inputStream);
-            ImageView imageView = new ImageView(image);
-            imageView.setFitWidth(width);
-            imageView.setFitHeight(height);
-            return imageView;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return getDefaultImageView(width, height);
-        }
-    }
-
-    private ImageView getDefaultImageView(int width, int height) {
-        ImageView defaultImageView = new ImageView(new Image(getClass().getResourceAsStream("/default-cover.jpg")));
-        defaultImageView.setFitWidth(width);
-        defaultImageView.setFitHeight(height);
-        return defaultImageView;
+        ImageView imageView = new ImageView();
+        imageView.setFitWidth(width);
+        imageView.setFitHeight(height);
+        PosterCache.getInstance().bind(imageView, imagePath, width, height);
+        return imageView;
     }
 
     public void showMovieTitlesScreen() {
@@ -71,7 +92,8 @@ public class MovieViewer {
 
         Label genreLabel = new Label("Genre:");
         ComboBox<String> genreComboBox = new ComboBox<>();
-        genreComboBox.getItems().addAll("All", "Action", "Drama", "Comedy", "Horror", "Sci-Fi", "Thriller");
+        genreComboBox.getItems().add("All");
+        genreComboBox.getItems().addAll(movieManager.getGenres()); // Genres some movie in the catalogue has
         genreComboBox.setValue("All");
 
         Label yearLabel = new Label("Year:");
@@ -89,75 +111,106 @@ public class MovieViewer {
         Label searchLabel = new Label("Title:");
         TextField searchField = new TextField();
         searchField.setPromptText("Search by Title");
+        new TitleAutocomplete(searchField);
+
+        Label keywordsLabel = new Label("Keywords:");
+        TextField keywordsField = new TextField();
+        keywordsField.setPromptText("Words in the title, story or cast");
+
+        Label actorLabel = new Label("Actor:");
+        TextField actorField = new TextField();
+        actorField.setPromptText("Full name of an actor");
+
+        // The sorted orders are kept up to date by MovieManager, so changing the order never sorts the catalogue
+        Label sortLabel = new Label("Sort by:");
+        ComboBox<MovieSortOrder> sortComboBox = new ComboBox<>();
+        sortComboBox.getItems().addAll(MovieSortOrder.values());
+        sortComboBox.setValue(MovieSortOrder.CATALOGUE);
 
         Button searchButton = new Button("Search");
 
-        filterPane.getChildren().addAll(genreLabel, genreComboBox, yearLabel, yearComboBox, ratingLabel, ratingSpinner, searchLabel, searchField, searchButton);
-        root.setTop(filterPane);
+        filterPane.getChildren().addAll(genreLabel, genreComboBox, yearLabel, yearComboBox, ratingLabel, ratingSpinner, searchLabel, searchField, keywordsLabel, keywordsField, actorLabel, actorField, sortLabel, sortComboBox, searchButton);
 
-        GridPane movieGrid = new GridPane();
-        movieGrid.setHgap(20);
-        movieGrid.setVgap(20);
-        movieGrid.setPadding(new Insets(20));
-        movieGrid.setAlignment(Pos.CENTER);
+        // Offered when a title search finds nothing but a title is within a typo or two
+        Hyperlink suggestionLink = new Hyperlink();
+        suggestionLink.setVisible(false);
+        suggestionLink.managedProperty().bind(suggestionLink.visibleProperty());
+        suggestionLink.setOnAction(e -> searchField.setText((String) suggestionLink.getUserData()));
 
-        ScrollPane scrollPane = new ScrollPane(movieGrid);
-        scrollPane.setFitToWidth(true);
-        root.setCenter(scrollPane);
+        Label resultCountLabel = new Label();
 
-        Map<String, ImageView> imageCache = new HashMap<>();
+        VBox topPane = new VBox(filterPane, suggestionLink, resultCountLabel);
+        topPane.setAlignment(Pos.CENTER);
+        root.setTop(topPane);
 
-        Runnable updateMovieList = () -> {
-            imageCache.clear();
-            movieGrid.getChildren().clear();
-            List<Movie> movies = movieManager.getMovies();
+        // Only the rows on screen get nodes; they are reused while scrolling
+        PosterGrid posterGrid = new PosterGrid(movie -> {
+            showMovieDetailsScreen(movie);
+            movieTitlesStage.close();
+        });
+        posterGrid.setPadding(new Insets(20));
+        root.setCenter(posterGrid);
 
+        // Searches run off the FX thread; only the newest one's results reach the grid
+        LiveSearch liveSearch = new LiveSearch(posterGrid, suggestionLink, resultCountLabel);
+        posterGrid.setOnNearEnd(liveSearch::loadMore);
+        Runnable updateMovieList = () -> {
             String selectedGenre = genreComboBox.getValue();
             String selectedYear = yearComboBox.getValue();
             double selectedRating = ratingSpinner.getValue();
-            String searchText = searchField.getText().toLowerCase();
-
-            List<Movie> filteredMovies = movies.stream()
-                    .filter(movie -> selectedGenre.equals("All") || movie.getGenre().toLowerCase().contains(selectedGenre.toLowerCase()))
-                    .filter(movie -> selectedYear.equals("All Years") || Integer.toString(movie.getYear()).equals(selectedYear))
-                    .filter(movie -> movie.getRating() >= selectedRating)
-                    .filter(movie -> searchText.isEmpty() || movie.getTitle().toLowerCase().contains(searchText))
-                    .collect(Collectors.toList());
-
-            double windowWidth = movieTitlesStage.getWidth() - 40;
-            int columnCount = Math.max((int) (windowWidth / 180), 1);
-
-            for (int i = 0; i < filteredMovies.size(); i++) {
-                Movie movie = filteredMovies.get(i);
-                if (movie.getCoverImagePath() == null || movie.getCoverImagePath().isEmpty()) {
-                    System.err.println("Empty or null image path for movie: " + movie.getTitle());
-                    continue;
-                }
-
-                VBox movieBox = new VBox(5);
-                movieBox.setPadding(new Insets(5));
-                movieBox.setAlignment(Pos.CENTER);
-                movieBox.setStyle("-fx-background-color: #F0F0F0; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-                ImageView imageView = imageCache.computeIfAbsent(movie.getCoverImagePath(), key -> resizeImage(movie.getCoverImagePath(), 150, 200));
-                movieBox.getChildren().add(imageView);
-
-                Label titleLabel = new Label(movie.getTitle());
-                titleLabel.setStyle("-fx-font-weight: bold;");
-                movieBox.getChildren().add(titleLabel);
-
-                movieBox.setOnMouseClicked(event -> {
-                    showMovieDetailsScreen(movie);
-                    movieTitlesStage.close();
-                });
-
-                movieGrid.add(movieBox, i % columnCount, i / columnCount);
+            String searchText = searchField.getText();
+            String actor = actorField.getText();
+
+            MovieQuery query = new MovieQuery(
+                    selectedGenre.equals("All") ? null : selectedGenre,
+                    selectedYear.equals("All Years") ? null : Integer.valueOf(selectedYear),
+                    selectedRating,
+                    searchText,
+                    actor);
+            query.setKeywords(keywordsField.getText()); // Ranks the results by how well they match
+            if (sortComboBox.getValue() != MovieSortOrder.CATALOGUE) {
+                query.setSortOrder(sortComboBox.getValue()); // Takes the place of the keyword ranking
             }
+            liveSearch.submit(query);
         };
 
-        searchButton.setOnAction(e -> updateMovieList.run());
-        searchField.setOnAction(e -> updateMovieList.run());
-        movieTitlesStage.widthProperty().addListener((obs, oldVal, newVal) -> updateMovieList.run());
+        // Filters apply as they change, once typing has paused; Search and Enter apply them at once
+        PauseTransition searchDebounce = new PauseTransition(Duration.millis(SEARCH_DEBOUNCE_MILLIS));
+        searchDebounce.setOnFinished(e -> updateMovieList.run());
+        ChangeListener<Object> filterChanged = (obs, oldVal, newVal) -> searchDebounce.playFromStart();
+        searchField.textProperty().addListener(filterChanged);
+        keywordsField.textProperty().addListener(filterChanged);
+        actorField.textProperty().addListener(filterChanged);
+        genreComboBox.valueProperty().addListener(filterChanged);
+        yearComboBox.valueProperty().addListener(filterChanged);
+        ratingSpinner.valueProperty().addListener(filterChanged);
+        sortComboBox.valueProperty().addListener((obs, oldVal, newVal) -> {
+            searchDebounce.stop();
+            updateMovieList.run(); // A pick from a list, not typing, so there is nothing to wait for
+        });
+
+        searchButton.setOnAction(e -> {
+            searchDebounce.stop();
+            updateMovieList.run();
+        });
+        searchField.setOnAction(e -> {
+            searchDebounce.stop();
+            updateMovieList.run();
+        });
+        keywordsField.setOnAction(e -> {
+            searchDebounce.stop();
+            updateMovieList.run();
+        });
+        actorField.setOnAction(e -> {
+            searchDebounce.stop();
+            updateMovieList.run();
+        });
+
+        // Resizing only moves the existing tiles into a new number of columns. A drag fires many width
+        // changes, so the reflow waits until the width has settled for a moment
+        PauseTransition resizeSettle = new PauseTransition(Duration.millis(RESIZE_SETTLE_MILLIS));
+        resizeSettle.setOnFinished(e -> posterGrid.setColumnCount(PosterGrid.columnsFor(movieTitlesStage.getWidth())));
+        movieTitlesStage.widthProperty().addListener((obs, oldVal, newVal) -> resizeSettle.playFromStart());
 
         updateMovieList.run();
 
@@ -166,6 +219,7 @@ public class MovieViewer {
         root.setBottom(backButton);
 
         Scene scene = new Scene(root, 1200, 800);
+        posterGrid.setColumnCount(PosterGrid.columnsFor(scene.getWidth()));
         movieTitlesStage.setScene(scene);
         movieTitlesStage.show();
     }
@@ -233,11 +287,11 @@ public class MovieViewer {
             Button btnAddToWatchHistory = new Button("Add to Watch History");
 
             btnAddToFavorites.setOnAction(e -> {
-                userManager.addToFavorites(movie.getTitle());
+                userManager.addToFavorites(movie.getMovieId());
             });
 
             btnAddToWatchHistory.setOnAction(e -> {
-                userManager.addToWatchHistory(movie.getTitle());
+                userManager.addToWatchHistory(movie.getMovieId());
             });
 
             buttonPane.getChildren().addAll(btnAddToFavorites, btnAddToWatchHistory);
@@ -292,6 +346,7 @@ public class MovieViewer {
                 String destinationPath = "target/classes/images/" + imageName;
                 try {
                     Files.copy(selectedFile.toPath(), Paths.get(destinationPath), StandardCopyOption.REPLACE_EXISTING);
+                    PosterCache.getInstance().coverUploaded(new File("target/classes"), "images/" + imageName);
                     lblImagePath.setText("images/" + imageName);
                     lblImage.setText("New Cover Image: " + imageName);
                 } catch (IOException ex) {
@@ -304,15 +359,14 @@ public class MovieViewer {
         Button btnUpdate = new Button("Update Movie");
         btnUpdate.setOnAction(e -> {
             try {
-                movie.setTitle(txtTitle.getText());
-                movie.setYear(Integer.parseInt(txtYear.getText().trim()));
-                movie.setMainCast(txtMainCast.getText());
-                movie.setRating(Double.parseDouble(txtRating.getText().trim()));
-                movie.setGenre(txtGenre.getText());
-                movie.setDescription(txtDescription.getText());
-                movie.setCoverImagePath(lblImagePath.getText());
-
-                movieManager.saveMovies();
+                // Edit a copy; updateMovie copies it onto the catalogue's movie under the catalogue lock,
+                // so a search running meanwhile never sees half an edit
+                Movie edited = new Movie(movie.getMovieId(), txtTitle.getText(),
+                        Integer.parseInt(txtYear.getText().trim()), txtMainCast.getText(),
+                        Double.parseDouble(txtRating.getText().trim()), txtGenre.getText(),
+                        txtDescription.getText(), lblImagePath.getText());
+
+                movieManager.updateMovie(edited);
                 showAlert("Success", "Movie updated successfully!");
                 stage.close();
                 showMovieDetailsScreen(movie);
@@ -342,4 +396,227 @@ public class MovieViewer {
         alert.setContentText(message);
         alert.showAndWait();
     }
-}
\ No newline at end of file
+
+    /**
+     * Offers title completions under a text field while the user types, best rated first.
+     * Picking one puts it in the field. Like LiveSearch, only the newest request's completions are shown.
+     */
+    private final class TitleAutocomplete {
+        private final TextField field;
+        private final ContextMenu menu = new ContextMenu();
+        private long generation; // Number of the newest request; only touched on the FX thread
+        private boolean picking; // Set while a picked completion is put in the field
+
+        TitleAutocomplete(TextField field) {
+            this.field = field;
+            field.textProperty().addListener((obs, oldText, newText) -> {
+                if (!picking && field.isFocused()) {
+                    request(newText);
+                }
+            });
+            field.focusedProperty().addListener((obs, wasFocused, focused) -> {
+                if (!focused) {
+                    generation++;
+                    menu.hide();
+                }
+            });
+        }
+
+        private void request(String text) {
+            long requestNumber = ++generation;
+            if (text == null || text.isBlank()) {
+                menu.hide();
+                return;
+            }
+            CompletableFuture.supplyAsync(() -> movieManager.completeTitle(text, TITLE_COMPLETIONS), COMPLETION_EXECUTOR)
+                    .thenAccept(titles -> Platform.runLater(() -> {
+                        if (requestNumber == generation) {
+                            show(text, titles);
+                        }
+                    }))
+                    .exceptionally(e -> {
+                        e.printStackTrace();
+                        return null;
+                    });
+        }
+
+        private void show(String text, List<String> titles) {
+            if (titles.isEmpty() || titles.size() == 1 && titles.get(0).equalsIgnoreCase(text.strip())) {
+                menu.hide();
+                return;
+            }
+            List<MenuItem> items = new ArrayList<>(titles.size());
+            for (String title : titles) {
+                MenuItem item = new MenuItem(title);
+                item.setOnAction(e -> pick(title));
+                items.add(item);
+            }
+            menu.getItems().setAll(items);
+            if (!menu.isShowing()) {
+                menu.show(field, Side.BOTTOM, 0, 0);
+            }
+        }
+
+        private void pick(String title) {
+            generation++;
+            picking = true;
+            field.setText(title);
+            picking = false;
+            field.positionCaret(title.length());
+            menu.hide();
+        }
+    }
+
+    /**
+     * Runs the searches of one titles screen on the search thread.
+     * Starting a search cancels the previous one, and a result is only shown if no newer search
+     * has been started since, so results never arrive out of order.
+     * A search fetches one page of movies; the next page is fetched when the grid scrolls near its end.
+     */
+    private final class LiveSearch {
+        private final PosterGrid posterGrid;
+        private final Hyperlink suggestionLink;
+        private final Label resultCountLabel;
+        private Task<MoviePage> running;
+        private long generation; // Number of the newest search; only touched on the FX thread
+        private MovieQuery shownQuery; // Query of the movies in the grid
+        private MovieCursor nextCursor; // Where the grid's next page starts, null after the last page
+        private boolean loadingMore;
+
+        LiveSearch(PosterGrid posterGrid, Hyperlink suggestionLink, Label resultCountLabel) {
+            this.posterGrid = posterGrid;
+            this.suggestionLink = suggestionLink;
+            this.resultCountLabel = resultCountLabel;
+        }
+
+        void submit(MovieQuery query) {
+            if (running != null) {
+                running.cancel();
+            }
+            long searchNumber = ++generation;
+            loadingMore = false;
+            String[] suggestion = new String[1]; // Written on the search thread before the task succeeds
+            Task<MoviePage> task = new Task<>() {
+                @Override
+                protected MoviePage call() {
+                    long start = FILTER_METRICS.start();
+                    MovieSearchEvent event = new MovieSearchEvent();
+                    event.begin();
+                    try {
+                        // Only the first page is fetched; the search index and sort orders find it without sorting the catalogue
+                        MoviePage page = withCovers(movieManager.getMoviePage(query, null, SEARCH_PAGE_SIZE));
+                        String titleText = query.getTitleText();
+                        if (page.getMovies().isEmpty() && titleText != null && !titleText.isBlank() && !isCancelled()) {
+                            suggestion[0] = movieManager.suggestTitle(titleText);
+                        }
+                        if (event.shouldCommit()) {
+                            event.titleText = query.getTitleText();
+                            event.genre = query.getGenre();
+                            event.actor = query.getActor();
+                            event.keywords = query.getKeywords();
+                            event.sortOrder = query.getSortOrder() == null ? null : query.getSortOrder().name();
+                            event.year = query.getYear() == null ? 0 : query.getYear();
+                            event.minRating = query.getMinRating();
+                            event.catalogueSize = movieManager.getMovies().size();
+                            event.resultCount = page.getTotalEstimate();
+                            event.cancelled = isCancelled();
+                            event.commit();
+                        }
+                        return page;
+                    } catch (RuntimeException e) {
+                        FILTER_METRICS.error();
+                        throw e;
+                    } finally {
+                        FILTER_METRICS.stop(start);
+                    }
+                }
+            };
+            task.setOnSucceeded(e -> {
+                if (searchNumber == generation) {
+                    MoviePage page = task.getValue();
+                    shownQuery = query;
+                    nextCursor = page.getNextCursor();
+                    long start = RENDER_METRICS.start();
+                    posterGrid.setMovies(page.getMovies());
+                    posterGrid.layout(); // Lay out the visible rows now, so the time they take is measured here
+                    RENDER_METRICS.stop(start);
+                    resultCountLabel.setText(countText(page));
+                    suggestionLink.setUserData(suggestion[0]);
+                    suggestionLink.setText(suggestion[0] == null ? "" : "Did you mean \"" + suggestion[0] + "\"?");
+                    suggestionLink.setVisible(suggestion[0] != null);
+                }
+            });
+            task.setOnFailed(e -> task.getException().printStackTrace());
+            running = task;
+            SEARCH_EXECUTOR.execute(task);
+        }
+
+        /**
+         * Fetches the page after the movies in the grid, unless it is already being fetched or there is none.
+         */
+        void loadMore() {
+            if (nextCursor == null || loadingMore) {
+                return;
+            }
+            loadingMore = true;
+            long searchNumber = generation;
+            MovieQuery query = shownQuery;
+            MovieCursor cursor = nextCursor;
+            Task<MoviePage> task = new Task<>() {
+                @Override
+                protected MoviePage call() {
+                    long start = FILTER_METRICS.start();
+                    try {
+                        return withCovers(movieManager.getMoviePage(query, cursor, SEARCH_PAGE_SIZE));
+                    } catch (RuntimeException e) {
+                        FILTER_METRICS.error();
+                        throw e;
+                    } finally {
+                        FILTER_METRICS.stop(start);
+                    }
+                }
+            };
+            task.setOnSucceeded(e -> {
+                if (searchNumber == generation) {
+                    loadingMore = false;
+                    nextCursor = task.getValue().getNextCursor();
+                    posterGrid.appendMovies(task.getValue().getMovies());
+                }
+            });
+            task.setOnFailed(e -> {
+                loadingMore = false;
+                task.getException().printStackTrace();
+            });
+            SEARCH_EXECUTOR.execute(task);
+        }
+
+        /**
+         * Leaves out the movies of a page that have no cover to show.
+         */
+        private MoviePage withCovers(MoviePage page) {
+            boolean allHaveCovers = true;
+            for (Movie movie : page.getMovies()) {
+                if (movie.getCoverImagePath() == null || movie.getCoverImagePath().isEmpty()) {
+                    System.err.println("Empty or null image path for movie: " + movie.getTitle());
+                    allHaveCovers = false;
+                }
+            }
+            if (allHaveCovers) {
+                return page;
+            }
+            List<Movie> moviesWithCovers = new ArrayList<>(page.getMovies().size());
+            for (Movie movie : page.getMovies()) {
+                if (movie.getCoverImagePath() != null && !movie.getCoverImagePath().isEmpty()) {
+                    moviesWithCovers.add(movie);
+                }
+            }
+            return new MoviePage(moviesWithCovers, page.getNextCursor(), page.getTotalEstimate(), page.isTotalExact());
+        }
+
+        private String countText(MoviePage page) {
+            int total = page.getTotalEstimate();
+            String movies = total == 1 ? " movie" : " movies";
+            return page.isTotalExact() ? total + movies : "About " + total + movies;
+        }
+    }
+}
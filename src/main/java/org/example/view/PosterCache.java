@@ -0,0 +1,286 @@
+package org.example.view;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import org.example.controller.CoverThumbnailer;
+import org.example.metrics.PosterDecodeEvent;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * PosterCache is the one cache of decoded cover images for the whole application.
+ *
+ * Images are decoded on background threads straight to the size they are shown at, so a 150x200 grid poster
+ * costs 150x200 pixels however large the file is. Views get a plain placeholder until the image is ready.
+ * Decoded images are kept in least-recently-used order and the oldest are dropped once their pixels
+ * exceed the memory budget. Every MovieViewer, and so every guest, user and admin screen, shares the cache.
+ */
+public final class PosterCache {
+    public static final long DEFAULT_BUDGET_BYTES = 64L * 1024 * 1024;
+    private static final String DEFAULT_COVER = "default-cover.jpg";
+    private static final Object REQUEST_KEY = new Object(); // ImageView property holding the image it waits for
+
+    private static final PosterCache INSTANCE = new PosterCache(DEFAULT_BUDGET_BYTES);
+
+    // Two daemon threads decode posters so the FX thread never does
+    private static final ExecutorService DECODERS = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "poster-decoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, Image> images = new LinkedHashMap<>(64, 0.75f, true); // Access order, eldest first
+    private final Map<String, CompletableFuture<Image>> loading = new HashMap<>();
+    private final Map<String, Image> placeholders = new HashMap<>(); // One per size
+    private long budgetBytes;
+    private long usedBytes;
+
+    PosterCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Returns the application-wide cache.
+     *
+     * @return the shared cache
+     */
+    public static PosterCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Shows a cover in an image view. A cached image is shown at once; otherwise the view shows a placeholder
+     * until the image has been decoded. If the view is rebound to another cover before then (as recycled grid
+     * cells are), the late image is not shown.
+     * Must be called on the JavaFX application thread.
+     *
+     * @param view      the view to fill
+     * @param imagePath the cover path, relative to the resources root
+     * @param width     the width to decode to
+     * @param height    the height to decode to
+     */
+    public void bind(ImageView view, String imagePath, int width, int height) {
+        String key = key(imagePath, width, height);
+        view.getProperties().put(REQUEST_KEY, key);
+
+        Image cached = getIfPresent(key);
+        if (cached != null) {
+            view.setImage(cached);
+            return;
+        }
+        view.setImage(getPlaceholder(width, height));
+        load(imagePath, width, height).thenAccept(image -> Platform.runLater(() -> {
+            if (key.equals(view.getProperties().get(REQUEST_KEY))) {
+                view.setImage(image);
+            }
+        }));
+    }
+
+    /**
+     * Clears an image view and stops it from receiving a cover that is still being decoded.
+     *
+     * @param view the view to clear
+     */
+    public void unbind(ImageView view) {
+        view.getProperties().remove(REQUEST_KEY);
+        view.setImage(null);
+    }
+
+    /**
+     * Returns a cover, decoding it in the background if it is not cached.
+     *
+     * @param imagePath the cover path, relative to the resources root
+     * @param width     the width to decode to
+     * @param height    the height to decode to
+     * @return a future that completes with the image, or with the default cover if the file cannot be read
+     */
+    public synchronized CompletableFuture<Image> load(String imagePath, int width, int height) {
+        String key = key(imagePath, width, height);
+        Image cached = images.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<Image> pending = loading.get(key);
+        if (pending != null) {
+            return pending; // Someone already asked for this image; share their decode
+        }
+        CompletableFuture<Image> future = CompletableFuture.supplyAsync(() -> decode(imagePath, width, height), DECODERS);
+        loading.put(key, future);
+        future.whenComplete((image, error) -> finishLoad(key, future, image));
+        return future;
+    }
+
+    /**
+     * Drops every cached size of a cover, for example after a new image was uploaded under the same path.
+     *
+     * @param imagePath the cover path, relative to the resources root
+     */
+    public synchronized void invalidate(String imagePath) {
+        String prefix = imagePath + "@";
+        loading.keySet().removeIf(key -> key.startsWith(prefix));
+        Iterator<Map.Entry<String, Image>> entries = images.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Image> entry = entries.next();
+            if (entry.getKey().startsWith(prefix)) {
+                usedBytes -= sizeOf(entry.getValue());
+                entries.remove();
+            }
+        }
+    }
+
+    /**
+     * Handles a cover that was just copied into the resources: drops stale cached sizes of its path and
+     * writes its renditions in the background, dropping the cached sizes again once those are ready so
+     * that views switch to the renditions.
+     *
+     * @param resourcesRoot the directory the cover path is relative to
+     * @param imagePath     the cover path
+     */
+    public void coverUploaded(File resourcesRoot, String imagePath) {
+        invalidate(imagePath); // The path may have held an older upload
+        CoverThumbnailer.generateInBackground(resourcesRoot, imagePath)
+                .thenRun(() -> invalidate(imagePath))
+                .exceptionally(e -> {
+                    System.err.println("Could not create thumbnails for " + imagePath + ": " + e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Changes the memory budget, dropping the least recently used images if the cache is now over it.
+     *
+     * @param budgetBytes the most pixel bytes to keep
+     */
+    public synchronized void setBudgetBytes(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        evict();
+    }
+
+    /**
+     * Returns the bytes of pixel data currently cached.
+     *
+     * @return the used bytes
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private synchronized Image getIfPresent(String key) {
+        return images.get(key);
+    }
+
+    private synchronized void finishLoad(String key, CompletableFuture<Image> future, Image image) {
+        if (loading.get(key) != future) {
+            return; // Invalidated while decoding
+        }
+        loading.remove(key);
+        if (image == null) {
+            return;
+        }
+        Image previous = images.put(key, image);
+        if (previous != null) {
+            usedBytes -= sizeOf(previous);
+        }
+        usedBytes += sizeOf(image);
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Image> eldest = images.values().iterator();
+        while (usedBytes > budgetBytes && eldest.hasNext()) {
+            usedBytes -= sizeOf(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Decodes a cover at the requested size from the smallest rendition that is large enough,
+     * then from the original, then from the default cover.
+     */
+    private Image decode(String imagePath, int width, int height) {
+        PosterDecodeEvent event = new PosterDecodeEvent();
+        event.begin();
+        String source = null;
+        Image image = null;
+        for (String rendition : CoverThumbnailer.renditionsFor(imagePath, width, height)) {
+            if (getClass().getResource("/" + rendition) != null) {
+                source = rendition;
+                image = decodeResource(rendition, width, height);
+                break;
+            }
+        }
+        if (image == null) {
+            source = imagePath;
+            image = decodeResource(imagePath, width, height);
+        }
+        if (image == null && !DEFAULT_COVER.equals(imagePath)) {
+            source = DEFAULT_COVER;
+            image = decodeResource(DEFAULT_COVER, width, height);
+        }
+        if (event.shouldCommit()) {
+            event.imagePath = imagePath;
+            event.source = source;
+            event.width = width;
+            event.height = height;
+            event.succeeded = image != null;
+            event.commit();
+        }
+        return image != null ? image : getPlaceholder(width, height);
+    }
+
+    private Image decodeResource(String imagePath, int width, int height) {
+        try (InputStream inputStream = getClass().getResourceAsStream("/" + imagePath)) {
+            if (inputStream == null) {
+                System.err.println("Image not found: " + imagePath);
+                return null;
+            }
+            Image image = new Image(inputStream, width, height, false, true);
+            if (image.isError()) {
+                System.err.println("Could not decode image: " + imagePath);
+                return null;
+            }
+            return image;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Returns a plain light-grey image of the given size, shown while the real cover loads.
+     */
+    private synchronized Image getPlaceholder(int width, int height) {
+        return placeholders.computeIfAbsent(width + "x" + height, size -> {
+            WritableImage placeholder = new WritableImage(width, height);
+            PixelWriter writer = placeholder.getPixelWriter();
+            Color fill = Color.web("#DDDDDD");
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    writer.setColor(x, y, fill);
+                }
+            }
+            return placeholder;
+        });
+    }
+
+    private static String key(String imagePath, int width, int height) {
+        return imagePath + "@" + width + "x" + height;
+    }
+
+    private static long sizeOf(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4; // Decoded images hold 32-bit pixels
+    }
+}
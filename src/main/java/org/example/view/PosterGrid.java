@@ -0,0 +1,251 @@
+package org.example.view;
+
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.skin.VirtualFlow;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import org.example.model.Movie;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * PosterGrid shows movies as a grid of poster tiles, building nodes only for the rows on screen.
+ *
+ * The grid is a ListView whose items are row numbers. The ListView creates just enough row cells to fill
+ * the viewport and reuses them while scrolling; each cell fills its tiles with the movies of the row it is
+ * showing. Showing a new result list or changing the column count therefore costs the same whether
+ * ten or a million movies match.
+ */
+public class PosterGrid extends StackPane {
+    static final int POSTER_WIDTH = 150;
+    static final int POSTER_HEIGHT = 200;
+    private static final int TILE_SPACING = 20;
+    private static final int ROW_HEIGHT = POSTER_HEIGHT + 60; // Poster, title and padding
+    private static final int NEAR_END_ROWS = 3; // Showing a row this close to the last one asks for more movies
+
+    private final ListView<Integer> rows = new ListView<>();
+    private final Consumer<Movie> onOpen;
+    private List<Movie> movies = new ArrayList<>();
+    private int columnCount = 1;
+    private Runnable onNearEnd;
+
+    /**
+     * Creates an empty grid. Posters come from the shared PosterCache.
+     *
+     * @param onOpen called when a tile is clicked
+     */
+    public PosterGrid(Consumer<Movie> onOpen) {
+        this.onOpen = onOpen;
+
+        rows.setFixedCellSize(ROW_HEIGHT);
+        rows.setFocusTraversable(false);
+        rows.setStyle("-fx-background-color: transparent; -fx-background-insets: 0;");
+        rows.setCellFactory(list -> new PosterRowCell());
+        getChildren().add(rows);
+    }
+
+    /**
+     * Shows a new list of movies, scrolled to the top.
+     *
+     * @param movies the movies to show, in order
+     */
+    public void setMovies(List<Movie> movies) {
+        this.movies = new ArrayList<>(movies);
+        updateRows();
+        rows.scrollTo(0);
+    }
+
+    /**
+     * Adds movies after the ones shown, such as the next page of results, keeping the grid where it is.
+     *
+     * @param more the movies to add, in order
+     */
+    public void appendMovies(List<Movie> more) {
+        if (more.isEmpty()) {
+            return;
+        }
+        int firstVisibleRow = getFirstVisibleRow();
+        movies.addAll(more);
+        updateRows();
+        rows.scrollTo(firstVisibleRow);
+    }
+
+    /**
+     * Sets what to do when the user scrolls near the last row, such as fetching the next page of results.
+     * It may be called again for the same rows; the caller ignores requests it is already handling.
+     *
+     * @param onNearEnd called on the FX thread, or null for nothing
+     */
+    public void setOnNearEnd(Runnable onNearEnd) {
+        this.onNearEnd = onNearEnd;
+    }
+
+    /**
+     * Returns the movies the grid is showing.
+     *
+     * @return the movies, in order
+     */
+    public List<Movie> getMovies() {
+        return movies;
+    }
+
+    /**
+     * Sets how many tiles go in one row. Only the row cells on screen are rebound; the movie that was
+     * at the top left stays in view.
+     *
+     * @param columnCount the number of columns, at least one
+     */
+    public void setColumnCount(int columnCount) {
+        columnCount = Math.max(columnCount, 1);
+        if (columnCount == this.columnCount) {
+            return;
+        }
+        int firstVisibleMovie = getFirstVisibleRow() * this.columnCount;
+        this.columnCount = columnCount;
+        updateRows();
+        rows.scrollTo(firstVisibleMovie / columnCount);
+    }
+
+    /**
+     * Works out how many tiles fit across a given width.
+     *
+     * @param width the available width
+     * @return the number of columns, at least one
+     */
+    public static int columnsFor(double width) {
+        return Math.max((int) ((width - 40) / (POSTER_WIDTH + 10 + TILE_SPACING)), 1);
+    }
+
+    /**
+     * Returns how many tiles go in one row.
+     *
+     * @return the number of columns
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    private int getFirstVisibleRow() {
+        if (rows.lookup(".virtual-flow") instanceof VirtualFlow<?> flow && flow.getFirstVisibleCell() != null) {
+            return Math.max(flow.getFirstVisibleCell().getIndex(), 0);
+        }
+        return 0;
+    }
+
+    private void updateRows() {
+        int rowCount = (movies.size() + columnCount - 1) / columnCount;
+        rows.setItems(FXCollections.observableList(new RowNumbers(rowCount)));
+        rows.refresh();
+    }
+
+    /**
+     * The numbers 0 to size - 1, computed on access so that no list of boxed numbers is kept per result.
+     */
+    private static final class RowNumbers extends AbstractList<Integer> {
+        private final int size;
+
+        RowNumbers(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Integer get(int index) {
+            return index;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * One row of the grid. Its tiles are created once and rebound to other movies as the cell is reused.
+     */
+    private final class PosterRowCell extends ListCell<Integer> {
+        private final HBox tiles = new HBox(TILE_SPACING);
+
+        PosterRowCell() {
+            tiles.setAlignment(Pos.CENTER);
+            setStyle("-fx-background-color: transparent; -fx-padding: 0;");
+        }
+
+        @Override
+        protected void updateItem(Integer row, boolean empty) {
+            super.updateItem(row, empty);
+            if (empty || row == null) {
+                setGraphic(null);
+                return;
+            }
+
+            while (tiles.getChildren().size() < columnCount) {
+                tiles.getChildren().add(new PosterTile());
+            }
+            if (tiles.getChildren().size() > columnCount) {
+                tiles.getChildren().remove(columnCount, tiles.getChildren().size());
+            }
+
+            int first = row * columnCount;
+            for (int column = 0; column < columnCount; column++) {
+                PosterTile tile = (PosterTile) tiles.getChildren().get(column);
+                int index = first + column;
+                tile.bind(index < movies.size() ? movies.get(index) : null);
+            }
+            setGraphic(tiles);
+            if (onNearEnd != null && row >= rows.getItems().size() - NEAR_END_ROWS) {
+                onNearEnd.run();
+            }
+        }
+    }
+
+    /**
+     * A poster with the movie title under it.
+     */
+    private final class PosterTile extends VBox {
+        private final ImageView poster = new ImageView();
+        private final Label title = new Label();
+        private Movie movie;
+
+        PosterTile() {
+            super(5);
+            setPadding(new Insets(5));
+            setAlignment(Pos.CENTER);
+            setStyle("-fx-background-color: #F0F0F0; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            poster.setFitWidth(POSTER_WIDTH);
+            poster.setFitHeight(POSTER_HEIGHT);
+            title.setStyle("-fx-font-weight: bold;");
+            title.setMaxWidth(POSTER_WIDTH);
+            getChildren().addAll(poster, title);
+            setOnMouseClicked(event -> {
+                if (movie != null) {
+                    onOpen.accept(movie);
+                }
+            });
+        }
+
+        /**
+         * Shows a movie in this tile, or hides the tile (keeping its space) if there is none.
+         */
+        void bind(Movie movie) {
+            this.movie = movie;
+            setVisible(movie != null);
+            if (movie == null) {
+                PosterCache.getInstance().unbind(poster);
+                title.setText(null);
+                return;
+            }
+            PosterCache.getInstance().bind(poster, movie.getCoverImagePath(), POSTER_WIDTH, POSTER_HEIGHT);
+            title.setText(movie.getTitle());
+        }
+    }
+}
@@ -8,6 +8,7 @@ import javafx.scene.layout.VBox;
 
 import org.example.controller.MovieManager;
 import org.example.controller.UserManager;
+import org.example.model.Movie;
 
 /**
  * UserGUI represents the user dashboard for Movie Mania.
@@ -62,14 +63,13 @@ public class UserGUI extends Application {
         Stage favoritesStage = new Stage();
         favoritesStage.setTitle("Favorites");
 
-        ListView<String> favoritesList = new ListView<>();
-        favoritesList.getItems().addAll(userManager.getFavoriteMovies(LoginGUI.getCurrentUsername()));
+        ListView<Movie> favoritesList = createMovieListView(userManager.getFavoriteMovieIds(LoginGUI.getCurrentUsername()));
 
         Button btnRemove = new Button("Remove");
         btnRemove.setOnAction(e -> {
-            String selectedMovie = favoritesList.getSelectionModel().getSelectedItem();
+            Movie selectedMovie = favoritesList.getSelectionModel().getSelectedItem();
             if (selectedMovie != null) {
-                userManager.removeFromFavorites(selectedMovie);
+                userManager.removeFromFavorites(selectedMovie.getMovieId());
                 favoritesList.getItems().remove(selectedMovie);
             }
         });
@@ -87,14 +87,13 @@ public class UserGUI extends Application {
         Stage watchHistoryStage = new Stage();
         watchHistoryStage.setTitle("Watch History");
 
-        ListView<String> watchHistoryList = new ListView<>();
-        watchHistoryList.getItems().addAll(userManager.getWatchHistory(LoginGUI.getCurrentUsername()));
+        ListView<Movie> watchHistoryList = createMovieListView(userManager.getWatchHistoryIds(LoginGUI.getCurrentUsername()));
 
         Button btnRemove = new Button("Remove");
         btnRemove.setOnAction(e -> {
-            String selectedMovie = watchHistoryList.getSelectionModel().getSelectedItem();
+            Movie selectedMovie = watchHistoryList.getSelectionModel().getSelectedItem();
             if (selectedMovie != null) {
-                userManager.removeFromWatchHistory(selectedMovie);
+                userManager.removeFromWatchHistory(selectedMovie.getMovieId());
                 watchHistoryList.getItems().remove(selectedMovie);
             }
         });
@@ -107,4 +106,26 @@ public class UserGUI extends Application {
         watchHistoryStage.setScene(new Scene(layout, 400, 300));
         watchHistoryStage.show();
     }
+
+    /**
+     * Builds a list view of the movies with the given IDs, showing their titles.
+     * IDs of movies that are no longer in the catalogue are skipped.
+     */
+    private ListView<Movie> createMovieListView(int[] movieIds) {
+        ListView<Movie> listView = new ListView<>();
+        for (int movieId : movieIds) {
+            Movie movie = movieManager.getMovieById(movieId);
+            if (movie != null) {
+                listView.getItems().add(movie);
+            }
+        }
+        listView.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(Movie movie, boolean empty) {
+                super.updateItem(movie, empty);
+                setText(empty || movie == null ? null : movie.getTitle());
+            }
+        });
+        return listView;
+    }
 }
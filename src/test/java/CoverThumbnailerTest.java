@@ -0,0 +1,39 @@
+import org.example.controller.CoverThumbnailer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoverThumbnailerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writesEveryRenditionSize() throws IOException {
+        File imagesDir = tempDir.resolve("images").toFile();
+        assertTrue(imagesDir.mkdirs());
+        BufferedImage cover = new BufferedImage(900, 1200, BufferedImage.TYPE_INT_ARGB);
+        ImageIO.write(cover, "png", new File(imagesDir, "Heat.png"));
+
+        CoverThumbnailer.generate(tempDir.toFile(), "images/Heat.png");
+
+        assertEquals("images/thumbs/150x200/Heat.png.jpg", CoverThumbnailer.renditionPath("images/Heat.png", 150, 200));
+        for (int[] size : CoverThumbnailer.RENDITION_SIZES) {
+            File rendition = tempDir.resolve(CoverThumbnailer.renditionPath("images/Heat.png", size[0], size[1])).toFile();
+            BufferedImage image = ImageIO.read(rendition);
+            assertNotNull(image);
+            assertEquals(size[0], image.getWidth());
+            assertEquals(size[1], image.getHeight());
+        }
+        assertEquals(List.of("images/thumbs/300x400/Heat.png.jpg"),
+                CoverThumbnailer.renditionsFor("images/Heat.png", 200, 300));
+    }
+}
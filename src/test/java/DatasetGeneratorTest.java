@@ -0,0 +1,37 @@
+import org.example.controller.MovieManager;
+import org.example.tools.DatasetGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sameSeedGivesSameFilesThatLoad() throws IOException {
+        File first = tempDir.resolve("first").toFile();
+        File second = tempDir.resolve("second").toFile();
+        new DatasetGenerator(7, 500, 50).writeAll(first);
+        new DatasetGenerator(7, 500, 50).writeAll(second);
+
+        // The same seed and sizes give the same files
+        for (String name : new String[]{"movies.csv", "UserPass.csv", "UserFavorites.csv", "UserWatchHistory.csv"}) {
+            assertArrayEquals(Files.readAllBytes(new File(first, name).toPath()),
+                    Files.readAllBytes(new File(second, name).toPath()), name);
+        }
+
+        MovieManager manager = MovieManagerTest.managerFor(new File(first, "movies.csv"));
+        manager.readMovies();
+        assertEquals(500, manager.getMovies().size());
+        assertEquals(0, manager.getLastLoadStats().getSkippedRowCount());
+        assertTrue(manager.getMovieById(500).getMainCast().contains(", "));
+    }
+}
@@ -0,0 +1,120 @@
+import org.example.controller.MovieManager;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.Metrics;
+import org.example.metrics.OperationMetrics;
+import org.example.model.Movie;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void histogramQuantilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        long median = histogram.getQuantile(0.5);
+        long p99 = histogram.getQuantile(0.99);
+        assertTrue(median >= 5_000_000 && median <= 5_000_000 * 1.13, "median " + median);
+        assertTrue(p99 >= 9_900_000 && p99 <= 9_900_000 * 1.13, "p99 " + p99);
+
+        histogram.reset();
+        assertEquals(0, histogram.getQuantile(0.99));
+    }
+
+    @Test
+    void operationsAreCountedAndPublishedOverJmx() throws Exception {
+        File movieFile = tempDir.resolve("movies.csv").toFile();
+        Files.write(movieFile.toPath(), ("Movie ID,Title,Year,Main Cast,Rating,Genre,Description,Cover Image Path\n"
+                + "1,Inception,2010,Leonardo DiCaprio,8.8,Sci-Fi,A thief who steals corporate secrets,inception.jpg\n").getBytes());
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return movieFile;
+            }
+        };
+
+        OperationMetrics reads = Metrics.operation("MovieManager.readMovies");
+        long callsBefore = reads.getCallCount();
+        long bytesBefore = reads.getBytesRead();
+        manager.readMovies();
+
+        assertEquals(callsBefore + 1, reads.getCallCount());
+        assertEquals(bytesBefore + movieFile.length(), reads.getBytesRead());
+        assertTrue(reads.getP99Millis() <= reads.getMaxMillis());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(Metrics.DOMAIN + ":type=Operation,name=MovieManager.readMovies");
+        assertEquals(reads.getCallCount(), server.getAttribute(name, "CallCount"));
+    }
+
+    @Test
+    void failedOperationsAreCountedAsErrors() throws IOException {
+        File movieFile = tempDir.resolve("missing").resolve("movies.csv").toFile();
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return movieFile;
+            }
+        };
+        manager.getMovies().add(new Movie(1, "Heat", 1995, "Al Pacino", 8.3, "Crime", "Desc", "heat.jpg"));
+
+        OperationMetrics saves = Metrics.operation("MovieManager.saveMovies");
+        long errorsBefore = saves.getErrorCount();
+        manager.saveMovies(); // The folder does not exist, so the write fails
+
+        assertEquals(errorsBefore + 1, saves.getErrorCount());
+    }
+
+    @Test
+    void catalogueLoadsAreRecordedByFlightRecorder() throws IOException {
+        File movieFile = tempDir.resolve("movies.csv").toFile();
+        Files.write(movieFile.toPath(), ("Movie ID,Title,Year,Main Cast,Rating,Genre,Description,Cover Image Path\n"
+                + "1,Inception,2010,Leonardo DiCaprio,8.8,Sci-Fi,A thief who steals corporate secrets,inception.jpg\n"
+                + "2,Heat,1995,Al Pacino,8.3,Crime,A last job,heat.jpg\n").getBytes());
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return movieFile;
+            }
+        };
+
+        Path recordingFile = tempDir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.example.CatalogueLoad");
+            recording.start();
+            manager.readMovies();
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        RecordedEvent load = events.stream()
+                .filter(event -> event.getEventType().getName().equals("org.example.CatalogueLoad"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, load.getLong("rowCount"));
+        assertEquals(movieFile.length(), load.getLong("bytes"));
+        assertFalse(load.getBoolean("parallel"));
+    }
+}
@@ -1,5 +1,8 @@
 import javafx.stage.Stage;
 import org.example.controller.MovieManager;
+import org.example.controller.MoviePage;
+import org.example.controller.MovieQuery;
+import org.example.controller.MovieSortOrder;
 import org.example.controller.UserManager;
 import org.example.model.Movie;
 import org.example.view.MovieViewer;
@@ -13,7 +16,9 @@ import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -64,11 +69,41 @@ class MovieManagerTest {
         assertEquals(newMovie, manager.getMovies().get(0));
     }
 
+    @Test
+    void unitTest_idIndexFollowsListChanges() {
+        MovieManager manager = new MovieManager();
+        Movie first = new Movie(1, "First", 2001, "Cast", 7.0, "Drama", "Desc", "a.jpg");
+        Movie second = new Movie(2, "Second", 2002, "Cast", 7.5, "Drama", "Desc", "b.jpg");
+        Movie third = new Movie(3, "Third", 2003, "Cast", 8.0, "Drama", "Desc", "c.jpg");
+        manager.getMovies().add(first);
+        manager.getMovies().add(second);
+        manager.getMovies().add(third);
+
+        manager.getMovies().remove(second);
+        assertNull(manager.getMovieById(2));
+        assertEquals(List.of(first, third), manager.getMovies());
+
+        manager.getMovies().remove(0);
+        assertNull(manager.getMovieById(1));
+        assertEquals(third, manager.getMovieById(3));
+        assertEquals(1, manager.getMovies().size());
+    }
+
     // Integration Tests
     @TempDir
     Path tempDir;
     private File testCsvFile;
 
+    // A manager that reads and writes the given movies file instead of the one on the classpath
+    static MovieManager managerFor(File movieFile) {
+        return new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return movieFile;
+            }
+        };
+    }
+
     @BeforeEach
     void setupIntegrationTest() throws IOException {
         testCsvFile = tempDir.resolve("movies.csv").toFile();
@@ -103,6 +138,436 @@ class MovieManagerTest {
         assertEquals(2, newManager.getMovies().size());
     }
 
+    @Test
+    void integrationTest_readMoviesStreamsQuotedRows() throws IOException {
+        String header = "\"ID\",\"Title\",\"Year\",\"Main Cast\",\"Rating\",\"Genre\",\"Description\",\"Cover Image Path\"\n";
+        String row = "\"7\",\"Heat\",\"1995\",\"Al Pacino, Robert De Niro\",\"8.3\",\"Crime, Drama\","
+                + "\"A \"\"last job\"\",\nthen a chase.\",\"images/heat.jpg\"\n";
+        Files.write(testCsvFile.toPath(), (header + row).getBytes());
+
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return testCsvFile;
+            }
+        };
+        manager.readMovies();
+
+        Movie heat = manager.getMovieById(7);
+        assertNotNull(heat);
+        assertEquals("Al Pacino, Robert De Niro", heat.getMainCast());
+        assertEquals("A \"last job\",\nthen a chase.", heat.getDescription());
+        assertEquals(8.3, heat.getRating());
+        assertEquals(1, manager.getLastLoadStats().getRowCount());
+        assertEquals(testCsvFile.length(), manager.getLastLoadStats().getBytesRead());
+    }
+
+    @Test
+    void integrationTest_readMoviesCountsMalformedRows() throws IOException {
+        String header = "ID,Title,Year,Main Cast,Rating,Genre,Description,Cover Image Path\n";
+        String rows = "1,Heat,1995,Al Pacino,8.3,Crime,A heist.,images/heat.jpg\n"
+                + "two,Alien,1979,Sigourney Weaver,8.5,Horror,In space.,images/alien.jpg\n"
+                + "3,Short row\n";
+        Files.write(testCsvFile.toPath(), (header + rows).getBytes());
+
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return testCsvFile;
+            }
+        };
+        manager.readMovies();
+
+        assertEquals(1, manager.getMovies().size());
+        assertEquals(1, manager.getLastLoadStats().getRowCount());
+        assertEquals(2, manager.getLastLoadStats().getSkippedRowCount());
+    }
+
+    @Test
+    void integrationTest_readMoviesParallelKeepsFileOrder() throws IOException {
+        String header = "Movie ID,Title,Year,Main Cast,Rating,Genre,Description,Cover Image Path\n";
+        String data = "3,Third,2003,Cast,7.0,Drama,\"Spans\ntwo lines\",c.jpg\n"
+                + "1,First,2001,Cast,8.0,Drama,Desc,a.jpg\n"
+                + "2,Second,2002,Cast,9.0,Drama,Desc,b.jpg\n";
+        Files.write(testCsvFile.toPath(), (header + data).getBytes());
+
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return testCsvFile;
+            }
+        };
+        manager.readMoviesParallel(new ForkJoinPool(2));
+
+        assertEquals(3, manager.getMovies().size());
+        assertEquals(3, manager.getMovies().get(0).getMovieId());
+        assertEquals(1, manager.getMovies().get(1).getMovieId());
+        assertEquals(2, manager.getMovies().get(2).getMovieId());
+        assertEquals("Spans\ntwo lines", manager.getMovies().get(0).getDescription());
+    }
+
+    @Test
+    void integrationTest_editsAreAppendedToChangeLog() throws IOException {
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return testCsvFile;
+            }
+        };
+        manager.readMovies();
+        byte[] baseBefore = Files.readAllBytes(testCsvFile.toPath());
+
+        manager.addMovie(new Movie(2, "Heat", 1995, "Al Pacino", 8.3, "Crime", "Desc", "heat.jpg"));
+        Movie inception = manager.getMovieById(1);
+        inception.setTitle("Inception (2010)");
+        manager.updateMovie(inception);
+        assertTrue(manager.deleteMovieById(2));
+
+        // The base file is untouched; the edits live in the change log
+        assertArrayEquals(baseBefore, Files.readAllBytes(testCsvFile.toPath()));
+        assertTrue(new File(testCsvFile.getPath() + ".log").exists());
+
+        MovieManager reloaded = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return testCsvFile;
+            }
+        };
+        reloaded.readMovies();
+        assertEquals(1, reloaded.getMovies().size());
+        assertEquals("Inception (2010)", reloaded.getMovieById(1).getTitle());
+        assertNull(reloaded.getMovieById(2));
+
+        // A full save folds the log into the base file
+        reloaded.saveMovies();
+        assertFalse(new File(testCsvFile.getPath() + ".log").exists());
+    }
+
+    @Test
+    void integrationTest_damagedChangeLogRecordKeepsLaterEdits() throws IOException {
+        String log = "\"U\",\"2\",\"Heat\",\"nineteen\",\"Al Pacino\",\"8.3\",\"Crime\",\"Desc\",\"heat.jpg\"\n"
+                + "\"X\"\n"
+                + "\"U\",\"3\",\"Alien\",\"1979\",\"Sigourney Weaver\",\"8.5\",\"Horror\",\"Desc\",\"alien.jpg\"\n"
+                + "\"D\",\"1\"\n";
+        Files.write(Path.of(testCsvFile.getPath() + ".log"), log.getBytes());
+
+        MovieManager manager = managerFor(testCsvFile);
+        manager.readMovies();
+
+        // The unreadable records are skipped; the edits after them still apply
+        assertEquals(1, manager.getMovies().size());
+        assertEquals("Alien", manager.getMovieById(3).getTitle());
+        assertNull(manager.getMovieById(1));
+        assertNull(manager.getMovieById(2));
+    }
+
+    @Test
+    void integrationTest_searchMoviesCombinesFilters() {
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return testCsvFile;
+            }
+        };
+        Movie matrix = new Movie(1, "The Matrix", 1999, "Keanu Reeves", 8.7, "Sci-Fi, Action", "Desc", "a.jpg");
+        Movie reloaded = new Movie(2, "The Matrix Reloaded", 2003, "Keanu Reeves", 7.2, "Sci-Fi, Action", "Desc", "b.jpg");
+        Movie heat = new Movie(3, "Heat", 1995, "Al Pacino", 8.3, "Crime, Drama", "Desc", "c.jpg");
+        manager.getMovies().add(matrix);
+        manager.getMovies().add(reloaded);
+        manager.getMovies().add(heat);
+
+        assertEquals(List.of(matrix, reloaded), manager.searchMovies(new MovieQuery("Action", null, 0.0, "matrix")));
+        assertEquals(List.of(matrix), manager.searchMovies(new MovieQuery("sci-fi", 1999, 8.0, "MAT")));
+        assertEquals(List.of(heat), manager.searchMovies(new MovieQuery("Drama", null, 8.0, "")));
+        assertTrue(manager.searchMovies(new MovieQuery(null, 2010, 0.0, null)).isEmpty());
+
+        // Edits reported through updateMovie are visible to the next search
+        heat.setTitle("Heat (Director's Cut)");
+        manager.updateMovie(heat);
+        assertEquals(List.of(heat), manager.searchMovies(new MovieQuery(null, null, 0.0, "director")));
+    }
+
+    @Test
+    void integrationTest_searchMoviesMatchesWholeGenres() {
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return testCsvFile;
+            }
+        };
+        Movie heat = new Movie(1, "Heat", 1995, "Al Pacino", 8.3, "Crime, Drama", "Desc", "a.jpg");
+        Movie magnolia = new Movie(2, "Magnolia", 1999, "Tom Cruise", 8.0, "Melodrama", "Desc", "b.jpg");
+        Movie alien = new Movie(3, "Alien", 1979, "Sigourney Weaver", 8.5, "Horror/Sci-Fi", "Desc", "c.jpg");
+        manager.getMovies().add(heat);
+        manager.getMovies().add(magnolia);
+        manager.getMovies().add(alien);
+
+        assertEquals(List.of(heat), manager.searchMovies(new MovieQuery("drama", null, 0.0, null)));
+        assertEquals(List.of(magnolia), manager.searchMovies(new MovieQuery("MELODRAMA", null, 0.0, null)));
+        assertEquals(List.of(alien), manager.searchMovies(new MovieQuery(" Sci-Fi ", null, 0.0, null)));
+        assertTrue(manager.searchMovies(new MovieQuery("Sci", null, 0.0, null)).isEmpty());
+        assertTrue(manager.searchMovies(new MovieQuery("Western", null, 0.0, null)).isEmpty());
+    }
+
+    @Test
+    void integrationTest_castIndexFollowsCatalogueChanges() {
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return testCsvFile;
+            }
+        };
+        Movie heat = new Movie(1, "Heat", 1995, "Al Pacino, Robert De Niro", 8.3, "Crime, Drama", "Desc", "a.jpg");
+        Movie godfather = new Movie(2, "The Godfather", 1972, "Marlon Brando, Al Pacino", 9.2, "Crime", "Desc", "b.jpg");
+        Movie casino = new Movie(3, "Casino", 1995, "Robert De Niro,Sharon Stone", 8.2, "Crime, Drama", "Desc", "c.jpg");
+        manager.addMovie(heat);
+        manager.addMovie(godfather);
+        manager.addMovie(casino);
+
+        assertEquals(List.of(heat, godfather), manager.getMoviesByActor("al pacino"));
+        assertEquals(List.of(heat, casino), manager.getMoviesByActor("Robert De Niro"));
+        assertEquals(List.of(godfather), manager.searchMovies(new MovieQuery("Crime", null, 9.0, null, "AL PACINO")));
+        assertTrue(manager.getMoviesByActor("Al").isEmpty());
+
+        // An edit made in place moves the movie between actors
+        heat.setMainCast("Al Pacino, Val Kilmer");
+        manager.updateMovie(heat);
+        assertEquals(List.of(casino), manager.getMoviesByActor("Robert De Niro"));
+        assertEquals(List.of(heat), manager.getMoviesByActor("Val Kilmer"));
+
+        manager.deleteMovieById(2);
+        assertEquals(List.of(heat), manager.getMoviesByActor("Al Pacino"));
+        assertArrayEquals(new int[]{3}, manager.getCastIndex().getMovieIds("sharon stone"));
+    }
+
+    @Test
+    void integrationTest_genresFollowCatalogueChanges() {
+        MovieManager manager = managerFor(testCsvFile);
+        manager.addMovie(new Movie(1, "Suspiria", 1977, "Jessica Harper", 7.4, "Giallo, Horror", "Desc", "a.jpg"));
+        manager.addMovie(new Movie(2, "Hero", 2002, "Jet Li", 7.9, "Wuxia", "Desc", "b.jpg"));
+        assertEquals(List.of("Giallo", "Horror", "Wuxia"), manager.getGenres());
+
+        // Genres no movie has any more are left out, though the registry still knows them
+        manager.updateMovie(new Movie(2, "Hero", 2002, "Jet Li", 7.9, "horror", "Desc", "b.jpg"));
+        assertEquals(List.of("Giallo", "Horror"), manager.getGenres());
+        manager.deleteMovieById(1);
+        assertEquals(List.of("horror"), manager.getGenres());
+    }
+
+    @Test
+    void integrationTest_keywordSearchRanksAndFollowsEdits() {
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return testCsvFile;
+            }
+        };
+        Movie inception = new Movie(1, "Inception", 2010, "Leonardo DiCaprio, Joseph Gordon-Levitt", 8.8, "Sci-Fi",
+                "A thief who enters the dreams of others is given one last heist.", "a.jpg");
+        Movie heat = new Movie(2, "Heat", 1995, "Al Pacino, Robert De Niro", 8.3, "Crime, Drama",
+                "A detective hunts a crew planning one final heist.", "b.jpg");
+        Movie matrix = new Movie(3, "The Matrix", 1999, "Keanu Reeves", 8.7, "Sci-Fi, Action",
+                "A hacker learns the truth about reality.", "c.jpg");
+        manager.addMovie(inception);
+        manager.addMovie(heat);
+        manager.addMovie(matrix);
+
+        // Both words match Inception, one matches Heat; "dream" also finds "dreams"
+        assertEquals(List.of(inception, heat), manager.searchText("dream heist", 0));
+        assertEquals(List.of(inception), manager.searchText("dream heist", 1));
+        assertEquals(List.of(heat), manager.searchText("pacino", 0));
+        assertTrue(manager.searchText("zeppelin", 0).isEmpty());
+
+        MovieQuery query = new MovieQuery("Crime", null, 0.0, null);
+        query.setKeywords("heist");
+        assertEquals(List.of(heat), manager.searchMovies(query));
+
+        // Edits and deletes reach the index without a rebuild; the shorter text now ranks first
+        matrix.setDescription("A hacker plans a heist inside a dream.");
+        manager.updateMovie(matrix);
+        assertEquals(List.of(matrix, inception, heat), manager.searchText("dream heist", 0));
+        manager.deleteMovieById(1);
+        assertEquals(List.of(matrix, heat), manager.searchText("dream heist", 0));
+    }
+
+    @Test
+    void integrationTest_fuzzyTitleSearchSuggestsCorrections() {
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return testCsvFile;
+            }
+        };
+        Movie interstellar = new Movie(1, "Interstellar", 2014, "Matthew McConaughey", 8.6, "Sci-Fi", "", "a.jpg");
+        Movie voyage = new Movie(2, "Interstellar Voyage", 1990, "Unknown", 5.1, "Sci-Fi", "", "b.jpg");
+        Movie godfather = new Movie(3, "The Godfather", 1972, "Marlon Brando, Al Pacino", 9.2, "Crime", "", "c.jpg");
+        manager.addMovie(interstellar);
+        manager.addMovie(voyage);
+        manager.addMovie(godfather);
+
+        // One edit away from both; the closer-sized title ranks first
+        assertEquals(List.of(interstellar, voyage), manager.searchTitlesFuzzy("interstelar", 0));
+        assertEquals(List.of(interstellar), manager.searchTitlesFuzzy("interstelar", 1));
+        assertEquals(List.of(godfather), manager.searchTitlesFuzzy("teh godfathr", 0));
+        assertTrue(manager.searchTitlesFuzzy("zeppelin", 0).isEmpty());
+
+        assertEquals("Interstellar", manager.suggestTitle("Interstelar"));
+        assertEquals("The Godfather", manager.suggestTitle("teh godfather"));
+        assertNull(manager.suggestTitle("godfather")); // Already found as typed
+        assertNull(manager.suggestTitle("zeppelin"));
+
+        // The n-gram index follows a renamed movie without being rebuilt
+        manager.updateMovie(new Movie(3, "Zeppelin", 1972, "Marlon Brando, Al Pacino", 9.2, "Crime", "", "c.jpg"));
+        assertEquals("Zeppelin", manager.suggestTitle("zepelin"));
+        assertNull(manager.suggestTitle("teh godfather"));
+    }
+
+    @Test
+    void integrationTest_titleCompletionsPreferBetterRatedTitles() {
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return testCsvFile;
+            }
+        };
+        manager.addMovie(new Movie(1, "The Godfather", 1972, "Marlon Brando", 9.2, "Crime", "", "a.jpg"));
+        manager.addMovie(new Movie(2, "Gods and Monsters", 1998, "Ian McKellen", 7.4, "Drama", "", "b.jpg"));
+        manager.addMovie(new Movie(3, "Godzilla", 2014, "Aaron Taylor-Johnson", 6.4, "Action", "", "c.jpg"));
+        manager.addMovie(new Movie(4, "Godzilla", 1954, "Takashi Shimura", 7.5, "Action", "", "d.jpg"));
+
+        // Any word of a title can complete; a title made by several movies is offered once, at its best rating
+        assertEquals(List.of("The Godfather", "Godzilla", "Gods and Monsters"), manager.completeTitle("GOD", 10));
+        assertEquals(List.of("The Godfather", "Godzilla"), manager.completeTitle("god", 2));
+        assertEquals(List.of("Gods and Monsters"), manager.completeTitle("gods ", 10));
+        assertEquals(List.of("Gods and Monsters"), manager.completeTitle("mon", 10));
+        assertTrue(manager.completeTitle("zeppelin", 10).isEmpty());
+        assertTrue(manager.completeTitle(" ", 10).isEmpty());
+
+        // Completions follow the catalogue; until the rebuild an edit set off is done, the previous ones answer
+        manager.deleteMovieById(1);
+        assertEquals(List.of("The Godfather", "Godzilla", "Gods and Monsters"), manager.completeTitle("god", 10));
+        manager.getTitleCompletions(); // Waits for the rebuild
+        assertEquals(List.of("Godzilla", "Gods and Monsters"), manager.completeTitle("god", 10));
+    }
+
+    @Test
+    void integrationTest_sortOrdersFollowCatalogueChanges() {
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return testCsvFile;
+            }
+        };
+        Movie heat = new Movie(1, "Heat", 1995, "Al Pacino", 8.3, "Crime", "", "a.jpg");
+        Movie alien = new Movie(2, "alien", 1979, "Sigourney Weaver", 8.5, "Sci-Fi", "", "b.jpg");
+        Movie up = new Movie(3, "Up", 2009, "Ed Asner", 8.3, "Animation", "", "c.jpg");
+        manager.addMovie(heat);
+        manager.addMovie(alien);
+        manager.addMovie(up);
+
+        // Equal ratings go newest first; titles ignore case
+        assertEquals(List.of(alien, up, heat), manager.getSortedMovies(MovieSortOrder.RATING, 0, 10));
+        assertEquals(List.of(up, heat, alien), manager.getSortedMovies(MovieSortOrder.YEAR, 0, 10));
+        assertEquals(List.of(alien, heat, up), manager.getSortedMovies(MovieSortOrder.TITLE, 0, 10));
+        assertEquals(List.of(up), manager.getSortedMovies(MovieSortOrder.RATING, 1, 1));
+        assertEquals(List.of(heat, alien), manager.getSortedMovies(MovieSortOrder.CATALOGUE, 0, 2));
+
+        // Edits, additions and deletes move movies without a rebuild
+        heat.setRating(9.0);
+        manager.updateMovie(heat);
+        Movie jaws = new Movie(4, "Jaws", 1975, "Roy Scheider", 8.1, "Thriller", "", "d.jpg");
+        manager.addMovie(jaws);
+        manager.deleteMovieById(3);
+        assertEquals(List.of(heat, alien, jaws), manager.getSortedMovies(MovieSortOrder.RATING, 0, 10));
+        assertEquals(List.of(heat, jaws), manager.getTopMovies(List.of(jaws, heat), MovieSortOrder.RATING, 5));
+        assertEquals(List.of(alien), manager.getTopMovies(List.of(jaws, alien), MovieSortOrder.YEAR, 1));
+
+        MovieQuery query = new MovieQuery(null, null, 8.2, null);
+        query.setSortOrder(MovieSortOrder.TITLE);
+        assertEquals(List.of(alien, heat), manager.searchMovies(query));
+    }
+
+    @Test
+    void integrationTest_moviePagesFollowCursors() {
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return testCsvFile;
+            }
+        };
+        assertEquals(1, manager.nextMovieId());
+        for (int id = 1; id <= 10; id++) {
+            manager.addMovie(new Movie(id, "Movie " + id, 2000 + id, "Cast " + id, id, id % 2 == 0 ? "Drama" : "Comedy", "", id + ".jpg"));
+        }
+        assertEquals(11, manager.nextMovieId());
+
+        // Catalogue order: 2, 4, 6, 8, 10 in pages of two
+        MovieQuery dramas = new MovieQuery("Drama", null, 0.0, null);
+        MoviePage first = manager.getMoviePage(dramas, null, 2);
+        assertEquals(List.of(2, 4), movieIds(first.getMovies()));
+        assertEquals(5, first.getTotalEstimate());
+        assertTrue(first.isTotalExact());
+        MoviePage second = manager.getMoviePage(dramas, first.getNextCursor(), 2);
+        assertEquals(List.of(6, 8), movieIds(second.getMovies()));
+        MoviePage last = manager.getMoviePage(dramas, second.getNextCursor(), 2);
+        assertEquals(List.of(10), movieIds(last.getMovies()));
+        assertFalse(last.hasNext());
+
+        // A sorted cursor resumes after the last movie it returned, even if movies before it went away
+        dramas.setSortOrder(MovieSortOrder.RATING);
+        first = manager.getMoviePage(dramas, null, 2);
+        assertEquals(List.of(10, 8), movieIds(first.getMovies()));
+        manager.deleteMovieById(10);
+        assertEquals(List.of(6, 4), movieIds(manager.getMoviePage(dramas, first.getNextCursor(), 2).getMovies()));
+        assertEquals(10, manager.nextMovieId()); // 10 was the highest ID
+
+        // So does a catalogue cursor, even once that movie and others before it are gone
+        dramas.setSortOrder(null);
+        first = manager.getMoviePage(dramas, null, 2);
+        assertEquals(List.of(2, 4), movieIds(first.getMovies()));
+        manager.deleteMovieById(1);
+        manager.deleteMovieById(3);
+        manager.deleteMovieById(4);
+        assertEquals(List.of(6, 8), movieIds(manager.getMoviePage(dramas, first.getNextCursor(), 2).getMovies()));
+
+        // Movies inserted before the cursor's movie stay behind it, and those after it are on the next page
+        manager.getMovies().add(0, new Movie(11, "Extra 11", 2011, "Extra", 5.0, "Drama", "", "11.jpg"));
+        manager.getMovies().add(3, new Movie(12, "Extra 12", 2012, "Extra", 5.0, "Drama", "", "12.jpg"));
+        assertEquals(List.of(12, 6), movieIds(manager.getMoviePage(dramas, first.getNextCursor(), 2).getMovies()));
+
+        // A keyword cursor goes on after its movie when the ranking changes under it
+        MovieQuery words = new MovieQuery();
+        words.setKeywords("movie");
+        first = manager.getMoviePage(words, null, 2);
+        assertEquals(List.of(2, 5), movieIds(first.getMovies()));
+        manager.deleteMovieById(2);
+        assertEquals(List.of(6, 7), movieIds(manager.getMoviePage(words, first.getNextCursor(), 2).getMovies()));
+    }
+
+    private static List<Integer> movieIds(List<Movie> movies) {
+        List<Integer> ids = new ArrayList<>();
+        for (Movie movie : movies) {
+            ids.add(movie.getMovieId());
+        }
+        return ids;
+    }
+
+    @Test
+    void integrationTest_deleteMovieByIdUsesIndex() {
+        MovieManager manager = new MovieManager() {
+            @Override
+            public File getMovieFilePath() {
+                return testCsvFile;
+            }
+        };
+        manager.readMovies();
+
+        assertTrue(manager.deleteMovieById(1));
+        assertNull(manager.getMovieById(1));
+        assertFalse(manager.deleteMovieById(1));
+        assertTrue(manager.getMovies().isEmpty());
+    }
+
 
     // System Tests
     @Test
@@ -1,4 +1,5 @@
 
+import org.example.model.GenreRegistry;
 import org.example.model.Movie;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
@@ -86,4 +87,54 @@ public class MovieTest {
         // Then
         assertEquals(coverPath, movie.getCoverImagePath());
     }
+
+    /**
+     * Test Case ID: UT-08-CB
+     * Category: Unit (Clear)
+     * Ensures that compactly stored values come back exactly as they were set.
+     */
+    @Test
+    public void compactFieldsRoundTripExactly() {
+        // Given
+        String[] casts = {"Al Pacino, Robert De Niro", "Al Pacino,Robert De Niro", " Al Pacino", "Cher", "", null};
+        String description = "Zoë's \"last job\",\nthen a chase. 🎬";
+
+        for (String cast : casts) {
+            // When
+            Movie movie = new Movie(4, "Heat", 1995, cast, 8.3, "Crime, Drama", description, "heat.jpg");
+
+            // Then
+            assertEquals(cast, movie.getMainCast());
+            assertEquals(description, movie.getDescription());
+        }
+        Movie movie = new Movie(5, "Heat", 1995, "Al Pacino", 8.3, null, null, "heat.jpg");
+        assertNull(movie.getGenre());
+        assertNull(movie.getDescription());
+        assertEquals(0, movie.getGenreMask());
+    }
+
+    /**
+     * Test Case ID: UT-09-CB
+     * Category: Unit (Clear)
+     * Ensures that genres are turned into a bitmask that ignores case and order.
+     */
+    @Test
+    public void genreMaskCoversEveryGenre() {
+        // Given
+        Movie first = new Movie(6, "A", 2000, "Cast", 7.0, "Sci-Fi, Thriller", "Desc", "a.jpg");
+        Movie second = new Movie(7, "B", 2000, "Cast", 7.0, "thriller/sci-fi", "Desc", "b.jpg");
+        GenreRegistry registry = GenreRegistry.getInstance();
+
+        // Then
+        assertEquals("thriller/sci-fi", second.getGenre());
+        assertEquals(first.getGenreMask(), second.getGenreMask());
+        assertEquals(registry.maskOf("Sci-Fi") | registry.maskOf("THRILLER"), first.getGenreMask());
+        assertTrue(registry.getGenreNames().contains("Sci-Fi"));
+
+        // When
+        first.setGenre("Drama");
+
+        // Then
+        assertEquals(registry.maskOf("drama"), first.getGenreMask());
+    }
 }
@@ -1,16 +1,23 @@
 import javafx.application.Platform;
 import javafx.scene.Scene;
+import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
 import org.example.controller.MovieManager;
 import org.example.controller.UserManager;
 import org.example.model.Movie;
 import org.example.view.MovieViewer;
+import org.example.view.PosterCache;
+import org.example.view.PosterGrid;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.testfx.framework.junit5.ApplicationExtension;
 import org.testfx.framework.junit5.Start;
+import org.testfx.util.WaitForAsyncUtils;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -48,6 +55,63 @@ class MovieViewerTest {
                 "Should not throw an exception when showing movie details screen.");
     }
 
+    @Test
+    void testPosterGridBuildsOnlyVisibleRows() throws Exception {
+        WaitForAsyncUtils.asyncFx(() -> {
+            List<Movie> movies = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                movies.add(new Movie(i, "Movie " + i, 2000, "Cast", 7.0, "Drama", "Desc", "images/none.jpg"));
+            }
+            PosterGrid posterGrid = new PosterGrid(movie -> { });
+            posterGrid.setColumnCount(5);
+            posterGrid.setMovies(movies);
+
+            Stage stage = new Stage();
+            stage.setScene(new Scene(posterGrid, 1000, 600));
+            stage.show();
+            posterGrid.layout();
+
+            // 2,000 rows of results, but only the few rows that fit on screen get cells
+            assertTrue(posterGrid.lookupAll(".list-cell").size() < 20);
+            assertEquals(10_000, posterGrid.getMovies().size());
+        }).get();
+    }
+
+    @Test
+    void testPosterGridColumnsFollowWidth() throws Exception {
+        assertEquals(6, PosterGrid.columnsFor(1200));
+        assertEquals(1, PosterGrid.columnsFor(100));
+
+        WaitForAsyncUtils.asyncFx(() -> {
+            List<Movie> movies = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                movies.add(new Movie(i, "Movie " + i, 2000, "Cast", 7.0, "Drama", "Desc", "images/none.jpg"));
+            }
+            PosterGrid posterGrid = new PosterGrid(movie -> { });
+            posterGrid.setMovies(movies);
+
+            // A reflow keeps the same results and only changes how they are laid out
+            posterGrid.setColumnCount(4);
+            assertEquals(4, posterGrid.getColumnCount());
+            assertSame(movies, posterGrid.getMovies());
+        }).get();
+    }
+
+    @Test
+    void testPosterCacheShowsPlaceholderThenKeepsWithinBudget() throws Exception {
+        WaitForAsyncUtils.asyncFx(() -> {
+            ImageView imageView = new ImageView();
+            PosterCache.getInstance().bind(imageView, "images/Inception.jpg", 150, 200);
+
+            // Something is shown straight away while the cover decodes in the background
+            assertNotNull(imageView.getImage());
+
+            PosterCache.getInstance().setBudgetBytes(0);
+            assertEquals(0, PosterCache.getInstance().getUsedBytes());
+            PosterCache.getInstance().setBudgetBytes(PosterCache.DEFAULT_BUDGET_BYTES);
+        }).get();
+    }
+
     @Test
     void testShowAlert() {
         assertDoesNotThrow(() -> Platform.runLater(() -> movieViewer.showAlert("Test Title", "Test Message")),
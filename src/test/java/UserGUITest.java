@@ -1,12 +1,25 @@
 import org.example.controller.MovieManager;
 import org.example.controller.UserManager;
+import org.example.model.Movie;
+import org.example.view.LoginGUI;
 import org.example.view.UserGUI;
 import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
 import javafx.scene.control.ListView;
 import javafx.stage.Stage;
+import javafx.stage.Window;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testfx.util.WaitForAsyncUtils;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class UserGUITest {
@@ -15,6 +28,9 @@ class UserGUITest {
     private UserManager userManager;
     private UserGUI userGUI;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeAll
     static void initJavaFX() {
         // Initialize JavaFX toolkit once for all tests
@@ -141,22 +157,26 @@ class UserGUITest {
      * This tests that the "Favorites" screen displays an empty list when there are no favorites.
      */
     @Test
-    void testEmptyFavoritesList() {
-        Platform.runLater(() -> {
+    void testEmptyFavoritesList() throws Exception {
+        LoginGUI.setCurrentUsername("test");
+        useListsWith(new Movie(1, "Favorite Movie", 2000, "Cast", 7.0, "Drama", "Desc", "a.jpg"));
+
+        WaitForAsyncUtils.asyncFx(() -> {
             Stage stage = new Stage();
             userGUI.start(stage);
 
-            userManager.removeFromFavorites("SomeMovie");  // Ensure no favorites exist
-
             // Simulate clicking the "View Favorites" button
-            javafx.scene.control.Button btnViewFavorites = (javafx.scene.control.Button) stage.getScene().lookup("Button");
-            btnViewFavorites.fire();
+            buttonLabelled(stage.getScene(), "View Favorites").fire();
 
             // Verify that the favorites list is empty
-            ListView<String> favoritesList = (ListView<String>) stage.getScene().lookup(".list-view");
+            Stage favoritesStage = showingStage("Favorites");
+            ListView<Movie> favoritesList = (ListView<Movie>) favoritesStage.getScene().lookup(".list-view");
             assertNotNull(favoritesList);
             assertTrue(favoritesList.getItems().isEmpty());
-        });
+
+            favoritesStage.close();
+            stage.close();
+        }).get();
     }
 
     /**
@@ -164,28 +184,36 @@ class UserGUITest {
      * This tests the interaction between UI and data for removing items from the favorites list.
      */
     @Test
-    void testRemoveFromFavorites() {
-        Platform.runLater(() -> {
+    void testRemoveFromFavorites() throws Exception {
+        LoginGUI.setCurrentUsername("test");
+        Movie favorite = new Movie(1, "Favorite Movie", 2000, "Cast", 7.0, "Drama", "Desc", "a.jpg");
+        UserManager lists = useListsWith(favorite);
+
+        // Simulate adding a movie to the favorites list
+        assertTrue(lists.addFavorite("test", 1));
+
+        WaitForAsyncUtils.asyncFx(() -> {
             Stage stage = new Stage();
             userGUI.start(stage);
 
-            // Simulate adding a movie to the favorites list
-            userManager.addToFavorites("Favorite Movie");
-
             // Simulate clicking the "View Favorites" button
-            javafx.scene.control.Button btnViewFavorites = (javafx.scene.control.Button) stage.getScene().lookup("Button");
-            btnViewFavorites.fire();
+            buttonLabelled(stage.getScene(), "View Favorites").fire();
 
-            ListView<String> favoritesList = (ListView<String>) stage.getScene().lookup(".list-view");
-            assertTrue(favoritesList.getItems().contains("Favorite Movie"));
+            Stage favoritesStage = showingStage("Favorites");
+            ListView<Movie> favoritesList = (ListView<Movie>) favoritesStage.getScene().lookup(".list-view");
+            assertEquals(List.of(favorite), favoritesList.getItems());
 
             // Simulate removing the movie from the favorites list
-            javafx.scene.control.Button btnRemove = (javafx.scene.control.Button) stage.getScene().lookup("Button");
-            btnRemove.fire();
+            favoritesList.getSelectionModel().select(favorite);
+            buttonLabelled(favoritesStage.getScene(), "Remove").fire();
 
             // Verify that the movie is removed from the list
-            assertFalse(favoritesList.getItems().contains("Favorite Movie"));
-        });
+            assertFalse(favoritesList.getItems().contains(favorite));
+
+            favoritesStage.close();
+            stage.close();
+        }).get();
+        assertFalse(lists.isFavorite("test", 1));
     }
 
     /**
@@ -193,27 +221,75 @@ class UserGUITest {
      * This tests the interaction between UI and data for removing items from the watch history list.
      */
     @Test
-    void testRemoveFromWatchHistory() {
-        Platform.runLater(() -> {
+    void testRemoveFromWatchHistory() throws Exception {
+        LoginGUI.setCurrentUsername("test");
+        Movie watched = new Movie(2, "Watched Movie", 2000, "Cast", 7.0, "Drama", "Desc", "b.jpg");
+        UserManager lists = useListsWith(watched);
+
+        // Simulate adding a movie to the watch history list
+        assertTrue(lists.addWatched("test", 2));
+
+        WaitForAsyncUtils.asyncFx(() -> {
             Stage stage = new Stage();
             userGUI.start(stage);
 
-            // Simulate adding a movie to the watch history list
-            userManager.addToWatchHistory("Watched Movie");
-
             // Simulate clicking the "View Watch History" button
-            javafx.scene.control.Button btnViewWatchHistory = (javafx.scene.control.Button) stage.getScene().lookup("Button");
-            btnViewWatchHistory.fire();
+            buttonLabelled(stage.getScene(), "Watch History").fire();
 
-            ListView<String> watchHistoryList = (ListView<String>) stage.getScene().lookup(".list-view");
-            assertTrue(watchHistoryList.getItems().contains("Watched Movie"));
+            Stage watchHistoryStage = showingStage("Watch History");
+            ListView<Movie> watchHistoryList = (ListView<Movie>) watchHistoryStage.getScene().lookup(".list-view");
+            assertEquals(List.of(watched), watchHistoryList.getItems());
 
             // Simulate removing the movie from the watch history list
-            javafx.scene.control.Button btnRemove = (javafx.scene.control.Button) stage.getScene().lookup("Button");
-            btnRemove.fire();
+            watchHistoryList.getSelectionModel().select(watched);
+            buttonLabelled(watchHistoryStage.getScene(), "Remove").fire();
 
             // Verify that the movie is removed from the list
-            assertFalse(watchHistoryList.getItems().contains("Watched Movie"));
-        });
+            assertFalse(watchHistoryList.getItems().contains(watched));
+
+            watchHistoryStage.close();
+            stage.close();
+        }).get();
+        assertEquals(0, lists.getWatchHistoryIds("test").length);
+    }
+
+    // Points the GUI at a catalogue holding the given movie and at empty favorites and watch history files
+    private UserManager useListsWith(Movie movie) {
+        movieManager.getMovies().add(movie);
+        UserManager lists = new UserManager(movieManager) {
+            @Override
+            public File getFavoritesFilePath() {
+                return tempDir.resolve("UserFavorites.csv").toFile();
+            }
+
+            @Override
+            public File getWatchHistoryFilePath() {
+                return tempDir.resolve("UserWatchHistory.csv").toFile();
+            }
+        };
+        userGUI.setManagers(movieManager, lists);
+        return lists;
+    }
+
+    // Finds the most recently opened window with the given title
+    private static Stage showingStage(String title) {
+        Stage found = null;
+        for (Window window : Window.getWindows()) {
+            if (window instanceof Stage stage && title.equals(stage.getTitle())) {
+                found = stage;
+            }
+        }
+        assertNotNull(found, "No window titled " + title);
+        return found;
+    }
+
+    // Finds the button with the given text
+    private static Button buttonLabelled(Scene scene, String text) {
+        for (Node node : scene.getRoot().lookupAll(".button")) {
+            if (node instanceof Button button && text.equals(button.getText())) {
+                return button;
+            }
+        }
+        throw new AssertionError("No button labelled " + text);
     }
 }
@@ -1,3 +1,7 @@
+import org.example.controller.MovieManager;
+import org.example.controller.UserManager;
+import org.example.model.Movie;
+import org.example.view.LoginGUI;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
@@ -74,6 +78,127 @@ public class UserManagerTest {
         Assertions.assertTrue(containsMovieTitle, "Movie title was not correctly added to favorites");
     }
 
+    // Test case UT-04-TB: credentialsAreServedFromMemory()
+    @Test
+    public void credentialsAreServedFromMemory() throws IOException {
+        File userFile = File.createTempFile("UserPass", ".csv");
+        userFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(userFile)) {
+            writer.write("Username,Password\nalice,secret\n");
+        }
+        UserManager userManager = new UserManager() {
+            @Override
+            protected File getUserFilePath() {
+                return userFile;
+            }
+        };
+
+        Assertions.assertTrue(userManager.authenticateUser("alice", "secret"));
+        userManager.saveUserCredentials("bob", "hunter2");
+        Assertions.assertTrue(userManager.isUsernameTaken("bob"));
+
+        // Once loaded, logins no longer read the file
+        Assertions.assertTrue(userFile.delete());
+        Assertions.assertTrue(userManager.authenticateUser("bob", "hunter2"));
+        Assertions.assertFalse(userManager.authenticateUser("alice", "wrong"));
+    }
+
+    // Test case UT-05-TB: removingAFavoriteOnlyAppendsThatUsersRow()
+    @Test
+    public void removingAFavoriteOnlyAppendsThatUsersRow() throws IOException {
+        File favoritesFile = File.createTempFile("UserFavorites", ".csv");
+        favoritesFile.deleteOnExit();
+        String original = "\"test\",\"The Matrix\",\"Heat\"\n\"user\",\"Pulp Fiction\"\n";
+        try (FileWriter writer = new FileWriter(favoritesFile)) {
+            writer.write(original);
+        }
+        MovieManager movieManager = new MovieManager();
+        movieManager.getMovies().add(new Movie(1, "The Matrix", 1999, "Keanu Reeves", 8.7, "Sci-Fi", "Desc", "matrix.jpg"));
+        movieManager.getMovies().add(new Movie(2, "Heat", 1995, "Al Pacino", 8.3, "Crime", "Desc", "heat.jpg"));
+        movieManager.getMovies().add(new Movie(3, "Pulp Fiction", 1994, "John Travolta", 8.9, "Crime", "Desc", "pulp.jpg"));
+        UserManager userManager = new UserManager(movieManager) {
+            @Override
+            public File getFavoritesFilePath() {
+                return favoritesFile;
+            }
+        };
+
+        LoginGUI.setCurrentUsername("test");
+        userManager.removeFromFavorites("The Matrix");
+
+        Assertions.assertEquals(java.util.List.of("Heat"), userManager.getFavoriteMovies("test"));
+        Assertions.assertEquals(java.util.List.of("Pulp Fiction"), userManager.getFavoriteMovies("user"));
+        // The earlier rows are left in place; the user's new row is appended after them
+        String content = new String(java.nio.file.Files.readAllBytes(favoritesFile.toPath()));
+        Assertions.assertTrue(content.startsWith(original));
+    }
+
+    // Test case UT-06-TB: favoritesFollowMovieIdsAcrossRenames()
+    @Test
+    public void favoritesFollowMovieIdsAcrossRenames() throws IOException {
+        File favoritesFile = File.createTempFile("UserFavorites", ".csv");
+        favoritesFile.deleteOnExit();
+        MovieManager movieManager = new MovieManager();
+        Movie heat = new Movie(7, "Heat", 1995, "Al Pacino", 8.3, "Crime", "Desc", "heat.jpg");
+        movieManager.getMovies().add(heat);
+        UserManager userManager = new UserManager(movieManager) {
+            @Override
+            public File getFavoritesFilePath() {
+                return favoritesFile;
+            }
+        };
+
+        Assertions.assertTrue(userManager.addFavorite("test", 7));
+        Assertions.assertFalse(userManager.addFavorite("test", 7), "Duplicates are rejected");
+        Assertions.assertTrue(userManager.isFavorite("test", 7));
+
+        // The row holds the ID, so renaming the movie does not orphan the entry
+        heat.setTitle("Heat (1995)");
+        Assertions.assertArrayEquals(new int[]{7}, userManager.getFavoriteMovieIds("test"));
+        Assertions.assertEquals(java.util.List.of("Heat (1995)"), userManager.getFavoriteMovies("test"));
+        Assertions.assertFalse(fileContainsMovieTitle(favoritesFile, "Heat"));
+
+        Assertions.assertTrue(userManager.removeFavorite("test", 7));
+        Assertions.assertEquals(0, userManager.getFavoriteMovieIds("test").length);
+    }
+
+    // Test case UT-07-TB: legacyTitlesSurviveUntilTheyResolve()
+    @Test
+    public void legacyTitlesSurviveUntilTheyResolve() throws IOException {
+        File favoritesFile = File.createTempFile("UserFavorites", ".csv");
+        favoritesFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(favoritesFile)) {
+            writer.write("\"test\",\"1917\",\"Heat\"\n");
+        }
+        UserManager withoutCatalogue = new UserManager() {
+            @Override
+            public File getFavoritesFilePath() {
+                return favoritesFile;
+            }
+        };
+
+        // Without a catalogue nothing resolves, so a change keeps the titles and tags the new ID
+        Assertions.assertTrue(withoutCatalogue.addFavorite("test", 42));
+        Assertions.assertTrue(fileContainsMovieTitle(favoritesFile, "\"test\",\"1917\",\"Heat\",\"#42\""));
+
+        MovieManager movieManager = new MovieManager();
+        movieManager.getMovies().add(new Movie(7, "Heat", 1995, "Al Pacino", 8.3, "Crime", "Desc", "heat.jpg"));
+        movieManager.getMovies().add(new Movie(1917, "Alien", 1979, "Sigourney Weaver", 8.5, "Horror", "Desc", "alien.jpg"));
+        movieManager.getMovies().add(new Movie(3, "1917", 2019, "George MacKay", 8.2, "War", "Desc", "1917.jpg"));
+        UserManager userManager = new UserManager(movieManager) {
+            @Override
+            public File getFavoritesFilePath() {
+                return favoritesFile;
+            }
+        };
+
+        // "1917" is a title, not movie 1917; once every title resolves the row is written back as IDs
+        Assertions.assertArrayEquals(new int[]{3, 7, 42}, userManager.getFavoriteMovieIds("test"));
+        Assertions.assertTrue(userManager.removeFavorite("test", 42));
+        Assertions.assertTrue(fileContainsMovieTitle(favoritesFile, "\"test\",\"#3\",\"#7\""));
+        Assertions.assertEquals(java.util.List.of("1917", "Heat"), userManager.getFavoriteMovies("test"));
+    }
+
     // --- System Tests ---
 
     // Test case ST-01-TB: systemCorrectlyHandlesAddingAndRemovingMovies()